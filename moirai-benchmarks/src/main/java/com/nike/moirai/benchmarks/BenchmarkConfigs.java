@@ -0,0 +1,70 @@
+package com.nike.moirai.benchmarks;
+
+/**
+ * Generates Moirai Typesafe configs of a given size for the benchmarks.
+ */
+public class BenchmarkConfigs {
+    /**
+     * The number of users listed in each feature's enabledUserIds.
+     */
+    public static final int ENABLED_USERS_PER_FEATURE = 20;
+
+    /**
+     * Generates a config with features named "feature0" through "feature[featureCount - 1]". Every feature has enabled users
+     * "user0" through "user19", an enabled proportion, and enabled countries. Every tenth feature is enabled outright, and every other
+     * feature is placed in one of ten feature groups.
+     *
+     * @param featureCount the number of features to generate
+     * @return the config as a HOCON string
+     */
+    public static String generate(int featureCount) {
+        StringBuilder config = new StringBuilder(featureCount * 256);
+        config.append("moirai {\n");
+
+        for (int i = 0; i < featureCount; i++) {
+            config.append("  ").append(featureIdentifier(i)).append(" {\n");
+            config.append("    enabledUserIds = [");
+
+            for (int u = 0; u < ENABLED_USERS_PER_FEATURE; u++) {
+                if (u > 0) {
+                    config.append(", ");
+                }
+                config.append('"').append(userId(u)).append('"');
+            }
+
+            config.append("]\n");
+            config.append("    enabledProportion = ").append((i % 100) / 100.0).append('\n');
+            config.append("    enabledCountries = [\"US\", \"CA\", \"MX\", \"PE\"]\n");
+            config.append("    featureEnabled = ").append(i % 10 == 0).append('\n');
+
+            if (i % 2 == 0) {
+                config.append("    featureGroup = group").append(i % 10).append('\n');
+            }
+
+            config.append("  }\n");
+        }
+
+        config.append("}\n");
+        return config.toString();
+    }
+
+    /**
+     * @param index the index of the feature
+     * @return the identifier of the generated feature
+     */
+    public static String featureIdentifier(int index) {
+        return "feature" + index;
+    }
+
+    /**
+     * @param index the index of the user
+     * @return a userId
+     */
+    public static String userId(int index) {
+        return "user" + index;
+    }
+
+    private BenchmarkConfigs() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,67 @@
+package com.nike.moirai.benchmarks;
+
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.config.BucketingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides proportion-of-users rollouts with each {@link BucketingStrategy}, both for a new input per check and for one input checked
+ * against many features (where the userId hash can be reused).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketingBenchmark {
+    private static final int FEATURES = 16;
+
+    @Param({"HASH_CODE_PERCENT", "MURMUR3_BASIS_POINTS"})
+    public BucketingStrategy strategy;
+
+    private final String userId = "a6c3d1f0-2b7e-4e55-9a8e-0d3f6c1b2a47";
+    private final String[] hashGroups = new String[FEATURES];
+    private final long[] salts = new long[FEATURES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < FEATURES; i++) {
+            hashGroups[i] = BenchmarkConfigs.featureIdentifier(i);
+            salts[i] = strategy.hashGroupSalt(hashGroups[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean newInputPerCheck() {
+        int i = next++ & (FEATURES - 1);
+        return strategy.isEnabled(FeatureCheckInput.forUser(userId), hashGroups[i], salts[i], 0.5);
+    }
+
+    @Benchmark
+    public int oneInputManyFeatures() {
+        FeatureCheckInput input = FeatureCheckInput.forUser(userId);
+        int enabled = 0;
+
+        for (int i = 0; i < FEATURES; i++) {
+            if (strategy.isEnabled(input, hashGroups[i], salts[i], 0.5)) {
+                enabled++;
+            }
+        }
+
+        return enabled;
+    }
+}
@@ -0,0 +1,83 @@
+package com.nike.moirai.benchmarks;
+
+import com.nike.moirai.config.CompiledConfig;
+import com.nike.moirai.config.CompiledConfigSnapshot;
+import com.nike.moirai.config.FeatureRule;
+import com.nike.moirai.config.GeneratedConfig;
+import com.nike.moirai.typesafeconfig.TypesafeConfigCompiler;
+import com.nike.moirai.typesafeconfig.TypesafeConfigReader;
+import com.typesafe.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what each reload costs: parsing the config text with {@link TypesafeConfigReader#FROM_STRING}, compiling the parsed config
+ * with {@link TypesafeConfigCompiler#COMPILE}, and generating its decisions with {@link GeneratedConfig#generator}, compared to reading a
+ * {@link CompiledConfigSnapshot} of the same config.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigLoadBenchmark {
+    private static final FeatureRule FALLBACK_RULE = FeatureRule.parse("users OR proportion OR country IN enabledCountries");
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int featureCount;
+
+    private String configText;
+    private Config config;
+    private CompiledConfig compiledConfig;
+    private byte[] snapshot;
+
+    @Setup
+    public void setup() {
+        configText = BenchmarkConfigs.generate(featureCount);
+        config = TypesafeConfigReader.FROM_STRING.apply(configText);
+        compiledConfig = TypesafeConfigCompiler.COMPILE.apply(config);
+        snapshot = CompiledConfigSnapshot.toBytes(compiledConfig);
+    }
+
+    @Benchmark
+    public Config parse() {
+        return TypesafeConfigReader.FROM_STRING.apply(configText);
+    }
+
+    @Benchmark
+    public CompiledConfig compile() {
+        return TypesafeConfigCompiler.COMPILE.apply(config);
+    }
+
+    @Benchmark
+    public CompiledConfig parseAndCompile() {
+        return TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigCompiler.COMPILE).apply(configText);
+    }
+
+    @Benchmark
+    public CompiledConfig readSnapshot() {
+        return CompiledConfigSnapshot.FROM_BYTES.apply(snapshot);
+    }
+
+    @Benchmark
+    public GeneratedConfig generate() {
+        return GeneratedConfig.generator(FALLBACK_RULE).apply(compiledConfig);
+    }
+
+    @Benchmark
+    public GeneratedConfig generateWithDecisionClasses() {
+        return GeneratedConfig.generatorWithDecisionClasses(FALLBACK_RULE).apply(compiledConfig);
+    }
+}
@@ -0,0 +1,129 @@
+package com.nike.moirai.benchmarks;
+
+import com.nike.moirai.ConfigFeatureFlagChecker;
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.FeatureFlagChecker;
+import com.nike.moirai.config.CompiledConfig;
+import com.nike.moirai.config.CompiledFeatureDeciders;
+import com.nike.moirai.typesafeconfig.TypesafeConfigCompiler;
+import com.nike.moirai.typesafeconfig.TypesafeConfigDecider;
+import com.nike.moirai.typesafeconfig.TypesafeConfigReader;
+import com.typesafe.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks features through a {@link ConfigFeatureFlagChecker}, comparing the {@link TypesafeConfigDecider} predicates against the
+ * {@link CompiledFeatureDeciders} for the same config.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureCheckBenchmark {
+    @Param({"10", "1000", "50000"})
+    public int featureCount;
+
+    private FeatureFlagChecker typesafeEnabledUsers;
+    private FeatureFlagChecker typesafeOrChain;
+    private FeatureFlagChecker typesafeAndChain;
+    private FeatureFlagChecker compiledEnabledUsers;
+    private FeatureFlagChecker compiledOrChain;
+    private FeatureFlagChecker compiledAndChain;
+
+    private String feature;
+    private List<String> features;
+    private FeatureCheckInput enabledUserInput;
+    private FeatureCheckInput otherUserInput;
+
+    @Setup
+    public void setup() {
+        Config config = TypesafeConfigReader.FROM_STRING.apply(BenchmarkConfigs.generate(featureCount));
+        CompiledConfig compiledConfig = TypesafeConfigCompiler.COMPILE.apply(config);
+
+        typesafeEnabledUsers = ConfigFeatureFlagChecker.forConfigSupplier(() -> config, TypesafeConfigDecider.ENABLED_USERS);
+        typesafeOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> config,
+            TypesafeConfigDecider.ENABLED_USERS
+                .or(TypesafeConfigDecider.PROPORTION_OF_USERS)
+                .or(TypesafeConfigDecider.enabledCustomStringDimension("country", "enabledCountries")));
+        typesafeAndChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> config,
+            TypesafeConfigDecider.FEATURE_ENABLED
+                .and(TypesafeConfigDecider.enabledCustomStringDimension("country", "enabledCountries"))
+                .and(TypesafeConfigDecider.PROPORTION_OF_USERS));
+
+        compiledEnabledUsers = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig, CompiledFeatureDeciders.ENABLED_USERS);
+        compiledOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig,
+            CompiledFeatureDeciders.ENABLED_USERS
+                .or(CompiledFeatureDeciders.PROPORTION_OF_USERS)
+                .or(CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries")));
+        compiledAndChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig,
+            CompiledFeatureDeciders.FEATURE_ENABLED
+                .and(CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries"))
+                .and(CompiledFeatureDeciders.PROPORTION_OF_USERS));
+
+        feature = BenchmarkConfigs.featureIdentifier(featureCount / 2);
+        features = new ArrayList<>();
+        for (int i = 0; i < Math.min(featureCount, 10); i++) {
+            features.add(BenchmarkConfigs.featureIdentifier(i));
+        }
+
+        enabledUserInput = FeatureCheckInput.forUser(BenchmarkConfigs.userId(BenchmarkConfigs.ENABLED_USERS_PER_FEATURE - 1));
+        otherUserInput = FeatureCheckInput.forUser("someone-else").withAdditionalDimension("country", "BE");
+    }
+
+    @Benchmark
+    public boolean typesafeSingleFlag() {
+        return typesafeEnabledUsers.isFeatureEnabled(feature, enabledUserInput);
+    }
+
+    @Benchmark
+    public boolean typesafeOrChain() {
+        return typesafeOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean typesafeAndChain() {
+        return typesafeAndChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public Map<String, Boolean> typesafeMultiFlag() {
+        return typesafeOrChain.evaluateAll(features, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean compiledSingleFlag() {
+        return compiledEnabledUsers.isFeatureEnabled(feature, enabledUserInput);
+    }
+
+    @Benchmark
+    public boolean compiledOrChain() {
+        return compiledOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean compiledAndChain() {
+        return compiledAndChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public Map<String, Boolean> compiledMultiFlag() {
+        return compiledOrChain.evaluateAll(features, otherUserInput);
+    }
+}
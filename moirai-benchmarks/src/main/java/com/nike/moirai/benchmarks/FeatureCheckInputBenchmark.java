@@ -0,0 +1,52 @@
+package com.nike.moirai.benchmarks;
+
+import com.nike.moirai.DimensionSchema;
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.ReusableFeatureCheckInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds {@link FeatureCheckInput} instances the ways an application would for each check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureCheckInputBenchmark {
+    private final String userId = "user1";
+    private final Instant dateTime = Instant.parse("2020-01-01T00:00:00Z");
+    private final ReusableFeatureCheckInput reusable = new ReusableFeatureCheckInput(DimensionSchema.of("country"));
+
+    @Benchmark
+    public FeatureCheckInput forUser() {
+        return FeatureCheckInput.forUser(userId);
+    }
+
+    @Benchmark
+    public FeatureCheckInput withAdditionalDimension() {
+        return FeatureCheckInput.forUserAtTime(userId, dateTime).withAdditionalDimension("country", "US");
+    }
+
+    @Benchmark
+    public FeatureCheckInput builder() {
+        return new FeatureCheckInput.Builder().userId(userId).dateTime(dateTime).dimension("country", "US").build();
+    }
+
+    @Benchmark
+    public FeatureCheckInput reusable() {
+        return reusable.reset().userId(userId).dateTime(dateTime).dimension(0, "US");
+    }
+}
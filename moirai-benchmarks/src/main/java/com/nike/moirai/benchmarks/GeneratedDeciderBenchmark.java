@@ -0,0 +1,129 @@
+package com.nike.moirai.benchmarks;
+
+import com.nike.moirai.ConfigFeatureFlagChecker;
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.FeatureFlagChecker;
+import com.nike.moirai.FeatureHandle;
+import com.nike.moirai.config.CompiledConfig;
+import com.nike.moirai.config.CompiledFeatureDeciders;
+import com.nike.moirai.config.FeatureRule;
+import com.nike.moirai.config.GeneratedConfig;
+import com.nike.moirai.typesafeconfig.TypesafeConfigCompiler;
+import com.nike.moirai.typesafeconfig.TypesafeConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the same rules through the interpreted {@link CompiledFeatureDeciders} predicates, through an interpreted {@link FeatureRule},
+ * and through the MethodHandles generated by {@link GeneratedConfig}, both shared and with a class for each decision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedDeciderBenchmark {
+    private static final String OR_RULE = "users OR proportion OR country IN enabledCountries";
+    private static final String AND_RULE = "enabled AND country IN enabledCountries AND proportion";
+
+    @Param({"1000"})
+    public int featureCount;
+
+    private FeatureFlagChecker predicateOrChain;
+    private FeatureFlagChecker predicateAndChain;
+    private FeatureFlagChecker ruleOrChain;
+    private FeatureFlagChecker ruleAndChain;
+    private FeatureFlagChecker generatedOrChain;
+    private FeatureFlagChecker generatedAndChain;
+    private FeatureFlagChecker generatedClassOrChain;
+    private FeatureHandle predicateOrHandle;
+    private FeatureHandle generatedOrHandle;
+
+    private String feature;
+    private FeatureCheckInput otherUserInput;
+
+    @Setup
+    public void setup() {
+        CompiledConfig compiledConfig = TypesafeConfigCompiler.COMPILE.apply(TypesafeConfigReader.FROM_STRING.apply(BenchmarkConfigs.generate(featureCount)));
+        GeneratedConfig generatedOrConfig = GeneratedConfig.generator(FeatureRule.parse(OR_RULE)).apply(compiledConfig);
+        GeneratedConfig generatedAndConfig = GeneratedConfig.generator(FeatureRule.parse(AND_RULE)).apply(compiledConfig);
+        GeneratedConfig generatedClassOrConfig = GeneratedConfig.generatorWithDecisionClasses(FeatureRule.parse(OR_RULE)).apply(compiledConfig);
+
+        predicateOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig,
+            CompiledFeatureDeciders.ENABLED_USERS
+                .or(CompiledFeatureDeciders.PROPORTION_OF_USERS)
+                .or(CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries")));
+        predicateAndChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig,
+            CompiledFeatureDeciders.FEATURE_ENABLED
+                .and(CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries"))
+                .and(CompiledFeatureDeciders.PROPORTION_OF_USERS));
+        ruleOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig, FeatureRule.parse(OR_RULE));
+        ruleAndChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> compiledConfig, FeatureRule.parse(AND_RULE));
+        generatedOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> generatedOrConfig, GeneratedConfig.DECIDER);
+        generatedAndChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> generatedAndConfig, GeneratedConfig.DECIDER);
+        generatedClassOrChain = ConfigFeatureFlagChecker.forConfigSupplier(() -> generatedClassOrConfig, GeneratedConfig.DECIDER);
+
+        feature = BenchmarkConfigs.featureIdentifier(featureCount / 2 + 1);
+        predicateOrHandle = predicateOrChain.handle(feature);
+        generatedOrHandle = generatedOrChain.handle(feature);
+
+        otherUserInput = FeatureCheckInput.forUser("someone-else").withAdditionalDimension("country", "BE");
+    }
+
+    @Benchmark
+    public boolean predicateOrChain() {
+        return predicateOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean predicateAndChain() {
+        return predicateAndChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean ruleOrChain() {
+        return ruleOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean ruleAndChain() {
+        return ruleAndChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean generatedOrChain() {
+        return generatedOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean generatedAndChain() {
+        return generatedAndChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean generatedClassOrChain() {
+        return generatedClassOrChain.isFeatureEnabled(feature, otherUserInput);
+    }
+
+    @Benchmark
+    public boolean predicateOrHandle() {
+        return predicateOrHandle.isEnabled(otherUserInput);
+    }
+
+    @Benchmark
+    public boolean generatedOrHandle() {
+        return generatedOrHandle.isEnabled(otherUserInput);
+    }
+}
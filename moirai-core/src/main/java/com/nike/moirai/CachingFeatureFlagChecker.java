@@ -0,0 +1,332 @@
+package com.nike.moirai;
+
+import com.nike.moirai.config.ConfigDecisionInput;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorates a {@link ConfigFeatureFlagChecker} with a bounded cache of decisions, for deciders that are expensive to evaluate and are
+ * checked repeatedly with the same input.
+ * <p>
+ * Decisions are cached by feature identifier and {@link FeatureCheckInput}. The cache is split into segments by key, each of which
+ * keeps its own least-recently-used entries up to its share of the maximum size, so checks of different keys rarely contend.
+ * <p>
+ * The cached decisions belong to the config instance they were decided with. When the config supplier returns a different instance,
+ * such as after a {@link com.nike.moirai.resource.reload.ResourceReloader} loads a new value, all of the cached decisions are dropped
+ * at once by swapping in a new, empty cache. Checks that still see the config that was just replaced, while racing the reload, are
+ * decided without the cache rather than swapping back to it. The config supplier must therefore return the same instance until the config
+ * changes.
+ * <p>
+ * Decisions are cached by the userId, dateTime and custom dimensions of the input. Since {@link FeatureCheckInput#forUser} stamps every
+ * input with the current time, inputs from it never share a decision unless the dateTime is ignored. If none of the deciders use the
+ * dateTime, opt in to ignoring it with {@link Builder#ignoreDateTime(boolean) ignoreDateTime(true)}.
+ * <p>
+ * If the wrapped checker records {@link ConfigFeatureFlagChecker#withMetrics metrics}, only the checks that miss the cache are recorded. If
+ * it publishes {@link ConfigFeatureFlagChecker#withExposureListener exposures}, every check publishes one, including cache hits.
+ *
+ * @param <C> the type of config
+ */
+public class CachingFeatureFlagChecker<C> implements FeatureFlagChecker {
+    private static final Object NO_CONFIG = new Object();
+
+    private final ConfigFeatureFlagChecker<C> checker;
+    private final int segmentCount;
+    private final int segmentMaximumSize;
+    private final boolean ignoreDateTime;
+    private final AtomicReference<Generation> generation;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Builds a {@link CachingFeatureFlagChecker}.
+     *
+     * @param <C> the type of config
+     */
+    public static class Builder<C> {
+        private final ConfigFeatureFlagChecker<C> checker;
+        private int maximumSize = 10000;
+        private int segments = 16;
+        private boolean ignoreDateTime = false;
+
+        /**
+         * @param checker the checker to cache the decisions of
+         */
+        public Builder(ConfigFeatureFlagChecker<C> checker) {
+            this.checker = Objects.requireNonNull(checker, "checker");
+        }
+
+        /**
+         * @param maximumSize the maximum number of decisions to cache, which defaults to 10000
+         * @return this
+         */
+        public Builder<C> maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * @param segments the number of independently locked segments to split the cache into, which defaults to 16
+         * @return this
+         */
+        public Builder<C> segments(int segments) {
+            if (segments <= 0) {
+                throw new IllegalArgumentException("segments must be positive: " + segments);
+            }
+
+            this.segments = segments;
+            return this;
+        }
+
+        /**
+         * @param ignoreDateTime whether inputs that differ only in their dateTime should share a cached decision, which is only correct
+         *                       if none of the deciders use the dateTime; defaults to false
+         * @return this
+         */
+        public Builder<C> ignoreDateTime(boolean ignoreDateTime) {
+            this.ignoreDateTime = ignoreDateTime;
+            return this;
+        }
+
+        /**
+         * @return a new CachingFeatureFlagChecker
+         */
+        public CachingFeatureFlagChecker<C> build() {
+            return new CachingFeatureFlagChecker<>(this);
+        }
+    }
+
+    /**
+     * @param checker the checker to cache the decisions of
+     * @param maximumSize the maximum number of decisions to cache
+     * @param <C> the type of config
+     * @return a checker that caches up to maximumSize decisions of the given checker
+     */
+    public static <C> CachingFeatureFlagChecker<C> of(ConfigFeatureFlagChecker<C> checker, int maximumSize) {
+        return new Builder<>(checker).maximumSize(maximumSize).build();
+    }
+
+    private CachingFeatureFlagChecker(Builder<C> builder) {
+        this.checker = builder.checker;
+        this.segmentCount = Math.min(builder.segments, builder.maximumSize);
+        this.segmentMaximumSize = (builder.maximumSize + this.segmentCount - 1) / this.segmentCount;
+        this.ignoreDateTime = builder.ignoreDateTime;
+        this.generation = new AtomicReference<>(newGeneration(NO_CONFIG, null));
+    }
+
+    @Override
+    public boolean isFeatureEnabled(String featureIdentifier, FeatureCheckInput featureCheckInput) {
+        C config = this.checker.currentConfig();
+        return decide(generationFor(config), config, featureIdentifier, featureCheckInput);
+    }
+
+    @Override
+    public boolean isFeatureEnabled(String featureIdentifier) {
+        return isFeatureEnabled(featureIdentifier, FeatureCheckInput.empty());
+    }
+
+    /**
+     * Gets the config value once and checks every feature against it, so all the results are decided by the same config.
+     */
+    @Override
+    public Map<String, Boolean> evaluateAll(Collection<String> featureIdentifiers, FeatureCheckInput featureCheckInput) {
+        C config = this.checker.currentConfig();
+        Generation currentGeneration = generationFor(config);
+        Map<String, Boolean> results = new LinkedHashMap<>();
+
+        for (String featureIdentifier : featureIdentifiers) {
+            results.put(featureIdentifier, decide(currentGeneration, config, featureIdentifier, featureCheckInput));
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * @return the number of checks that were answered from the cache
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * @return the number of checks that were decided by the underlying checker
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * @return the number of decisions removed to keep the cache within its maximum size; decisions dropped because the config
+     * changed are not counted
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * @return the number of decisions currently cached
+     */
+    public long size() {
+        long size = 0;
+
+        for (Segment segment : this.generation.get().segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    private boolean decide(Generation currentGeneration, C config, String featureIdentifier, FeatureCheckInput featureCheckInput) {
+        if (currentGeneration == null) {
+            this.missCount.increment();
+            return this.checker.decide(null, new ConfigDecisionInput<>(config, featureIdentifier, featureCheckInput));
+        }
+
+        DecisionKey key = new DecisionKey(featureIdentifier, featureCheckInput, !this.ignoreDateTime);
+        Segment segment = currentGeneration.segmentFor(key);
+        Boolean cached;
+
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+
+        if (cached != null) {
+            this.hitCount.increment();
+            this.checker.expose(null, config, featureIdentifier, featureCheckInput, cached);
+            return cached;
+        }
+
+        this.missCount.increment();
+        boolean decision = this.checker.decide(null, new ConfigDecisionInput<>(config, featureIdentifier, featureCheckInput));
+
+        synchronized (segment) {
+            segment.put(key, decision);
+        }
+
+        return decision;
+    }
+
+    /**
+     * @return the generation for the config, or null if the config is the one the current generation replaced
+     */
+    private Generation generationFor(C config) {
+        Generation current = this.generation.get();
+
+        while (current.config != config) {
+            if (current.replaced.get() == config) {
+                return null;
+            }
+
+            Generation next = newGeneration(config, current.config);
+
+            if (this.generation.compareAndSet(current, next)) {
+                return next;
+            }
+
+            current = this.generation.get();
+        }
+
+        return current;
+    }
+
+    private Generation newGeneration(Object config, Object replaced) {
+        return new Generation(config, replaced, this.segmentCount, this.segmentMaximumSize, this.evictionCount);
+    }
+
+    private static final class Generation {
+        private final Object config;
+        private final WeakReference<Object> replaced;
+        private final Segment[] segments;
+
+        private Generation(Object config, Object replaced, int segmentCount, int segmentMaximumSize, LongAdder evictionCount) {
+            this.config = config;
+            this.replaced = new WeakReference<>(replaced);
+            this.segments = new Segment[segmentCount];
+
+            for (int i = 0; i < this.segments.length; i++) {
+                this.segments[i] = new Segment(segmentMaximumSize, evictionCount);
+            }
+        }
+
+        private Segment segmentFor(DecisionKey key) {
+            int hash = key.hashCode();
+            return this.segments[Math.floorMod(hash ^ (hash >>> 16), this.segments.length)];
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<DecisionKey, Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final int segmentMaximumSize;
+        private final transient LongAdder evictionCount;
+
+        private Segment(int segmentMaximumSize, LongAdder evictionCount) {
+            super(16, 0.75f, true);
+            this.segmentMaximumSize = segmentMaximumSize;
+            this.evictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DecisionKey, Boolean> eldest) {
+            if (size() > segmentMaximumSize) {
+                evictionCount.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * The feature and the parts of the input the deciders read: the userId, the custom dimensions, and the dateTime unless it is ignored.
+     * The parts are copied out of the input, so a {@link ReusableFeatureCheckInput} can be refilled after the check.
+     */
+    private static final class DecisionKey {
+        private final String featureIdentifier;
+        private final String userId;
+        private final Instant dateTime;
+        private final Map<String, ?> dimensions;
+        private final int hashCode;
+
+        private DecisionKey(String featureIdentifier, FeatureCheckInput featureCheckInput, boolean includeDateTime) {
+            this.featureIdentifier = featureIdentifier;
+            this.userId = featureCheckInput.getUserIdOrNull();
+            this.dateTime = includeDateTime ? featureCheckInput.getDateTimeOrNull() : null;
+            this.dimensions = featureCheckInput.customDimensions();
+            this.hashCode = 31 * featureIdentifier.hashCode() + Objects.hash(userId, dateTime, dimensions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            DecisionKey that = (DecisionKey) o;
+            return hashCode == that.hashCode &&
+                featureIdentifier.equals(that.featureIdentifier) &&
+                Objects.equals(userId, that.userId) &&
+                Objects.equals(dateTime, that.dateTime) &&
+                dimensions.equals(that.dimensions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
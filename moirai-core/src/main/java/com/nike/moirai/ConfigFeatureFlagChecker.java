@@ -1,10 +1,17 @@
 package com.nike.moirai;
 
+import com.nike.moirai.config.BindableConfigDecider;
 import com.nike.moirai.config.ConfigDecisionInput;
+import com.nike.moirai.exposure.ExposureEvent;
+import com.nike.moirai.exposure.ExposureListener;
+import com.nike.moirai.metrics.FeatureCheckMetrics;
 import com.nike.moirai.resource.reload.ResourceReloader;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Checks if a feature is enabled using a given supplier of configuration and a predicate for config decisions for that configuration type.
@@ -14,6 +21,9 @@ import java.util.function.Supplier;
 public class ConfigFeatureFlagChecker<C> implements FeatureFlagChecker {
     private final Supplier<C> configSupplier;
     private final Predicate<ConfigDecisionInput<C>> configDecider;
+    private final FeatureCheckMetrics metrics;
+    private final ExposureListener exposureListener;
+    private final SnapshotTracker<C> snapshotTracker;
 
     /**
      * Given a resource reloader, gets the current config value and calls the configDecider using that config value.
@@ -24,7 +34,7 @@ public class ConfigFeatureFlagChecker<C> implements FeatureFlagChecker {
      * @return a checker for the config from the resource reloader and the provided predicate
      */
     public static <C> ConfigFeatureFlagChecker<C> forReloadableResource(ResourceReloader<C> resourceReloader, Predicate<ConfigDecisionInput<C>> configDecider) {
-        return new ConfigFeatureFlagChecker<>(resourceReloader::getValue, configDecider);
+        return new ConfigFeatureFlagChecker<>(resourceReloader::getValue, configDecider, FeatureCheckMetrics.NO_OP, ExposureListener.NO_OP, new SnapshotTracker<>());
     }
 
     /**
@@ -36,25 +46,193 @@ public class ConfigFeatureFlagChecker<C> implements FeatureFlagChecker {
      * @return a checker for the config from the supplier and the provided predicate
      */
     public static <C> ConfigFeatureFlagChecker<C> forConfigSupplier(Supplier<C> configSupplier, Predicate<ConfigDecisionInput<C>> configDecider) {
-        return new ConfigFeatureFlagChecker<>(configSupplier, configDecider);
+        return new ConfigFeatureFlagChecker<>(configSupplier, configDecider, FeatureCheckMetrics.NO_OP, ExposureListener.NO_OP, new SnapshotTracker<>());
     }
 
     private ConfigFeatureFlagChecker(
         Supplier<C> configSupplier,
-        Predicate<ConfigDecisionInput<C>> configDecider) {
+        Predicate<ConfigDecisionInput<C>> configDecider,
+        FeatureCheckMetrics metrics,
+        ExposureListener exposureListener,
+        SnapshotTracker<C> snapshotTracker) {
 
         this.configSupplier = configSupplier;
         this.configDecider = configDecider;
+        this.metrics = metrics;
+        this.exposureListener = exposureListener;
+        this.snapshotTracker = snapshotTracker;
+    }
+
+    /**
+     * Records every feature check decided by the returned checker to the given metrics, including checks from {@link #evaluateAll},
+     * {@link #enabledUsers} and {@link #handle(String)}. By default, checkers do not record any metrics.
+     *
+     * @param metrics where to record feature checks
+     * @return a checker with the same config supplier and configDecider as this one that records to the given metrics
+     */
+    public ConfigFeatureFlagChecker<C> withMetrics(FeatureCheckMetrics metrics) {
+        return new ConfigFeatureFlagChecker<>(this.configSupplier, this.configDecider, metrics, this.exposureListener, this.snapshotTracker);
+    }
+
+    /**
+     * Publishes an {@link ExposureEvent} for every feature check decided by the returned checker, including checks from
+     * {@link #evaluateAll}, {@link #enabledUsers} and {@link #handle(String)}. The event's config version starts at 1 and goes up each
+     * time the config supplier returns a new config instance, the same as {@link FeatureFlagSnapshot#getVersion()}. By default, checkers
+     * do not publish exposures, and do not track config versions outside of snapshots.
+     *
+     * @param exposureListener where to publish exposures, such as an {@link com.nike.moirai.exposure.ExposurePipeline}
+     * @return a checker with the same config supplier and configDecider as this one that publishes to the given listener
+     */
+    public ConfigFeatureFlagChecker<C> withExposureListener(ExposureListener exposureListener) {
+        return new ConfigFeatureFlagChecker<>(this.configSupplier, this.configDecider, this.metrics, exposureListener, this.snapshotTracker);
     }
 
     @Override
     public boolean isFeatureEnabled(String featureIdentifier, FeatureCheckInput featureCheckInput) {
-        return this.configDecider.test(new ConfigDecisionInput<>(this.configSupplier.get(), featureIdentifier, featureCheckInput));
+        return decide(null, new ConfigDecisionInput<>(this.configSupplier.get(), featureIdentifier, featureCheckInput));
     }
 
     @Override
     public boolean isFeatureEnabled(String featureIdentifier) {
-        return this.configDecider.test(new ConfigDecisionInput<>(this.configSupplier.get(), featureIdentifier, FeatureCheckInput.empty()));
+        return isFeatureEnabled(featureIdentifier, FeatureCheckInput.empty());
+    }
+
+    /**
+     * Gets the config value once and checks every feature against it, so all the results are decided by the same config. One decision
+     * input is built for the whole batch and reused for each feature, so the userId hash is also computed once.
+     */
+    @Override
+    public Map<String, Boolean> evaluateAll(Collection<String> featureIdentifiers, FeatureCheckInput featureCheckInput) {
+        return snapshot().evaluateAll(featureIdentifiers, featureCheckInput);
+    }
+
+    /**
+     * Gets the config value once and checks every user against it in parallel, so all the users are decided by the same config.
+     */
+    @Override
+    public Stream<String> enabledUsers(String featureIdentifier, Stream<String> userIds) {
+        return snapshot().enabledUsers(featureIdentifier, userIds);
+    }
+
+    /**
+     * Gets the config value once and returns a checker that decides every check with that config, even if the config is reloaded
+     * afterwards. Use a snapshot when the checks made while handling one request should all agree with each other.
+     *
+     * @return a snapshot of this checker for the current config value
+     */
+    public FeatureFlagSnapshot<C> snapshot() {
+        return new FeatureFlagSnapshot<>(this, this.snapshotTracker.track(this.configSupplier.get()));
+    }
+
+    /**
+     * Gets a handle that resolves the feature once for each config value. If the configDecider is a {@link BindableConfigDecider}, such as
+     * a {@link com.nike.moirai.config.CompiledFeatureDecider}, the feature is bound using
+     * {@link BindableConfigDecider#bind(Object, String)} and checks only evaluate the input until the config changes.
+     */
+    @Override
+    public FeatureHandle handle(String featureIdentifier) {
+        return new ConfigFeatureHandle(featureIdentifier);
+    }
+
+    C currentConfig() {
+        return this.configSupplier.get();
+    }
+
+    boolean decide(SnapshotTracker.Tracked<C> tracked, String featureIdentifier, FeatureCheckInput featureCheckInput) {
+        return decide(tracked, new ConfigDecisionInput<>(tracked.config, featureIdentifier, featureCheckInput));
+    }
+
+    /**
+     * @param tracked the version of the config in the decision input, or null to only look it up if an exposure is published
+     */
+    boolean decide(SnapshotTracker.Tracked<C> tracked, ConfigDecisionInput<C> configDecisionInput) {
+        long start = startTime();
+        boolean enabled = this.configDecider.test(configDecisionInput);
+        record(tracked, configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier(), configDecisionInput.getFeatureCheckInput(), enabled, start);
+
+        return enabled;
     }
 
+    private long startTime() {
+        return this.metrics == FeatureCheckMetrics.NO_OP ? 0L : System.nanoTime();
+    }
+
+    private void record(SnapshotTracker.Tracked<C> tracked, C config, String featureIdentifier, FeatureCheckInput featureCheckInput, boolean enabled, long start) {
+        if (this.metrics != FeatureCheckMetrics.NO_OP) {
+            this.metrics.recordCheck(featureIdentifier, enabled, System.nanoTime() - start);
+        }
+
+        expose(tracked, config, featureIdentifier, featureCheckInput, enabled);
+    }
+
+    /**
+     * Publishes the exposure for a check that was decided without this checker, such as from a {@link CachingFeatureFlagChecker} hit.
+     */
+    void expose(SnapshotTracker.Tracked<C> tracked, C config, String featureIdentifier, FeatureCheckInput featureCheckInput, boolean enabled) {
+        if (this.exposureListener != ExposureListener.NO_OP) {
+            this.exposureListener.onExposure(new ExposureEvent(
+                featureIdentifier,
+                featureCheckInput.getUserIdOrNull(),
+                enabled,
+                (tracked != null ? tracked : this.snapshotTracker.track(config)).version,
+                System.currentTimeMillis()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<FeatureCheckInput> bind(C config, String featureIdentifier) {
+        if (this.configDecider instanceof BindableConfigDecider) {
+            return ((BindableConfigDecider<C>) this.configDecider).bind(config, featureIdentifier);
+        }
+
+        return featureCheckInput -> this.configDecider.test(new ConfigDecisionInput<>(config, featureIdentifier, featureCheckInput));
+    }
+
+    private final class ConfigFeatureHandle implements FeatureHandle {
+        private final String featureIdentifier;
+        private volatile BoundFeature<C> boundFeature;
+
+        private ConfigFeatureHandle(String featureIdentifier) {
+            this.featureIdentifier = featureIdentifier;
+        }
+
+        @Override
+        public String getFeatureIdentifier() {
+            return this.featureIdentifier;
+        }
+
+        @Override
+        public boolean isEnabled(FeatureCheckInput featureCheckInput) {
+            long start = startTime();
+            C config = configSupplier.get();
+            BoundFeature<C> current = this.boundFeature;
+
+            if (current == null || current.config != config) {
+                current = new BoundFeature<>(config, bind(config, this.featureIdentifier));
+                this.boundFeature = current;
+            }
+
+            boolean enabled = current.decision.test(featureCheckInput);
+            record(null, config, this.featureIdentifier, featureCheckInput, enabled, start);
+
+            return enabled;
+        }
+
+        @Override
+        public String toString() {
+            return "FeatureHandle{" +
+                "featureIdentifier='" + featureIdentifier + '\'' +
+                '}';
+        }
+    }
+
+    private static final class BoundFeature<C> {
+        private final C config;
+        private final Predicate<FeatureCheckInput> decision;
+
+        private BoundFeature(C config, Predicate<FeatureCheckInput> decision) {
+            this.config = config;
+            this.decision = decision;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.nike.moirai;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed set of custom dimension keys, registered up front so that each key is assigned a slot index. A
+ * {@link ReusableFeatureCheckInput} stores its custom dimensions in an array by slot instead of in a map.
+ */
+public final class DimensionSchema {
+    private static final DimensionSchema EMPTY = new DimensionSchema(new String[0]);
+
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+
+    /**
+     * @param dimensionKeys the custom dimension keys, which are assigned slots in the order they are given
+     * @return a schema for the given keys
+     * @throws IllegalArgumentException if a key is a built-in dimension key or is given more than once
+     */
+    public static DimensionSchema of(String... dimensionKeys) {
+        return dimensionKeys.length == 0 ? EMPTY : new DimensionSchema(dimensionKeys.clone());
+    }
+
+    /**
+     * @return a schema without any custom dimensions
+     */
+    public static DimensionSchema empty() {
+        return EMPTY;
+    }
+
+    private DimensionSchema(String[] keys) {
+        Map<String, Integer> slots = new HashMap<>();
+
+        for (int i = 0; i < keys.length; i++) {
+            if (FeatureCheckInput.DimensionKey.KEYS.contains(keys[i])) {
+                throw new IllegalArgumentException(String.format("Dimension key '%s' conflicts with built-in dimension key", keys[i]));
+            }
+
+            if (slots.put(keys[i], i) != null) {
+                throw new IllegalArgumentException(String.format("Dimension key '%s' is registered more than once", keys[i]));
+            }
+        }
+
+        this.keys = keys;
+        this.slots = slots;
+    }
+
+    /**
+     * @param dimensionKey a custom dimension key
+     * @return the slot for the key, or -1 if the key is not registered
+     */
+    public int slotOf(String dimensionKey) {
+        Integer slot = this.slots.get(dimensionKey);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @return the number of registered keys
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * @return the registered keys, in slot order
+     */
+    public List<String> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.keys));
+    }
+
+    String keyAt(int slot) {
+        return this.keys[slot];
+    }
+
+    @Override
+    public String toString() {
+        return "DimensionSchema{" +
+            "keys=" + Arrays.toString(keys) +
+            '}';
+    }
+}
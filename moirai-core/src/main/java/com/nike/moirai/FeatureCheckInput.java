@@ -2,6 +2,7 @@ package com.nike.moirai;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -17,32 +18,41 @@ public class FeatureCheckInput {
     public enum DimensionKey {
         USER_ID, DATE_TIME;
 
-        private static Set<String> KEYS = Arrays.stream(DimensionKey.values()).map(DimensionKey::name).collect(Collectors.toSet());
+        static final Set<String> KEYS = Arrays.stream(DimensionKey.values()).map(DimensionKey::name).collect(Collectors.toSet());
     }
 
+    private static final FeatureCheckInput EMPTY = new FeatureCheckInput(null, null, Collections.emptyMap());
+
+    private final String userId;
+    private final Instant dateTime;
     private final Map<String, ?> dimensions;
+    private transient long userIdHash;
+    private transient volatile boolean userIdHashed;
 
     /**
      * Builds a {@link FeatureCheckInput}.
      */
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     public static class Builder {
-        private final Map<String, Object> dimensions;
-        private Optional<String> userId = Optional.empty();
-        private Optional<Instant> dateTime = Optional.empty();
+        private Map<String, Object> dimensions;
+        private String userId;
+        private Instant dateTime;
 
         /**
          * Empty builder
          */
         public Builder() {
-            this.dimensions = new HashMap<>();
+            this.dimensions = null;
         }
 
         /**
          * @param featureCheckInput existing input to copy from
          */
         public Builder(FeatureCheckInput featureCheckInput) {
-            this.dimensions = new HashMap<>(featureCheckInput.dimensions);
+            Map<String, ?> existingDimensions = featureCheckInput.customDimensions();
+
+            this.dimensions = existingDimensions.isEmpty() ? null : new HashMap<>(existingDimensions);
+            this.userId = featureCheckInput.getUserIdOrNull();
+            this.dateTime = featureCheckInput.getDateTimeOrNull();
         }
 
         /**
@@ -50,7 +60,7 @@ public class FeatureCheckInput {
          * @return this
          */
         public Builder userId(String userId) {
-            this.userId = Optional.ofNullable(userId);
+            this.userId = userId;
             return this;
         }
 
@@ -64,7 +74,7 @@ public class FeatureCheckInput {
          * @return this
          */
         public Builder dateTime(Instant dateTime) {
-            this.dateTime = Optional.ofNullable(dateTime);
+            this.dateTime = dateTime;
             return this;
         }
 
@@ -81,6 +91,10 @@ public class FeatureCheckInput {
                 throw new IllegalArgumentException(String.format("Dimension key '%s' conflicts with built-in dimension key", dimensionKey));
             }
 
+            if (this.dimensions == null) {
+                this.dimensions = new HashMap<>();
+            }
+
             this.dimensions.put(dimensionKey, dimensionValue);
             return this;
         }
@@ -103,10 +117,14 @@ public class FeatureCheckInput {
          * @return a new FeatureCheckInput
          */
         public FeatureCheckInput build() {
-            this.userId.ifPresent(v -> this.dimensions.put(DimensionKey.USER_ID.name(), v));
-            this.dateTime.ifPresent(v -> this.dimensions.put(DimensionKey.DATE_TIME.name(), v));
+            if (this.userId == null && this.dateTime == null && this.dimensions == null) {
+                return EMPTY;
+            }
 
-            return new FeatureCheckInput(this.dimensions);
+            return new FeatureCheckInput(
+                this.userId,
+                this.dateTime,
+                this.dimensions == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(this.dimensions)));
         }
     }
 
@@ -118,7 +136,7 @@ public class FeatureCheckInput {
      * @return a new FeatureCheckInput
      */
     public static FeatureCheckInput forUser(String userId) {
-        return new Builder().userId(userId).dateTime(Instant.now()).build();
+        return new FeatureCheckInput(userId, Instant.now(), Collections.emptyMap());
     }
 
     /**
@@ -127,7 +145,7 @@ public class FeatureCheckInput {
      * @return a new FeatureCheckInput
      */
     public static FeatureCheckInput empty() {
-        return new Builder().build();
+        return EMPTY;
     }
 
     /**
@@ -139,10 +157,12 @@ public class FeatureCheckInput {
      * @return a new FeatureCheckInput
      */
     public static FeatureCheckInput forUserAtTime(String userId, Instant dateTime) {
-        return new Builder().userId(userId).dateTime(dateTime).build();
+        return new FeatureCheckInput(userId, dateTime, Collections.emptyMap());
     }
 
-    FeatureCheckInput(Map<String, ?> dimensions) {
+    FeatureCheckInput(String userId, Instant dateTime, Map<String, ?> dimensions) {
+        this.userId = userId;
+        this.dateTime = dateTime;
         this.dimensions = dimensions;
     }
 
@@ -174,14 +194,47 @@ public class FeatureCheckInput {
      * @return the id of the user accessing the feature
      */
     public Optional<String> getUserId() {
-        return Optional.ofNullable((String) this.dimensions.get(DimensionKey.USER_ID.name()));
+        return Optional.ofNullable(getUserIdOrNull());
+    }
+
+    /**
+     * Same as {@link #getUserId()} without wrapping the value, for use by deciders on the feature-check path.
+     *
+     * @return the id of the user accessing the feature, or null if there is none
+     */
+    public String getUserIdOrNull() {
+        return this.userId;
+    }
+
+    /**
+     * The {@link Hashing#murmur3(CharSequence)} of the userId, computed at most once per input so that it can be shared by every
+     * feature checked with this input.
+     *
+     * @return the hash of the userId, or 0 if there is no userId
+     */
+    public long getUserIdHash() {
+        if (!this.userIdHashed) {
+            this.userIdHash = this.userId != null ? Hashing.murmur3(this.userId) : 0L;
+            this.userIdHashed = true;
+        }
+
+        return this.userIdHash;
     }
 
     /**
      * @return the time at which to check if the feature is enabled
      */
     public Optional<Instant> getDateTime() {
-        return Optional.ofNullable((Instant) this.dimensions.get(DimensionKey.DATE_TIME.name()));
+        return Optional.ofNullable(getDateTimeOrNull());
+    }
+
+    /**
+     * Same as {@link #getDateTime()} without wrapping the value, for use by deciders on the feature-check path.
+     *
+     * @return the time at which to check if the feature is enabled, or null if there is none
+     */
+    public Instant getDateTimeOrNull() {
+        return this.dateTime;
     }
 
     /**
@@ -189,7 +242,35 @@ public class FeatureCheckInput {
      * @return the value for the custom dimension
      */
     public Optional<?> getDimension(String dimensionKey) {
-        return Optional.ofNullable(this.dimensions.get(dimensionKey));
+        return Optional.ofNullable(getDimensionOrNull(dimensionKey));
+    }
+
+    /**
+     * Same as {@link #getDimension(String)} without wrapping the value, for use by deciders on the feature-check path.
+     *
+     * @param dimensionKey the identifier of a custom dimension
+     * @return the value for the custom dimension, or null if there is none
+     */
+    public Object getDimensionOrNull(String dimensionKey) {
+        Object value = this.dimensions.get(dimensionKey);
+        return value != null ? value : builtInDimension(dimensionKey);
+    }
+
+    /**
+     * @return the custom dimensions of this input, without the built-in dimensions
+     */
+    Map<String, ?> customDimensions() {
+        return this.dimensions;
+    }
+
+    Object builtInDimension(String dimensionKey) {
+        if (DimensionKey.USER_ID.name().equals(dimensionKey)) {
+            return getUserIdOrNull();
+        } else if (DimensionKey.DATE_TIME.name().equals(dimensionKey)) {
+            return getDateTimeOrNull();
+        }
+
+        return null;
     }
 
     @Override
@@ -199,18 +280,22 @@ public class FeatureCheckInput {
         if (o == null || getClass() != o.getClass())
             return false;
         FeatureCheckInput that = (FeatureCheckInput) o;
-        return Objects.equals(dimensions, that.dimensions);
+        return Objects.equals(userId, that.userId) &&
+            Objects.equals(dateTime, that.dateTime) &&
+            Objects.equals(dimensions, that.dimensions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(dimensions);
+        return Objects.hash(userId, dateTime, dimensions);
     }
 
     @Override
     public String toString() {
         return "FeatureCheckInput{" +
-            "dimensions=" + dimensions +
+            "userId=" + userId +
+            ", dateTime=" + dateTime +
+            ", dimensions=" + dimensions +
             '}';
     }
 }
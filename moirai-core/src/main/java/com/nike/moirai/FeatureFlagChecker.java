@@ -1,5 +1,12 @@
 package com.nike.moirai;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
 /**
  * A FeatureFlagChecker allows checking of some feature (identified by a String) is enabled for some {@link FeatureCheckInput}.
  */
@@ -20,4 +27,54 @@ public interface FeatureFlagChecker {
      * @return whether the feature should be enabled
      */
     boolean isFeatureEnabled(String featureIdentifier);
+
+    /**
+     * Checks if each of the features should be enabled given the same provided input
+     *
+     * @param featureIdentifiers the identifiers of the features to check on
+     * @param featureCheckInput the input dimensions to base the decisions on
+     * @return whether each feature should be enabled, by feature identifier, in the order the features were given
+     */
+    default Map<String, Boolean> evaluateAll(Collection<String> featureIdentifiers, FeatureCheckInput featureCheckInput) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+
+        for (String featureIdentifier : featureIdentifiers) {
+            results.put(featureIdentifier, isFeatureEnabled(featureIdentifier, featureCheckInput));
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Finds which of the given users should have the feature enabled. The users are checked in parallel, and all of them are checked
+     * with the same dateTime, taken once when this is called.
+     *
+     * @param featureIdentifier the identifier of the feature to check on
+     * @param userIds the ids of the users to check
+     * @return a parallel stream of the userIds that should have the feature enabled, in the encounter order of the given users
+     */
+    default Stream<String> enabledUsers(String featureIdentifier, Stream<String> userIds) {
+        Instant dateTime = Instant.now();
+        return userIds.parallel().filter(userId -> isFeatureEnabled(featureIdentifier, FeatureCheckInput.forUserAtTime(userId, dateTime)));
+    }
+
+    /**
+     * Gets a handle for checking a single feature repeatedly.
+     *
+     * @param featureIdentifier the identifier of the feature to check on
+     * @return a handle for the feature
+     */
+    default FeatureHandle handle(String featureIdentifier) {
+        return new FeatureHandle() {
+            @Override
+            public String getFeatureIdentifier() {
+                return featureIdentifier;
+            }
+
+            @Override
+            public boolean isEnabled(FeatureCheckInput featureCheckInput) {
+                return isFeatureEnabled(featureIdentifier, featureCheckInput);
+            }
+        };
+    }
 }
@@ -0,0 +1,90 @@
+package com.nike.moirai;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FeatureFlagChecker} pinned to a single config value, from {@link ConfigFeatureFlagChecker#snapshot()}. Every check made with a
+ * snapshot is decided by the same config, even if a {@link com.nike.moirai.resource.reload.ResourceReloader} loads a new config in the
+ * meantime. Snapshots are immutable and can be shared between threads, but are meant to be short-lived, such as for one request.
+ *
+ * @param <C> the type of config
+ */
+public final class FeatureFlagSnapshot<C> implements FeatureFlagChecker {
+    private final ConfigFeatureFlagChecker<C> checker;
+    private final SnapshotTracker.Tracked<C> tracked;
+
+    FeatureFlagSnapshot(ConfigFeatureFlagChecker<C> checker, SnapshotTracker.Tracked<C> tracked) {
+        this.checker = checker;
+        this.tracked = tracked;
+    }
+
+    /**
+     * @return the config value that every check is decided by
+     */
+    public C getConfig() {
+        return this.tracked.config;
+    }
+
+    /**
+     * The version of the config, which starts at 1 for the first config value the checker saw and goes up by one each time the checker's
+     * config supplier returns a new config instance. A config instance keeps its version while checks that race a reload still see it.
+     * This is the same version reported in
+     * {@link com.nike.moirai.exposure.ExposureEvent#getConfigVersion()}.
+     *
+     * @return the version of the config
+     */
+    public long getVersion() {
+        return this.tracked.version;
+    }
+
+    /**
+     * @return when the checker first saw this config value
+     */
+    public Instant getLoadedAt() {
+        return this.tracked.loadedAt;
+    }
+
+    @Override
+    public boolean isFeatureEnabled(String featureIdentifier, FeatureCheckInput featureCheckInput) {
+        return this.checker.decide(this.tracked, featureIdentifier, featureCheckInput);
+    }
+
+    @Override
+    public boolean isFeatureEnabled(String featureIdentifier) {
+        return this.checker.decide(this.tracked, featureIdentifier, FeatureCheckInput.empty());
+    }
+
+    @Override
+    public Map<String, Boolean> evaluateAll(Collection<String> featureIdentifiers, FeatureCheckInput featureCheckInput) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        ReusableConfigDecisionInput<C> configDecisionInput = new ReusableConfigDecisionInput<>(this.tracked.config, featureCheckInput);
+
+        for (String featureIdentifier : featureIdentifiers) {
+            results.put(featureIdentifier, this.checker.decide(this.tracked, configDecisionInput.featureIdentifier(featureIdentifier)));
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+
+    @Override
+    public Stream<String> enabledUsers(String featureIdentifier, Stream<String> userIds) {
+        Instant dateTime = Instant.now();
+
+        return userIds.parallel().filter(userId ->
+            this.checker.decide(this.tracked, featureIdentifier, FeatureCheckInput.forUserAtTime(userId, dateTime))
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureFlagSnapshot{" +
+            "version=" + tracked.version +
+            ", loadedAt=" + tracked.loadedAt +
+            '}';
+    }
+}
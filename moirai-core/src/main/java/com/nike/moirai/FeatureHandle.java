@@ -0,0 +1,32 @@
+package com.nike.moirai;
+
+/**
+ * A reference to a single feature, obtained from {@link FeatureFlagChecker#handle(String)}. A handle can be created once and kept,
+ * such as in a static field, and then used for each check of the feature.
+ * <p>
+ * Handles from a {@link ConfigFeatureFlagChecker} resolve the feature from the config once, and only resolve it again when the config
+ * changes.
+ */
+public interface FeatureHandle {
+    /**
+     * @return the identifier of the feature
+     */
+    String getFeatureIdentifier();
+
+    /**
+     * Checks if the feature should be enabled given the provided input
+     *
+     * @param featureCheckInput the input dimensions to base a decision on
+     * @return whether the feature should be enabled
+     */
+    boolean isEnabled(FeatureCheckInput featureCheckInput);
+
+    /**
+     * Checks if the feature should be enabled
+     *
+     * @return whether the feature should be enabled
+     */
+    default boolean isEnabled() {
+        return isEnabled(FeatureCheckInput.empty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.nike.moirai;
+
+/**
+ * Non-cryptographic hashing used for consistently assigning users to buckets.
+ */
+public final class Hashing {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * The first 64 bits of the 128-bit x64 MurmurHash3 (seed 0) of the UTF-16 code units of the input, taken as little-endian bytes.
+     * This does not allocate.
+     *
+     * @param input the characters to hash
+     * @return a well-distributed 64-bit hash of the input
+     */
+    public static long murmur3(CharSequence input) {
+        int length = input.length();
+        int blocks = length / 8;
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * 8;
+            long k1 = fourChars(input, offset, 4);
+            long k2 = fourChars(input, offset + 4, 4);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tailOffset = blocks * 8;
+        int tailLength = length - tailOffset;
+
+        if (tailLength > 4) {
+            h2 ^= mixK2(fourChars(input, tailOffset + 4, tailLength - 4));
+        }
+
+        if (tailLength > 0) {
+            h1 ^= mixK1(fourChars(input, tailOffset, Math.min(tailLength, 4)));
+        }
+
+        long byteLength = length * 2L;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        return h1 + h2;
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer, which spreads every input bit across the whole result.
+     *
+     * @param k the value to mix
+     * @return the mixed value
+     */
+    public static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long fourChars(CharSequence input, int offset, int count) {
+        long k = 0;
+
+        for (int i = 0; i < count; i++) {
+            k |= ((long) input.charAt(offset + i)) << (16 * i);
+        }
+
+        return k;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+
+    private Hashing() {
+        // Prevent instantiation
+    }
+}
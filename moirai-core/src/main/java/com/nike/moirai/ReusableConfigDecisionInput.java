@@ -0,0 +1,57 @@
+package com.nike.moirai;
+
+import com.nike.moirai.config.ConfigDecisionInput;
+
+/**
+ * A mutable {@link ConfigDecisionInput} for deciding many features with the same config and {@link FeatureCheckInput}, so that each
+ * feature only changes the feature identifier instead of allocating a new input.
+ * <p>
+ * Instances are not thread-safe, and deciders must not hold on to an instance after deciding. Since the contents change, equality is by
+ * identity.
+ *
+ * @param <T> the type of configuration object
+ */
+final class ReusableConfigDecisionInput<T> extends ConfigDecisionInput<T> {
+    private String featureIdentifier;
+
+    /**
+     * @param config the config to use for the decisions
+     * @param featureCheckInput the input data for the decisions
+     */
+    ReusableConfigDecisionInput(T config, FeatureCheckInput featureCheckInput) {
+        super(config, null, featureCheckInput);
+    }
+
+    /**
+     * @param featureIdentifier the feature to decide upon next
+     * @return this
+     */
+    ReusableConfigDecisionInput<T> featureIdentifier(String featureIdentifier) {
+        this.featureIdentifier = featureIdentifier;
+        return this;
+    }
+
+    @Override
+    public String getFeatureIdentifier() {
+        return this.featureIdentifier;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableConfigDecisionInput{" +
+            "config=" + getConfig() +
+            ", featureIdentifier='" + featureIdentifier + '\'' +
+            ", featureCheckInput=" + getFeatureCheckInput() +
+            '}';
+    }
+}
@@ -0,0 +1,150 @@
+package com.nike.moirai;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A mutable {@link FeatureCheckInput} that can be reset and refilled for each feature check, so that checking a feature does not
+ * need to allocate a new input. Custom dimensions are stored in array slots assigned by a {@link DimensionSchema}.
+ * <p>
+ * Instances are not thread-safe. Keep one per thread (for example in a {@link ThreadLocal}), and do not hold on to an instance
+ * after filling it for a different check; use {@link #builder()} to get an immutable copy if one is needed.
+ * <p>
+ * Since the contents change, equality is by identity.
+ */
+public final class ReusableFeatureCheckInput extends FeatureCheckInput {
+    private final DimensionSchema schema;
+    private final Object[] values;
+    private String userId;
+    private Instant dateTime;
+    private long userIdHash;
+    private boolean userIdHashed;
+
+    /**
+     * @param schema the custom dimensions that this input can hold
+     */
+    public ReusableFeatureCheckInput(DimensionSchema schema) {
+        super(null, null, Collections.emptyMap());
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+    }
+
+    /**
+     * Clears the userId, dateTime, and all custom dimensions.
+     *
+     * @return this
+     */
+    public ReusableFeatureCheckInput reset() {
+        this.userId = null;
+        this.userIdHashed = false;
+        this.dateTime = null;
+        Arrays.fill(this.values, null);
+        return this;
+    }
+
+    /**
+     * @param userId the id of the user accessing the feature
+     * @return this
+     */
+    public ReusableFeatureCheckInput userId(String userId) {
+        this.userId = userId;
+        this.userIdHashed = false;
+        return this;
+    }
+
+    /**
+     * @param dateTime the time associated with the feature check
+     * @return this
+     */
+    public ReusableFeatureCheckInput dateTime(Instant dateTime) {
+        this.dateTime = dateTime;
+        return this;
+    }
+
+    /**
+     * @param slot the slot of the dimension, from {@link DimensionSchema#slotOf(String)}
+     * @param dimensionValue custom value for the input dimension
+     * @return this
+     */
+    public ReusableFeatureCheckInput dimension(int slot, Object dimensionValue) {
+        this.values[slot] = dimensionValue;
+        return this;
+    }
+
+    /**
+     * @param dimensionKey custom key identifying the input dimension, which must be registered in the schema
+     * @param dimensionValue custom value for the input dimension
+     * @return this
+     * @throws IllegalArgumentException if the key is not registered in the schema
+     */
+    public ReusableFeatureCheckInput dimension(String dimensionKey, Object dimensionValue) {
+        int slot = this.schema.slotOf(dimensionKey);
+
+        if (slot < 0) {
+            throw new IllegalArgumentException(String.format("Dimension key '%s' is not registered in %s", dimensionKey, this.schema));
+        }
+
+        return dimension(slot, dimensionValue);
+    }
+
+    @Override
+    public String getUserIdOrNull() {
+        return this.userId;
+    }
+
+    @Override
+    public long getUserIdHash() {
+        if (!this.userIdHashed) {
+            this.userIdHash = this.userId != null ? Hashing.murmur3(this.userId) : 0L;
+            this.userIdHashed = true;
+        }
+
+        return this.userIdHash;
+    }
+
+    @Override
+    public Instant getDateTimeOrNull() {
+        return this.dateTime;
+    }
+
+    @Override
+    public Object getDimensionOrNull(String dimensionKey) {
+        int slot = this.schema.slotOf(dimensionKey);
+        return slot >= 0 ? this.values[slot] : builtInDimension(dimensionKey);
+    }
+
+    @Override
+    Map<String, ?> customDimensions() {
+        Map<String, Object> dimensions = new HashMap<>();
+
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                dimensions.put(this.schema.keyAt(i), this.values[i]);
+            }
+        }
+
+        return dimensions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableFeatureCheckInput{" +
+            "userId=" + userId +
+            ", dateTime=" + dateTime +
+            ", dimensions=" + customDimensions() +
+            '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.nike.moirai;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Numbers the config values seen by a checker. When the config supplier returns an instance other than the current one, that instance
+ * replaces the current one with the next version and the time it was first seen. Checks that race a reload and still see the replaced
+ * instance get its version back, instead of swapping it back in with a new version, so each instance has one version and versions only go
+ * up.
+ *
+ * @param <C> the type of config
+ */
+final class SnapshotTracker<C> {
+    private final AtomicReference<Recent<C>> recent = new AtomicReference<>();
+
+    Tracked<C> track(C config) {
+        Recent<C> recent = this.recent.get();
+
+        while (recent == null || recent.current.config != config) {
+            if (recent != null && config != null && recent.replacedConfig.get() == config) {
+                return new Tracked<>(config, recent.replacedVersion, recent.replacedLoadedAt);
+            }
+
+            Tracked<C> next = new Tracked<>(config, recent == null ? 1L : recent.current.version + 1, Instant.now());
+
+            if (this.recent.compareAndSet(recent, new Recent<>(next, recent == null ? null : recent.current))) {
+                return next;
+            }
+
+            recent = this.recent.get();
+        }
+
+        return recent.current;
+    }
+
+    static final class Tracked<C> {
+        final C config;
+        final long version;
+        final Instant loadedAt;
+
+        private Tracked(C config, long version, Instant loadedAt) {
+            this.config = config;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class Recent<C> {
+        private final Tracked<C> current;
+        private final WeakReference<C> replacedConfig;
+        private final long replacedVersion;
+        private final Instant replacedLoadedAt;
+
+        private Recent(Tracked<C> current, Tracked<C> replaced) {
+            this.current = current;
+            this.replacedConfig = new WeakReference<>(replaced == null ? null : replaced.config);
+            this.replacedVersion = replaced == null ? 0L : replaced.version;
+            this.replacedLoadedAt = replaced == null ? null : replaced.loadedAt;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.nike.moirai;
 
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -9,7 +11,8 @@ import java.util.function.Supplier;
  */
 public class Suppliers {
     /**
-     * Transforms the supplier by applying the given function to the results from the supplied {@link CompletableFuture}
+     * Transforms the supplier by applying the given function to the results from the supplied {@link CompletableFuture}. If the transformed
+     * future is completed exceptionally before the supplied future is done, such as by a reload timeout, the supplied future is cancelled.
      *
      * @param input supplier to transform
      * @param after the function to transform the future values
@@ -18,7 +21,10 @@ public class Suppliers {
      * @return the transformed supplier
      */
     public static <T, U> Supplier<CompletableFuture<U>> futureSupplierAndThen(Supplier<CompletableFuture<T>> input, Function<T, U> after) {
-        return () -> input.get().thenApply(after);
+        return () -> {
+            CompletableFuture<T> source = input.get();
+            return cancelOnFailure(source, source.thenApply(after));
+        };
     }
 
     /**
@@ -33,6 +39,51 @@ public class Suppliers {
         return () -> after.apply(input.get());
     }
 
+    /**
+     * Transforms the supplier by applying the given function to the supplied result, but only when the result has changed. If the input
+     * supplies the same instance as last time, or an equal value, the previous output is returned without calling the function again.
+     * <p>
+     * Use this in front of expensive steps such as parsing, so that reloading an unchanged resource returns the same config instance. A
+     * {@link com.nike.moirai.resource.reload.ResourceReloader} does not publish a value that is the same instance as its current one, so
+     * caches keyed on the config instance are kept.
+     * <p>
+     * The function must be pure: its result may only depend on the supplied value, since it is not called again while that value is
+     * unchanged. Steps that read other resources, such as loading the segment or bitmap files a config names, must be chained after this
+     * supplier rather than included in the function, or they are not run again until the supplied value changes.
+     *
+     * @param input the supplier to transform
+     * @param after the function to transform the supplied value
+     * @param <T> the input value type
+     * @param <U> the result value type
+     * @return the transformed supplier
+     */
+    public static <T, U> Supplier<U> supplierAndThenOnChange(Supplier<T> input, Function<T, U> after) {
+        OnChange<T, U> onChange = new OnChange<>(after);
+        return () -> onChange.apply(input.get());
+    }
+
+    /**
+     * Transforms the supplier by applying the given function to the results from the supplied {@link CompletableFuture}, but only when the
+     * result has changed. If the future completes with the same instance as last time, or an equal value, the previous output is returned
+     * without calling the function again. As with {@link #supplierAndThenOnChange(Supplier, Function)}, the function must be pure. If the
+     * transformed future is completed exceptionally before the supplied future is done, such as by a reload timeout, the supplied future
+     * is cancelled.
+     *
+     * @param input supplier to transform
+     * @param after the function to transform the future values
+     * @param <T> the input value type
+     * @param <U> the result value type
+     * @return the transformed supplier
+     * @see #supplierAndThenOnChange(Supplier, Function)
+     */
+    public static <T, U> Supplier<CompletableFuture<U>> futureSupplierAndThenOnChange(Supplier<CompletableFuture<T>> input, Function<T, U> after) {
+        OnChange<T, U> onChange = new OnChange<>(after);
+        return () -> {
+            CompletableFuture<T> source = input.get();
+            return cancelOnFailure(source, source.thenApply(onChange));
+        };
+    }
+
     /**
      * Transforms a supplier of a value to a supplier of that value as CompletableFuture for use in an asynchronous context.
      *
@@ -44,6 +95,52 @@ public class Suppliers {
         return () -> CompletableFuture.supplyAsync(supplier);
     }
 
+    /**
+     * Completing a dependent future does not affect the future it depends on, so cancel the source when the dependent fails first.
+     */
+    private static <U> CompletableFuture<U> cancelOnFailure(CompletableFuture<?> source, CompletableFuture<U> dependent) {
+        dependent.whenComplete((value, throwable) -> {
+            if (throwable != null && !source.isDone()) {
+                source.cancel(true);
+            }
+        });
+
+        return dependent;
+    }
+
+    private static final class OnChange<T, U> implements Function<T, U> {
+        private final Function<T, U> after;
+        private final AtomicReference<Applied<T, U>> last = new AtomicReference<>();
+
+        private OnChange(Function<T, U> after) {
+            this.after = after;
+        }
+
+        @Override
+        public U apply(T value) {
+            Applied<T, U> previous = last.get();
+
+            if (previous != null && (previous.input == value || Objects.equals(previous.input, value))) {
+                return previous.output;
+            }
+
+            U output = after.apply(value);
+            last.set(new Applied<>(value, output));
+
+            return output;
+        }
+    }
+
+    private static final class Applied<T, U> {
+        private final T input;
+        private final U output;
+
+        private Applied(T input, U output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
     private Suppliers() {
         // Prevent instantiation
     }
@@ -0,0 +1,21 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.util.function.Predicate;
+
+/**
+ * A config decider that can resolve everything it needs for one feature from a config up front, so that repeated checks of that feature
+ * against the same config only need to evaluate the input.
+ *
+ * @param <C> the type of config
+ * @see com.nike.moirai.FeatureHandle
+ */
+public interface BindableConfigDecider<C> extends Predicate<ConfigDecisionInput<C>> {
+    /**
+     * @param config the config to resolve the feature from
+     * @param featureIdentifier the feature
+     * @return a predicate that decides the same as this decider for the given config and feature
+     */
+    Predicate<FeatureCheckInput> bind(C config, String featureIdentifier);
+}
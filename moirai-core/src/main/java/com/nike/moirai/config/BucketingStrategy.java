@@ -0,0 +1,78 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.Hashing;
+
+/**
+ * How a user is assigned to a bucket when deciding if the user is in the enabled proportion of users for a feature. Users are bucketed
+ * by their userId together with a hash group (the feature group if one is configured, otherwise the feature identifier), so the same
+ * user always gets the same answer for the same hash group and proportion.
+ */
+public enum BucketingStrategy {
+    /**
+     * The original bucketing: the absolute value of the {@link String#hashCode()} of the userId concatenated with the hash group,
+     * modulo 100. This keeps existing partial rollouts targeting the same users. The string hash is computed from the cached hashes of
+     * its two parts, so no string is concatenated.
+     */
+    HASH_CODE_PERCENT {
+        @Override
+        public long hashGroupSalt(String hashGroup) {
+            return pow31(hashGroup.length());
+        }
+
+        @Override
+        public boolean isEnabled(FeatureCheckInput featureCheckInput, String hashGroup, long hashGroupSalt, double proportion) {
+            int concatenatedHash = featureCheckInput.getUserIdOrNull().hashCode() * (int) hashGroupSalt + hashGroup.hashCode();
+            return (Math.abs(concatenatedHash) % 100) / 100.0 < proportion;
+        }
+    },
+
+    /**
+     * Bucketing into 10,000 buckets (basis points) by mixing the 64-bit MurmurHash3 of the userId with a 64-bit MurmurHash3 salt of
+     * the hash group. The userId is hashed once per {@link FeatureCheckInput}, and the salt can be computed once when the config is
+     * loaded. This gives an even distribution and supports proportions as fine as 0.0001.
+     */
+    MURMUR3_BASIS_POINTS {
+        @Override
+        public long hashGroupSalt(String hashGroup) {
+            return Hashing.murmur3(hashGroup);
+        }
+
+        @Override
+        public boolean isEnabled(FeatureCheckInput featureCheckInput, String hashGroup, long hashGroupSalt, double proportion) {
+            long bucket = Long.remainderUnsigned(Hashing.fmix64(featureCheckInput.getUserIdHash() ^ hashGroupSalt), 10000);
+            return bucket / 10000.0 < proportion;
+        }
+    };
+
+    /**
+     * @param hashGroup the feature group, or the feature identifier if there is no feature group
+     * @return a value derived from the hash group that can be computed once and passed to {@link #isEnabled}
+     */
+    public abstract long hashGroupSalt(String hashGroup);
+
+    /**
+     * @param featureCheckInput input that has a userId
+     * @param hashGroup the feature group, or the feature identifier if there is no feature group
+     * @param hashGroupSalt the result of {@link #hashGroupSalt(String)} for the hash group
+     * @param proportion the proportion of users that should be enabled, from 0.0 to 1.0
+     * @return whether the user is in the enabled proportion
+     */
+    public abstract boolean isEnabled(FeatureCheckInput featureCheckInput, String hashGroup, long hashGroupSalt, double proportion);
+
+    private static int pow31(int exponent) {
+        int result = 1;
+        int base = 31;
+
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result *= base;
+            }
+
+            base *= base;
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package com.nike.moirai.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable index of {@link CompiledFeature} by feature identifier. Checking a feature against a CompiledConfig is a single
+ * hash lookup followed by field reads, rather than re-reading the raw config for every check.
+ * <p>
+ * A CompiledConfig is intended to be created once per loaded config, for example by chaining a compiler onto the supplier given
+ * to a {@link com.nike.moirai.resource.reload.ResourceReloader}.
+ */
+public final class CompiledConfig {
+    private static final CompiledConfig EMPTY = new CompiledConfig(Collections.emptyMap());
+
+    private final Map<String, CompiledFeature> features;
+
+    /**
+     * @param features the compiled features
+     * @return a config containing the given features, indexed by their feature identifier
+     */
+    public static CompiledConfig of(Collection<CompiledFeature> features) {
+        Map<String, CompiledFeature> index = new HashMap<>();
+
+        for (CompiledFeature feature : features) {
+            index.put(feature.getFeatureIdentifier(), feature);
+        }
+
+        return new CompiledConfig(index);
+    }
+
+    /**
+     * @return a config without any features
+     */
+    public static CompiledConfig empty() {
+        return EMPTY;
+    }
+
+    private CompiledConfig(Map<String, CompiledFeature> features) {
+        this.features = Collections.unmodifiableMap(features);
+    }
+
+    /**
+     * @param featureIdentifier the feature to look up
+     * @return the compiled feature, or {@link CompiledFeature#EMPTY} if the feature is not configured
+     */
+    public CompiledFeature getFeature(String featureIdentifier) {
+        CompiledFeature feature = features.get(featureIdentifier);
+        return feature != null ? feature : CompiledFeature.EMPTY;
+    }
+
+    /**
+     * @return all compiled features by feature identifier
+     */
+    public Map<String, CompiledFeature> getFeatures() {
+        return features;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        CompiledConfig that = (CompiledConfig) o;
+        return Objects.equals(features, that.features);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(features);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledConfig{" +
+            "features=" + features.keySet() +
+            '}';
+    }
+}
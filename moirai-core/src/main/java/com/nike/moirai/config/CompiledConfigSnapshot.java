@@ -0,0 +1,317 @@
+package com.nike.moirai.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary format for a {@link CompiledConfig}, so that a config can be compiled once, by a build step or a publisher, and then
+ * loaded by services without parsing or resolving HOCON.
+ * <p>
+ * A snapshot starts with a header of the magic number "MCFG", the format version, the length of the body, and a CRC32 checksum of the
+ * body. The body holds every feature's settings: featureEnabled, enabledProportion, featureGroup, enabledUserIds, enabled values by config
+ * key, and the source and bucketing strategy of its rule. Enabled values may be strings, longs, integers, doubles or booleans, which covers
+ * the values produced by {@code TypesafeConfigCompiler} and its common conversions.
+ * <p>
+ * Snapshots are read directly from the byte array or mapped file they are in, without copying it first. For example:
+ * <pre>
+ * supplierAndThen(FileResourceLoaders.forFileBytes(snapshotFile), CompiledConfigSnapshot.FROM_BYTES)
+ * </pre>
+ */
+public final class CompiledConfigSnapshot {
+    /**
+     * Reads a snapshot from bytes written by {@link #toBytes(CompiledConfig)}.
+     */
+    public static final Function<byte[], CompiledConfig> FROM_BYTES = bytes -> fromBuffer(ByteBuffer.wrap(bytes));
+
+    static final int MAGIC = 0x4D434647;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte STRING = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    /**
+     * @param config the config to write
+     * @return the config as a snapshot
+     * @throws IllegalArgumentException if the config has enabled values of a type that a snapshot cannot hold
+     */
+    public static byte[] toBytes(CompiledConfig config) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            out.writeInt(config.getFeatures().size());
+
+            for (CompiledFeature feature : config.getFeatures().values()) {
+                writeFeature(out, feature);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] bodyBytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bodyBytes, 0, bodyBytes.length);
+
+        return ByteBuffer.allocate(HEADER_SIZE + bodyBytes.length)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(bodyBytes.length)
+            .putInt((int) crc.getValue())
+            .put(bodyBytes)
+            .array();
+    }
+
+    /**
+     * Writes a snapshot to a temporary file next to the path, then moves it into place atomically, so that a reader sees either the
+     * previous snapshot or the complete new one.
+     *
+     * @param config the config to write
+     * @param path where to write the snapshot
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void write(CompiledConfig config, Path path) {
+        byte[] bytes = toBytes(config);
+
+        try {
+            Path absolute = path.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing config snapshot to: " + path, e);
+        }
+    }
+
+    /**
+     * Maps a snapshot file and reads the config from the mapping.
+     *
+     * @param path a snapshot written by {@link #write(CompiledConfig, Path)}
+     * @return the config
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     */
+    public static CompiledConfig read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return fromBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading config snapshot from: " + path, e);
+        }
+    }
+
+    /**
+     * @param buffer a snapshot, from the buffer's position to its limit
+     * @return the config
+     * @throws IllegalArgumentException if the buffer does not hold a valid snapshot
+     */
+    public static CompiledConfig fromBuffer(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice();
+
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a config snapshot");
+            }
+
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported config snapshot version " + version);
+            }
+
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length != in.remaining()) {
+                throw new IllegalArgumentException("Config snapshot body is " + in.remaining() + " bytes, expected " + length);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IllegalArgumentException("Config snapshot checksum does not match");
+            }
+
+            int featureCount = count(in);
+            List<CompiledFeature> features = new ArrayList<>(featureCount);
+
+            for (int i = 0; i < featureCount; i++) {
+                features.add(readFeature(in));
+            }
+
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected bytes after config snapshot");
+            }
+
+            return CompiledConfig.of(features);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated config snapshot", e);
+        }
+    }
+
+    private static void writeFeature(DataOutputStream out, CompiledFeature feature) throws IOException {
+        writeString(out, feature.getFeatureIdentifier());
+        out.writeBoolean(feature.isFeatureEnabled());
+        out.writeDouble(feature.getEnabledProportion());
+        writeString(out, feature.getFeatureGroup().orElse(null));
+
+        out.writeInt(feature.getEnabledUserIds().size());
+        for (String userId : feature.getEnabledUserIds()) {
+            writeString(out, userId);
+        }
+
+        Map<String, Set<?>> enabledValues = feature.getAllEnabledValues();
+        out.writeInt(enabledValues.size());
+        for (Map.Entry<String, Set<?>> entry : enabledValues.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+
+            for (Object value : entry.getValue()) {
+                writeValue(out, feature.getFeatureIdentifier(), value);
+            }
+        }
+
+        FeatureRule rule = feature.getRuleOrNull();
+        out.writeBoolean(rule != null);
+        if (rule != null) {
+            writeString(out, rule.getSource());
+            writeString(out, rule.getBucketingStrategy().name());
+        }
+    }
+
+    private static CompiledFeature readFeature(ByteBuffer in) {
+        CompiledFeature.Builder builder = new CompiledFeature.Builder(readString(in))
+            .featureEnabled(in.get() != 0)
+            .enabledProportion(in.getDouble())
+            .featureGroup(readString(in));
+
+        int userCount = count(in);
+        List<String> userIds = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            userIds.add(readString(in));
+        }
+        builder.enabledUserIds(userIds);
+
+        int keyCount = count(in);
+        for (int k = 0; k < keyCount; k++) {
+            String configKey = readString(in);
+            int valueCount = count(in);
+            List<Object> values = new ArrayList<>(valueCount);
+
+            for (int i = 0; i < valueCount; i++) {
+                values.add(readValue(in));
+            }
+            builder.enabledValues(configKey, values);
+        }
+
+        if (in.get() != 0) {
+            String source = readString(in);
+            builder.rule(FeatureRule.parse(source, BucketingStrategy.valueOf(readString(in))));
+        }
+
+        return builder.build();
+    }
+
+    private static void writeValue(DataOutputStream out, String featureIdentifier, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            throw new IllegalArgumentException(String.format(
+                "Cannot write enabled value of type %s for feature '%s' to a config snapshot",
+                value == null ? null : value.getClass().getName(), featureIdentifier));
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte type = in.get();
+
+        switch (type) {
+            case STRING:
+                return readString(in);
+            case LONG:
+                return in.getLong();
+            case INTEGER:
+                return in.getInt();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            default:
+                throw new IllegalArgumentException("Invalid enabled value type " + type + " in config snapshot");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+
+        if (length == -1) {
+            return null;
+        } else if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static int count(ByteBuffer in) {
+        int count = in.getInt();
+
+        if (count < 0 || count > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        return count;
+    }
+
+    private CompiledConfigSnapshot() {
+        // Prevent instantiation
+    }
+}
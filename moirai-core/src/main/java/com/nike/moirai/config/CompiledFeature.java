@@ -0,0 +1,240 @@
+package com.nike.moirai.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The settings for a single feature, parsed once from some config source so that feature checks only need to read fields.
+ * <p>
+ * Instances are immutable, and are normally created by a format-specific compiler when a new config is loaded.
+ *
+ * @see CompiledConfig
+ * @see CompiledFeatureDeciders
+ */
+public final class CompiledFeature {
+    /**
+     * A feature with no configuration entries, which will not be enabled by any of the {@link CompiledFeatureDeciders}.
+     */
+    public static final CompiledFeature EMPTY = new Builder("").build();
+
+    private final String featureIdentifier;
+    private final boolean featureEnabled;
+    private final double enabledProportion;
+    private final String featureGroup;
+    private final String hashGroup;
+    private final long[] hashGroupSalts;
+    private final Set<String> enabledUserIds;
+    private final Map<String, Set<?>> enabledValues;
+    private final FeatureRule rule;
+
+    /**
+     * Builds a {@link CompiledFeature}.
+     */
+    public static class Builder {
+        private final String featureIdentifier;
+        private boolean featureEnabled = false;
+        private double enabledProportion = 0.0;
+        private String featureGroup = null;
+        private Set<String> enabledUserIds = Collections.emptySet();
+        private final Map<String, Set<?>> enabledValues = new HashMap<>();
+        private FeatureRule rule = null;
+
+        /**
+         * @param featureIdentifier the identifier of the feature being compiled
+         */
+        public Builder(String featureIdentifier) {
+            this.featureIdentifier = Objects.requireNonNull(featureIdentifier, "featureIdentifier");
+        }
+
+        /**
+         * @param featureEnabled the boolean value on whether the feature should be enabled
+         * @return this
+         */
+        public Builder featureEnabled(boolean featureEnabled) {
+            this.featureEnabled = featureEnabled;
+            return this;
+        }
+
+        /**
+         * @param enabledProportion the proportion of users that should be enabled, from 0.0 to 1.0
+         * @return this
+         */
+        public Builder enabledProportion(double enabledProportion) {
+            this.enabledProportion = enabledProportion;
+            return this;
+        }
+
+        /**
+         * @param featureGroup the group used for hashing users for the enabled proportion, or null to group by the feature identifier
+         * @return this
+         */
+        public Builder featureGroup(String featureGroup) {
+            this.featureGroup = featureGroup;
+            return this;
+        }
+
+        /**
+         * @param enabledUserIds the users that should have the feature enabled
+         * @return this
+         */
+        public Builder enabledUserIds(Collection<String> enabledUserIds) {
+            this.enabledUserIds = Collections.unmodifiableSet(new HashSet<>(enabledUserIds));
+            return this;
+        }
+
+        /**
+         * @param configKey the key the values were configured under, such as "enabledCountries"
+         * @param values the values of a custom dimension that should have the feature enabled
+         * @return this
+         */
+        public Builder enabledValues(String configKey, Collection<?> values) {
+            this.enabledValues.put(configKey, Collections.unmodifiableSet(new HashSet<>(values)));
+            return this;
+        }
+
+        /**
+         * @param rule the rule declared for the feature, or null if it has none
+         * @return this
+         */
+        public Builder rule(FeatureRule rule) {
+            this.rule = rule;
+            return this;
+        }
+
+        /**
+         * @return a new CompiledFeature
+         */
+        public CompiledFeature build() {
+            return new CompiledFeature(this);
+        }
+    }
+
+    private CompiledFeature(Builder builder) {
+        this.featureIdentifier = builder.featureIdentifier;
+        this.featureEnabled = builder.featureEnabled;
+        this.enabledProportion = builder.enabledProportion;
+        this.featureGroup = builder.featureGroup;
+        this.hashGroup = builder.featureGroup != null ? builder.featureGroup : builder.featureIdentifier;
+        this.hashGroupSalts = new long[BucketingStrategy.values().length];
+        for (BucketingStrategy bucketingStrategy : BucketingStrategy.values()) {
+            this.hashGroupSalts[bucketingStrategy.ordinal()] = bucketingStrategy.hashGroupSalt(this.hashGroup);
+        }
+        this.enabledUserIds = builder.enabledUserIds;
+        this.enabledValues = Collections.unmodifiableMap(new HashMap<>(builder.enabledValues));
+        this.rule = builder.rule;
+    }
+
+    /**
+     * @return the feature identifier
+     */
+    public String getFeatureIdentifier() {
+        return featureIdentifier;
+    }
+
+    /**
+     * @return the boolean value on whether the feature should be enabled; false if none was configured
+     */
+    public boolean isFeatureEnabled() {
+        return featureEnabled;
+    }
+
+    /**
+     * @return the proportion of users that should be enabled; 0.0 if none was configured
+     */
+    public double getEnabledProportion() {
+        return enabledProportion;
+    }
+
+    /**
+     * @return the configured feature group
+     */
+    public Optional<String> getFeatureGroup() {
+        return Optional.ofNullable(featureGroup);
+    }
+
+    /**
+     * @return the feature group if configured, otherwise the feature identifier
+     */
+    public String getHashGroup() {
+        return hashGroup;
+    }
+
+    /**
+     * @param bucketingStrategy a bucketing strategy
+     * @return the salt of the hash group for the bucketing strategy, computed when the feature was compiled
+     */
+    public long getHashGroupSalt(BucketingStrategy bucketingStrategy) {
+        return hashGroupSalts[bucketingStrategy.ordinal()];
+    }
+
+    /**
+     * @return the users that should have the feature enabled
+     */
+    public Set<String> getEnabledUserIds() {
+        return enabledUserIds;
+    }
+
+    /**
+     * @param configKey the key the values were configured under
+     * @return the values that should have the feature enabled, or an empty set if none were configured
+     */
+    public Set<?> getEnabledValues(String configKey) {
+        Set<?> values = enabledValues.get(configKey);
+        return values != null ? values : Collections.emptySet();
+    }
+
+    Map<String, Set<?>> getAllEnabledValues() {
+        return enabledValues;
+    }
+
+    /**
+     * @return the rule declared for the feature
+     */
+    public Optional<FeatureRule> getRule() {
+        return Optional.ofNullable(rule);
+    }
+
+    FeatureRule getRuleOrNull() {
+        return rule;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        CompiledFeature that = (CompiledFeature) o;
+        return featureEnabled == that.featureEnabled &&
+            Double.compare(that.enabledProportion, enabledProportion) == 0 &&
+            Objects.equals(featureIdentifier, that.featureIdentifier) &&
+            Objects.equals(featureGroup, that.featureGroup) &&
+            Objects.equals(enabledUserIds, that.enabledUserIds) &&
+            Objects.equals(enabledValues, that.enabledValues) &&
+            Objects.equals(rule, that.rule);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(featureIdentifier, featureEnabled, enabledProportion, featureGroup, enabledUserIds, enabledValues, rule);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledFeature{" +
+            "featureIdentifier='" + featureIdentifier + '\'' +
+            ", featureEnabled=" + featureEnabled +
+            ", enabledProportion=" + enabledProportion +
+            ", featureGroup=" + featureGroup +
+            ", enabledUserIds=" + enabledUserIds.size() +
+            ", enabledValues=" + enabledValues.keySet() +
+            ", rule=" + (rule != null ? rule.getSource() : null) +
+            '}';
+    }
+}
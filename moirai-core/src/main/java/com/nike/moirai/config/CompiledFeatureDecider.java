@@ -0,0 +1,58 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.util.function.Predicate;
+
+/**
+ * A decider that works against a single {@link CompiledFeature}. The feature is looked up from the {@link CompiledConfig} once per
+ * check, no matter how many deciders are combined using {@link #and(CompiledFeatureDecider)} or {@link #or(CompiledFeatureDecider)}.
+ * <p>
+ * Since this is also a Predicate&lt;ConfigDecisionInput&lt;CompiledConfig&gt;&gt;, it can be used anywhere a config decider is expected,
+ * such as {@link com.nike.moirai.ConfigFeatureFlagChecker}. It is also a {@link BindableConfigDecider}, so a
+ * {@link com.nike.moirai.FeatureHandle} only looks the feature up again when the config changes.
+ */
+@FunctionalInterface
+public interface CompiledFeatureDecider extends BindableConfigDecider<CompiledConfig> {
+    /**
+     * @param feature the compiled settings for the feature being checked
+     * @param featureCheckInput the input data for the decision
+     * @return whether the feature should be enabled
+     */
+    boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput);
+
+    @Override
+    default boolean test(ConfigDecisionInput<CompiledConfig> configDecisionInput) {
+        return test(configDecisionInput.getConfig().getFeature(configDecisionInput.getFeatureIdentifier()), configDecisionInput.getFeatureCheckInput());
+    }
+
+    /**
+     * Looks up the compiled feature once, so that checks through a {@link com.nike.moirai.FeatureHandle} only evaluate the input.
+     */
+    @Override
+    default Predicate<FeatureCheckInput> bind(CompiledConfig config, String featureIdentifier) {
+        CompiledFeature feature = config.getFeature(featureIdentifier);
+        return featureCheckInput -> test(feature, featureCheckInput);
+    }
+
+    /**
+     * @param other a decider to combine with this one
+     * @return a decider that is true when both deciders are true for the same compiled feature
+     */
+    default CompiledFeatureDecider and(CompiledFeatureDecider other) {
+        return (feature, featureCheckInput) -> test(feature, featureCheckInput) && other.test(feature, featureCheckInput);
+    }
+
+    /**
+     * @param other a decider to combine with this one
+     * @return a decider that is true when either decider is true for the same compiled feature
+     */
+    default CompiledFeatureDecider or(CompiledFeatureDecider other) {
+        return (feature, featureCheckInput) -> test(feature, featureCheckInput) || other.test(feature, featureCheckInput);
+    }
+
+    @Override
+    default CompiledFeatureDecider negate() {
+        return (feature, featureCheckInput) -> !test(feature, featureCheckInput);
+    }
+}
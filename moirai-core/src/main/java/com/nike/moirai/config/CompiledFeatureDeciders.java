@@ -0,0 +1,90 @@
+package com.nike.moirai.config;
+
+/**
+ * {@link CompiledFeatureDecider} implementations that read from a {@link CompiledFeature}. These make the same decisions as the
+ * corresponding abstract config deciders, but read the already-parsed settings instead of the raw config.
+ */
+public class CompiledFeatureDeciders {
+    /**
+     * Returns true if the userId of the input is in the enabled users of the feature.
+     *
+     * @see EnabledUsersConfigDecider
+     */
+    public static final CompiledFeatureDecider ENABLED_USERS = (feature, featureCheckInput) -> {
+        String userId = featureCheckInput.getUserIdOrNull();
+        return userId != null && feature.getEnabledUserIds().contains(userId);
+    };
+
+    /**
+     * Returns true for the enabled proportion of users of the feature, hashing users by the feature group if one is configured.
+     * Uses {@link BucketingStrategy#HASH_CODE_PERCENT}.
+     *
+     * @see ProportionOfUsersConfigDecider
+     */
+    public static final CompiledFeatureDecider PROPORTION_OF_USERS = proportionOfUsers(BucketingStrategy.HASH_CODE_PERCENT);
+
+    /**
+     * Returns the boolean value configured for the feature, or false if none was configured.
+     *
+     * @see FeatureEnabledConfigDecider
+     */
+    public static final CompiledFeatureDecider FEATURE_ENABLED = (feature, featureCheckInput) -> feature.isFeatureEnabled();
+
+    /**
+     * Returns true for the enabled proportion of users of the feature, hashing users by the feature group if one is configured.
+     *
+     * @param bucketingStrategy how to assign users to buckets
+     * @return a decider for the proportion of users
+     * @see ProportionOfUsersConfigDecider
+     */
+    public static CompiledFeatureDecider proportionOfUsers(BucketingStrategy bucketingStrategy) {
+        return (feature, featureCheckInput) -> featureCheckInput.getUserIdOrNull() != null && feature.getEnabledProportion() > 0.0 &&
+            bucketingStrategy.isEnabled(
+                featureCheckInput,
+                feature.getHashGroup(),
+                feature.getHashGroupSalt(bucketingStrategy),
+                feature.getEnabledProportion());
+    }
+
+    /**
+     * Returns true if the input has a value for the custom dimension that is in the values the feature was compiled with for the config key.
+     * Values of a different type than the compiled values will not match.
+     *
+     * @param dimensionKey the key used for the dimension; this should match how you construct your FeatureCheckInput
+     * @param configKey the key the enabled values were configured under
+     * @return a decider for the custom dimension
+     * @see EnabledCustomDimensionConfigDecider
+     */
+    public static CompiledFeatureDecider enabledCustomDimension(String dimensionKey, String configKey) {
+        return (feature, featureCheckInput) -> {
+            Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+            return value != null && feature.getEnabledValues(configKey).contains(value);
+        };
+    }
+
+    /**
+     * Returns the result of the feature's declared {@link FeatureRule}, or false if the feature has no rule.
+     */
+    public static final CompiledFeatureDecider RULE = (feature, featureCheckInput) -> {
+        FeatureRule rule = feature.getRuleOrNull();
+        return rule != null && rule.test(feature, featureCheckInput);
+    };
+
+    /**
+     * Uses the feature's declared {@link FeatureRule} if it has one, so that the feature only runs the checks its rule uses, and
+     * otherwise uses the given decider.
+     *
+     * @param fallback the decider for features without a rule
+     * @return a decider that prefers the feature's rule
+     */
+    public static CompiledFeatureDecider ruleOr(CompiledFeatureDecider fallback) {
+        return (feature, featureCheckInput) -> {
+            FeatureRule rule = feature.getRuleOrNull();
+            return rule != null ? rule.test(feature, featureCheckInput) : fallback.test(feature, featureCheckInput);
+        };
+    }
+
+    private CompiledFeatureDeciders() {
+        // Prevent instantiation
+    }
+}
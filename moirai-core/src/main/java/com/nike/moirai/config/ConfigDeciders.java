@@ -16,7 +16,8 @@ public class ConfigDeciders {
      * @return false if there is no userId in the input, otherwise the result of the predicate applied to the userId
      */
     public static boolean userIdCheck(FeatureCheckInput featureCheckInput, Predicate<String> userIdCheck) {
-        return featureCheckInput.getUserId().map(userIdCheck::test).orElse(false);
+        String userId = featureCheckInput.getUserIdOrNull();
+        return userId != null && userIdCheck.test(userId);
     }
 
     /**
@@ -28,7 +29,8 @@ public class ConfigDeciders {
      * @return false if there is no userId in the input, otherwise the result of the predicate applied to the userId
      */
     public static boolean customDimensionCheck(FeatureCheckInput featureCheckInput, String dimensionKey, Predicate<Object> dimensionCheck) {
-        return featureCheckInput.getDimension(dimensionKey).map(dimensionCheck::test).orElse(false);
+        Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+        return value != null && dimensionCheck.test(value);
     }
 
     private ConfigDeciders() {
@@ -0,0 +1,95 @@
+package com.nike.moirai.config;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values computed per feature from a config instance, kept for the two most recently seen config instances so that checks racing a reload,
+ * some with the old config and some with the new one, do not evict each other. Configs are compared by identity and held weakly, so a
+ * replaced config can be collected.
+ * <p>
+ * A config instance is only cached when it is checked again soon after its first check, so a config supplier that returns a new instance
+ * for every check allocates nothing per check. Missed instances are remembered by identity hash code only, so remembering them holds no
+ * reference, and a collision only caches an instance early.
+ *
+ * @param <C> the type of config
+ * @param <T> the type of the values computed for each feature
+ */
+final class ConfigInstanceCache<C, T> {
+    private static final int SIZE = 2;
+
+    private static final class Entry<C, T> {
+        final WeakReference<C> config;
+        final Map<String, T> valuesByFeature = new ConcurrentHashMap<>();
+
+        Entry(C config) {
+            this.config = new WeakReference<>(config);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private volatile Entry<C, T>[] entries = new Entry[0];
+
+    // Identity hash codes of the two most recently missed config instances; races only cost a miss or an early entry
+    private volatile int lastMissed;
+    private volatile int previousMissed;
+
+    /**
+     * @param config a config instance
+     * @return the values for the config instance, or null on the first check against the instance, which is not cached yet
+     */
+    Map<String, T> get(C config) {
+        Entry<C, T> entry = find(config);
+
+        if (entry != null) {
+            return entry.valuesByFeature;
+        }
+
+        if (!missedRecently(config)) {
+            return null;
+        }
+
+        return add(config).valuesByFeature;
+    }
+
+    /**
+     * Remembers the config instance as missed, unless it is one of the recently missed instances already.
+     *
+     * @return true if the config instance was missed recently
+     */
+    private boolean missedRecently(C config) {
+        int identity = System.identityHashCode(config);
+
+        if (identity == this.lastMissed || identity == this.previousMissed) {
+            return true;
+        }
+
+        this.previousMissed = this.lastMissed;
+        this.lastMissed = identity;
+
+        return false;
+    }
+
+    private Entry<C, T> find(C config) {
+        for (Entry<C, T> entry : this.entries) {
+            if (entry.config.get() == config) {
+                return entry;
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Entry<C, T> add(C config) {
+        Entry<C, T>[] current = this.entries;
+        Entry<C, T>[] updated = new Entry[Math.min(current.length + 1, SIZE)];
+        updated[0] = new Entry<>(config);
+        System.arraycopy(current, 0, updated, 1, updated.length - 1);
+
+        // Racing adds may drop each other's entry, which only costs computing the values again
+        this.entries = updated;
+        return updated[0];
+    }
+}
@@ -0,0 +1,59 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.segment.IdBitmap;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Returns true for a configured set of numeric ids, held in an {@link IdBitmap} so that checks are primitive {@code long} lookups.
+ * <p>
+ * The bitmap for a feature is cached from the second check against a config instance on, and is reused for every later check
+ * against the same config instance, so it is built about once per reload. Bitmaps are kept for the two most recent config instances.
+ *
+ * @param <C> the type of config
+ */
+public abstract class EnabledIdsConfigDecider<C> implements Predicate<ConfigDecisionInput<C>> {
+    private final ConfigInstanceCache<C, IdBitmap> enabledIdBitmaps = new ConfigInstanceCache<>();
+
+    @Override
+    public boolean test(ConfigDecisionInput<C> configDecisionInput) {
+        IdBitmap enabledIds = enabledIdBitmap(configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier());
+        return !enabledIds.isEmpty() && checkId(configDecisionInput.getFeatureCheckInput(), enabledIds);
+    }
+
+    private IdBitmap enabledIdBitmap(C config, String featureIdentifier) {
+        Map<String, IdBitmap> bitmapsByFeature = this.enabledIdBitmaps.get(config);
+
+        if (bitmapsByFeature == null) {
+            return enabledIds(config, featureIdentifier);
+        }
+
+        IdBitmap enabledIds = bitmapsByFeature.get(featureIdentifier);
+
+        if (enabledIds == null) {
+            enabledIds = enabledIds(config, featureIdentifier);
+            bitmapsByFeature.put(featureIdentifier, enabledIds);
+        }
+
+        return enabledIds;
+    }
+
+    /**
+     * Provide the ids that should have the given feature enabled. Return {@link IdBitmap#empty()} if no configuration is provided for the
+     * feature.
+     *
+     * @param config the config source
+     * @param featureIdentifier the feature
+     * @return the ids that should be enabled for the feature
+     */
+    protected abstract IdBitmap enabledIds(C config, String featureIdentifier);
+
+    /**
+     * @param featureCheckInput the input data for the decision
+     * @param enabledIds the ids that are enabled for the feature
+     * @return whether the id from the input is enabled
+     */
+    protected abstract boolean checkId(FeatureCheckInput featureCheckInput, IdBitmap enabledIds);
+}
@@ -0,0 +1,32 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.segment.IdBitmap;
+
+/**
+ * Returns true for a configured set of numeric values for some custom dimension. Dimension values may be a {@link Long}, {@link Integer},
+ * {@link Short} or {@link Byte}, or a string that is parsed as a decimal long; any other value is never enabled.
+ *
+ * @param <C> the type of config
+ */
+public abstract class EnabledNumericDimensionConfigDecider<C> extends EnabledIdsConfigDecider<C> {
+    @Override
+    protected boolean checkId(FeatureCheckInput featureCheckInput, IdBitmap enabledIds) {
+        Object value = featureCheckInput.getDimensionOrNull(dimensionKey());
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return enabledIds.contains(((Number) value).longValue());
+        } else if (value instanceof String) {
+            return enabledIds.containsDecimal((String) value);
+        }
+
+        return false;
+    }
+
+    /**
+     * The key used for the custom dimension on the feature input that will be checked.
+     *
+     * @return the key of the dimension
+     */
+    protected abstract String dimensionKey();
+}
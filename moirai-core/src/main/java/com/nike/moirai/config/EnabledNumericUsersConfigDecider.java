@@ -0,0 +1,18 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+import com.nike.moirai.segment.IdBitmap;
+
+/**
+ * Returns true for a configured set of numeric userIds. The userId from the input is parsed as a decimal long when checked; userIds that
+ * are not numeric are never enabled.
+ *
+ * @param <C> the type of config
+ */
+public abstract class EnabledNumericUsersConfigDecider<C> extends EnabledIdsConfigDecider<C> {
+    @Override
+    protected boolean checkId(FeatureCheckInput featureCheckInput, IdBitmap enabledIds) {
+        String userId = featureCheckInput.getUserIdOrNull();
+        return userId != null && enabledIds.containsDecimal(userId);
+    }
+}
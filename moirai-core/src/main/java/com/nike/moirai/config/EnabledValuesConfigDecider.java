@@ -3,20 +3,58 @@ package com.nike.moirai.config;
 import com.nike.moirai.FeatureCheckInput;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
  * Returns true for a configured list of users.
+ * <p>
+ * The collection provided for a feature is checked as is the first time a config instance is checked, and copied into a hash set on a
+ * later check against the same instance. That set is reused for every later check against the same config instance. A
+ * config that is reused between checks, such as one provided by a {@link com.nike.moirai.resource.reload.ResourceReloader}, only pays for
+ * reading the collection about once per reload, and a config supplier that returns a new instance for every check neither copies the
+ * collection nor caches anything. Sets are kept for the two most recent config instances, so checks against the old and new config during
+ * a reload share them.
  *
  * @param <C> the type of config
  * @param <V> the type of the
  */
 public abstract class EnabledValuesConfigDecider<C, V> implements Predicate<ConfigDecisionInput<C>> {
+    private final ConfigInstanceCache<C, Collection<V>> enabledValueSets = new ConfigInstanceCache<>();
+
     @Override
     public boolean test(ConfigDecisionInput<C> configDecisionInput) {
-        return checkValue(configDecisionInput.getFeatureCheckInput(), value ->
-            enabledValues(configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier()).contains(value)
-        );
+        Collection<V> enabledValues = cachedEnabledValues(configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier());
+        return !enabledValues.isEmpty() && checkValue(configDecisionInput.getFeatureCheckInput(), enabledValues::contains);
+    }
+
+    private Collection<V> cachedEnabledValues(C config, String featureIdentifier) {
+        Map<String, Collection<V>> valuesByFeature = this.enabledValueSets.get(config);
+
+        if (valuesByFeature == null) {
+            // A config instance that is not cached yet may only be checked once, so check the collection as is rather than building a set
+            return enabledValues(config, featureIdentifier);
+        }
+
+        Collection<V> enabledValues = valuesByFeature.get(featureIdentifier);
+
+        if (enabledValues == null) {
+            enabledValues = toSet(enabledValues(config, featureIdentifier));
+            valuesByFeature.put(featureIdentifier, enabledValues);
+        }
+
+        return enabledValues;
+    }
+
+    private static <V> Set<V> toSet(Collection<V> values) {
+        if (values instanceof Set) {
+            return (Set<V>) values;
+        }
+
+        return values.isEmpty() ? Collections.emptySet() : new HashSet<>(values);
     }
 
     /**
@@ -0,0 +1,110 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Objects;
+
+/**
+ * A rule for enabling a feature, declared with the feature's settings instead of being composed in code. A rule is parsed once when the
+ * config is loaded, into a tree that only contains the checks the rule uses.
+ * <p>
+ * Rules combine these terms with AND, OR, NOT and parentheses (keywords are not case-sensitive):
+ * <ul>
+ * <li>{@code users}: the userId is in the feature's enabledUserIds</li>
+ * <li>{@code proportion}: the user is in the feature's enabledProportion</li>
+ * <li>{@code proportion 0.2}: the user is in the given proportion, hashed by the feature's hash group</li>
+ * <li>{@code enabled}: the feature's featureEnabled is true</li>
+ * <li>{@code country IN [US, "CA"]}: the value of the custom dimension, as a string, is one of the listed values</li>
+ * <li>{@code country IN enabledCountries}: the value of the custom dimension is one of the feature's enabled values for that config key</li>
+ * <li>{@code true} and {@code false}</li>
+ * </ul>
+ * For example: {@code users OR (country IN [US, CA] AND proportion 0.2)}.
+ * <p>
+ * After parsing, the tree is simplified: constant terms are folded away, nested ANDs and ORs are flattened, double negations are
+ * removed, and the operands of each AND and OR are ordered so that cheap checks, such as reading a flag, run before expensive ones, such
+ * as hashing the userId.
+ */
+public final class FeatureRule implements CompiledFeatureDecider {
+    private final String source;
+    private final BucketingStrategy bucketingStrategy;
+    private final RuleNode root;
+
+    private FeatureRule(String source, BucketingStrategy bucketingStrategy, RuleNode root) {
+        this.source = source;
+        this.bucketingStrategy = bucketingStrategy;
+        this.root = root;
+    }
+
+    /**
+     * Parses a rule, bucketing proportions with {@link BucketingStrategy#HASH_CODE_PERCENT}.
+     *
+     * @param rule the rule expression
+     * @return the parsed and simplified rule
+     * @throws IllegalArgumentException if the rule is not valid
+     */
+    public static FeatureRule parse(String rule) {
+        return parse(rule, BucketingStrategy.HASH_CODE_PERCENT);
+    }
+
+    /**
+     * @param rule the rule expression
+     * @param bucketingStrategy how to bucket users for proportion terms
+     * @return the parsed and simplified rule
+     * @throws IllegalArgumentException if the rule is not valid
+     */
+    public static FeatureRule parse(String rule, BucketingStrategy bucketingStrategy) {
+        return new FeatureRule(rule, bucketingStrategy, new RuleParser(rule, bucketingStrategy).parse().simplify());
+    }
+
+    @Override
+    public boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+        return root.test(feature, featureCheckInput);
+    }
+
+    /**
+     * @return how users are bucketed for proportion terms
+     */
+    public BucketingStrategy getBucketingStrategy() {
+        return bucketingStrategy;
+    }
+
+    MethodHandle toMethodHandle(CompiledFeature feature) {
+        return root.toMethodHandle(feature);
+    }
+
+    /**
+     * @return the rule expression as it was declared
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return the simplified rule, with the operands of each AND and OR in the order they are checked
+     */
+    public String getSimplified() {
+        return root.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        FeatureRule that = (FeatureRule) o;
+        return Objects.equals(source, that.source) &&
+            bucketingStrategy == that.bucketingStrategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, bucketingStrategy);
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureRule{" + source + '}';
+    }
+}
@@ -0,0 +1,218 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link CompiledConfig} with a decision for every feature generated up front, as a tree of {@link MethodHandle}s with the feature's
+ * enabled users, enabled values, proportion and hashing salt bound in as constants. Checking a feature is a single hash lookup followed by
+ * calling its decision, without reading the feature's settings or walking a generic predicate.
+ * <p>
+ * By default every decision is invoked through the same shared class, so generating a config costs only building its handles. Generating
+ * with {@link #generatorWithDecisionClasses} instead defines a class of its own for each decision, that holds the feature's handle in a
+ * static final field. The JIT treats that handle as a constant, so it can inline the feature's whole decision into one compiled method, at
+ * the cost of defining a class per feature on every reload, which is slow for configs with many features and fills metaspace until the
+ * classes are unloaded along with the GeneratedConfig.
+ * <p>
+ * A feature with a declared {@link FeatureRule} is generated from its rule, with any terms that are constant for that feature, such as
+ * {@code enabled} or an empty list of users, folded away. Other features use the fallback decider given to {@link #generator}; if that
+ * fallback is itself a {@link FeatureRule}, it is generated for each feature in the same way, otherwise the fallback is invoked as is.
+ * <p>
+ * Generate once per loaded config by chaining onto the compiler, and check with {@link #DECIDER}, for example:
+ * <pre>
+ * Supplier&lt;GeneratedConfig&gt; configSupplier = supplierAndThen(fileSupplier,
+ *     TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigCompiler.COMPILE).andThen(GeneratedConfig.generator(fallback)));
+ * FeatureFlagChecker checker = ConfigFeatureFlagChecker.forConfigSupplier(configSupplier, GeneratedConfig.DECIDER);
+ * </pre>
+ */
+public final class GeneratedConfig {
+    /**
+     * Decides each check with the feature's generated decision. Also binds features to their generated decision for
+     * {@link com.nike.moirai.FeatureHandle}s.
+     */
+    public static final BindableConfigDecider<GeneratedConfig> DECIDER = new BindableConfigDecider<GeneratedConfig>() {
+        @Override
+        public boolean test(ConfigDecisionInput<GeneratedConfig> configDecisionInput) {
+            return configDecisionInput.getConfig().isFeatureEnabled(configDecisionInput.getFeatureIdentifier(), configDecisionInput.getFeatureCheckInput());
+        }
+
+        @Override
+        public Predicate<FeatureCheckInput> bind(GeneratedConfig config, String featureIdentifier) {
+            return config.decision(featureIdentifier);
+        }
+    };
+
+    private static final String DECISION_CLASS_NAME = "com.nike.moirai.config.GeneratedDecision";
+    private static final byte[] DECISION_CLASS_BYTES = readDecisionClass();
+
+    private final CompiledConfig compiledConfig;
+    private final Map<String, Predicate<FeatureCheckInput>> decisions;
+    private final Predicate<FeatureCheckInput> missingFeatureDecision;
+
+    /**
+     * @param fallback the decider for features without a declared rule
+     * @return a function that generates the decisions for every feature of a compiled config
+     */
+    public static Function<CompiledConfig, GeneratedConfig> generator(CompiledFeatureDecider fallback) {
+        Objects.requireNonNull(fallback, "fallback");
+        return compiledConfig -> generate(compiledConfig, fallback, HandleDecision::new);
+    }
+
+    /**
+     * Generates the decisions like {@link #generator}, but defines a class of its own for each decision so that the JIT can inline it.
+     * Only worth it for configs with few features that are checked very often.
+     *
+     * @param fallback the decider for features without a declared rule
+     * @return a function that generates the decisions for every feature of a compiled config, each in a class of its own
+     */
+    public static Function<CompiledConfig, GeneratedConfig> generatorWithDecisionClasses(CompiledFeatureDecider fallback) {
+        Objects.requireNonNull(fallback, "fallback");
+        return compiledConfig -> generate(compiledConfig, fallback, GeneratedConfig::defineDecision);
+    }
+
+    private static GeneratedConfig generate(CompiledConfig compiledConfig, CompiledFeatureDecider fallback,
+                                            Function<MethodHandle, Predicate<FeatureCheckInput>> invoker) {
+        Map<String, Predicate<FeatureCheckInput>> decisions = new HashMap<>();
+
+        for (CompiledFeature feature : compiledConfig.getFeatures().values()) {
+            decisions.put(feature.getFeatureIdentifier(), invoker.apply(generate(feature, fallback)));
+        }
+
+        return new GeneratedConfig(compiledConfig, decisions, invoker.apply(generate(CompiledFeature.EMPTY, fallback)));
+    }
+
+    private static MethodHandle generate(CompiledFeature feature, CompiledFeatureDecider fallback) {
+        FeatureRule rule = feature.getRuleOrNull();
+
+        if (rule != null) {
+            return rule.toMethodHandle(feature);
+        } else if (fallback instanceof FeatureRule) {
+            return ((FeatureRule) fallback).toMethodHandle(feature);
+        }
+
+        return RuleHandles.decider(fallback, feature);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<FeatureCheckInput> defineDecision(MethodHandle decision) {
+        try {
+            Constructor<?> constructor = new DecisionClassLoader(decision).defineDecisionClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+            return (Predicate<FeatureCheckInput>) constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not define a generated decision", e);
+        }
+    }
+
+    private static byte[] readDecisionClass() {
+        try (InputStream in = GeneratedConfig.class.getResourceAsStream("GeneratedDecision.class")) {
+            if (in == null) {
+                throw new IllegalStateException("Could not find " + DECISION_CLASS_NAME);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + DECISION_CLASS_NAME, e);
+        }
+    }
+
+    private GeneratedConfig(CompiledConfig compiledConfig, Map<String, Predicate<FeatureCheckInput>> decisions, Predicate<FeatureCheckInput> missingFeatureDecision) {
+        this.compiledConfig = compiledConfig;
+        this.decisions = Collections.unmodifiableMap(decisions);
+        this.missingFeatureDecision = missingFeatureDecision;
+    }
+
+    /**
+     * @return the compiled config the decisions were generated from
+     */
+    public CompiledConfig getCompiledConfig() {
+        return compiledConfig;
+    }
+
+    /**
+     * @param featureIdentifier the feature to check
+     * @param featureCheckInput the input data for the decision
+     * @return the result of the feature's generated decision, or of the fallback for {@link CompiledFeature#EMPTY} if the feature is not
+     * configured
+     */
+    public boolean isFeatureEnabled(String featureIdentifier, FeatureCheckInput featureCheckInput) {
+        return decision(featureIdentifier).test(featureCheckInput);
+    }
+
+    private Predicate<FeatureCheckInput> decision(String featureIdentifier) {
+        Predicate<FeatureCheckInput> decision = decisions.get(featureIdentifier);
+        return decision != null ? decision : missingFeatureDecision;
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedConfig{" +
+            "compiledConfig=" + compiledConfig +
+            '}';
+    }
+
+    /**
+     * Invokes a decision held in an instance field, so that every decision shares this one class.
+     */
+    private static final class HandleDecision implements Predicate<FeatureCheckInput> {
+        private final MethodHandle decision;
+
+        private HandleDecision(MethodHandle decision) {
+            this.decision = decision;
+        }
+
+        @Override
+        public boolean test(FeatureCheckInput featureCheckInput) {
+            try {
+                return (boolean) this.decision.invokeExact(featureCheckInput);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Generated decision threw a checked exception", t);
+            }
+        }
+    }
+
+    /**
+     * Defines one copy of {@link GeneratedDecision}, and supplies the decision to it when the copy is initialized.
+     */
+    private static final class DecisionClassLoader extends ClassLoader implements Supplier<MethodHandle> {
+        private final MethodHandle decision;
+
+        private DecisionClassLoader(MethodHandle decision) {
+            super(GeneratedConfig.class.getClassLoader());
+            this.decision = decision;
+        }
+
+        private Class<?> defineDecisionClass() {
+            return defineClass(DECISION_CLASS_NAME, DECISION_CLASS_BYTES, 0, DECISION_CLASS_BYTES.length);
+        }
+
+        @Override
+        public MethodHandle get() {
+            return this.decision;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The template for the class that {@link GeneratedConfig#generatorWithDecisionClasses} defines for each decision. This class is never
+ * loaded as is: a copy of it is defined in a new class loader for each decision, and that class loader supplies the decision when the copy
+ * is initialized. Because the decision is held in a static final field, the JIT treats it as a constant and can inline the whole decision
+ * into {@link #test}.
+ */
+final class GeneratedDecision implements Predicate<FeatureCheckInput> {
+    @SuppressWarnings("unchecked")
+    private static final MethodHandle DECISION = ((Supplier<MethodHandle>) GeneratedDecision.class.getClassLoader()).get();
+
+    @Override
+    public boolean test(FeatureCheckInput featureCheckInput) {
+        try {
+            return (boolean) DECISION.invokeExact(featureCheckInput);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Generated decision threw a checked exception", t);
+        }
+    }
+}
@@ -1,33 +1,48 @@
 package com.nike.moirai.config;
 
+import com.nike.moirai.FeatureCheckInput;
+
 import java.util.Optional;
 import java.util.function.Predicate;
 
-import static com.nike.moirai.config.ConfigDeciders.userIdCheck;
-
 /**
- * Returns true for a configured proportion of users. The proportion is based on the hashCode() of the userId concatenated with the featureIdentifier,
- * so a consistent answer will be returned for each userId for a feature. Returns false if no proportion configuration is provided for the feature identifier.
+ * Returns true for a configured proportion of users. The proportion is based on a hash of the userId and the featureIdentifier (see
+ * {@link BucketingStrategy}), so a consistent answer will be returned for each userId for a feature.
+ * Returns false if no proportion configuration is provided for the feature identifier.
  *
  * @param <T> the type of config
  */
 public abstract class ProportionOfUsersConfigDecider<T> implements Predicate<ConfigDecisionInput<T>> {
     @Override
     public boolean test(ConfigDecisionInput<T> configDecisionInput) {
-        return userIdCheck(configDecisionInput.getFeatureCheckInput(), userId ->
-            enabledProportion(configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier()).map(enabledProportion ->
-                userHashEnabled(
-                    userId,
-                    configDecisionInput.getFeatureIdentifier(),
-                    featureGroup(configDecisionInput.getConfig(), configDecisionInput.getFeatureIdentifier()),
-                    enabledProportion
-                )
-            ).orElse(false)
-        );
+        FeatureCheckInput featureCheckInput = configDecisionInput.getFeatureCheckInput();
+
+        if (featureCheckInput.getUserIdOrNull() == null) {
+            return false;
+        }
+
+        T config = configDecisionInput.getConfig();
+        String featureIdentifier = configDecisionInput.getFeatureIdentifier();
+        Optional<Double> enabledProportion = enabledProportion(config, featureIdentifier);
+
+        if (!enabledProportion.isPresent()) {
+            return false;
+        }
+
+        String hashGroup = featureGroup(config, featureIdentifier).orElse(featureIdentifier);
+        BucketingStrategy bucketingStrategy = bucketingStrategy();
+
+        return bucketingStrategy.isEnabled(featureCheckInput, hashGroup, bucketingStrategy.hashGroupSalt(hashGroup), enabledProportion.get());
     }
 
-    private boolean userHashEnabled(String userId, String featureIdentifier, Optional<String> featureGroup, double proportion) {
-        return (Math.abs((userId + featureGroup.orElse(featureIdentifier)).hashCode()) % 100) / 100.0 < proportion;
+    /**
+     * Provide the strategy for assigning users to buckets. Defaults to {@link BucketingStrategy#HASH_CODE_PERCENT}, which keeps the
+     * same users enabled as previous versions.
+     *
+     * @return the bucketing strategy to use
+     */
+    protected BucketingStrategy bucketingStrategy() {
+        return BucketingStrategy.HASH_CODE_PERCENT;
     }
 
     /**
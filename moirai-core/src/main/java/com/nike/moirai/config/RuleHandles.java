@@ -0,0 +1,146 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+
+/**
+ * The building blocks for turning a {@link RuleNode} tree into a tree of {@link MethodHandle}s of type (FeatureCheckInput)boolean, with
+ * the feature's sets and thresholds bound in as constants.
+ */
+final class RuleHandles {
+    static final MethodType DECISION_TYPE = MethodType.methodType(boolean.class, FeatureCheckInput.class);
+
+    private static final MethodHandle TRUE = booleanConstant(true);
+    private static final MethodHandle FALSE = booleanConstant(false);
+    private static final MethodHandle NOT;
+    private static final MethodHandle USER_ID_IN;
+    private static final MethodHandle DIMENSION_IN;
+    private static final MethodHandle DIMENSION_STRING_IN;
+    private static final MethodHandle PROPORTION;
+    private static final MethodHandle DECIDER_TEST;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            NOT = lookup.findStatic(RuleHandles.class, "not", MethodType.methodType(boolean.class, boolean.class));
+            USER_ID_IN = lookup.findStatic(RuleHandles.class, "userIdIn",
+                MethodType.methodType(boolean.class, Set.class, FeatureCheckInput.class));
+            DIMENSION_IN = lookup.findStatic(RuleHandles.class, "dimensionIn",
+                MethodType.methodType(boolean.class, String.class, Set.class, FeatureCheckInput.class));
+            DIMENSION_STRING_IN = lookup.findStatic(RuleHandles.class, "dimensionStringIn",
+                MethodType.methodType(boolean.class, String.class, Set.class, FeatureCheckInput.class));
+            PROPORTION = lookup.findStatic(RuleHandles.class, "proportion",
+                MethodType.methodType(boolean.class, BucketingStrategy.class, String.class, long.class, double.class, FeatureCheckInput.class));
+            DECIDER_TEST = lookup.findVirtual(CompiledFeatureDecider.class, "test",
+                MethodType.methodType(boolean.class, CompiledFeature.class, FeatureCheckInput.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static MethodHandle constant(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * Folds constant operands, so that a rule that is constant for a feature becomes a single constant handle.
+     */
+    static MethodHandle and(MethodHandle first, MethodHandle second) {
+        if (first == FALSE || second == FALSE) {
+            return FALSE;
+        } else if (first == TRUE) {
+            return second;
+        } else if (second == TRUE) {
+            return first;
+        }
+
+        return MethodHandles.guardWithTest(first, second, FALSE);
+    }
+
+    /**
+     * Folds constant operands, so that a rule that is constant for a feature becomes a single constant handle.
+     */
+    static MethodHandle or(MethodHandle first, MethodHandle second) {
+        if (first == TRUE || second == TRUE) {
+            return TRUE;
+        } else if (first == FALSE) {
+            return second;
+        } else if (second == FALSE) {
+            return first;
+        }
+
+        return MethodHandles.guardWithTest(first, TRUE, second);
+    }
+
+    static MethodHandle not(MethodHandle operand) {
+        if (operand == TRUE) {
+            return FALSE;
+        } else if (operand == FALSE) {
+            return TRUE;
+        }
+
+        return MethodHandles.filterReturnValue(operand, NOT);
+    }
+
+    static MethodHandle userIdIn(Set<String> userIds) {
+        return MethodHandles.insertArguments(USER_ID_IN, 0, userIds);
+    }
+
+    static MethodHandle dimensionIn(String dimensionKey, Set<?> values) {
+        return MethodHandles.insertArguments(DIMENSION_IN, 0, dimensionKey, values);
+    }
+
+    static MethodHandle dimensionStringIn(String dimensionKey, Set<String> values) {
+        return MethodHandles.insertArguments(DIMENSION_STRING_IN, 0, dimensionKey, values);
+    }
+
+    static MethodHandle proportion(BucketingStrategy bucketingStrategy, String hashGroup, long hashGroupSalt, double proportion) {
+        return MethodHandles.insertArguments(PROPORTION, 0, bucketingStrategy, hashGroup, hashGroupSalt, proportion);
+    }
+
+    static MethodHandle decider(CompiledFeatureDecider decider, CompiledFeature feature) {
+        return MethodHandles.insertArguments(DECIDER_TEST, 0, decider, feature);
+    }
+
+    private static MethodHandle booleanConstant(boolean value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(boolean.class, value), 0, FeatureCheckInput.class);
+    }
+
+    private static boolean not(boolean value) {
+        return !value;
+    }
+
+    private static boolean userIdIn(Set<String> userIds, FeatureCheckInput featureCheckInput) {
+        String userId = featureCheckInput.getUserIdOrNull();
+        return userId != null && userIds.contains(userId);
+    }
+
+    private static boolean dimensionIn(String dimensionKey, Set<?> values, FeatureCheckInput featureCheckInput) {
+        Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+        return value != null && values.contains(value);
+    }
+
+    private static boolean dimensionStringIn(String dimensionKey, Set<String> values, FeatureCheckInput featureCheckInput) {
+        Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+        return value != null && values.contains(value.toString());
+    }
+
+    private static boolean proportion(
+        BucketingStrategy bucketingStrategy,
+        String hashGroup,
+        long hashGroupSalt,
+        double proportion,
+        FeatureCheckInput featureCheckInput) {
+
+        return featureCheckInput.getUserIdOrNull() != null && bucketingStrategy.isEnabled(featureCheckInput, hashGroup, hashGroupSalt, proportion);
+    }
+
+    private RuleHandles() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,375 @@
+package com.nike.moirai.config;
+
+import com.nike.moirai.FeatureCheckInput;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A node of a parsed {@link FeatureRule}. Each node knows how expensive it is to evaluate, so that {@link #simplify()} can fold constants
+ * and put cheaper operands of AND and OR first. Each node can also be turned into a {@link MethodHandle} specialized for a single feature,
+ * with the feature's settings bound in as constants.
+ */
+abstract class RuleNode {
+    static final int CONSTANT_COST = 0;
+    static final int FIELD_COST = 1;
+    static final int LOOKUP_COST = 4;
+    static final int HASH_COST = 8;
+
+    abstract boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput);
+
+    abstract int cost();
+
+    /**
+     * @param feature the feature to specialize the node for
+     * @return a handle of type {@link RuleHandles#DECISION_TYPE} that decides the same as {@link #test} for the given feature
+     */
+    abstract MethodHandle toMethodHandle(CompiledFeature feature);
+
+    RuleNode simplify() {
+        return this;
+    }
+
+    static final class Constant extends RuleNode {
+        static final Constant TRUE = new Constant(true);
+        static final Constant FALSE = new Constant(false);
+
+        private final boolean value;
+
+        private Constant(boolean value) {
+            this.value = value;
+        }
+
+        static Constant of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            return value;
+        }
+
+        @Override
+        int cost() {
+            return CONSTANT_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            return RuleHandles.constant(value);
+        }
+
+        @Override
+        public String toString() {
+            return Boolean.toString(value);
+        }
+    }
+
+    static final class FeatureEnabled extends RuleNode {
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            return feature.isFeatureEnabled();
+        }
+
+        @Override
+        int cost() {
+            return FIELD_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            return RuleHandles.constant(feature.isFeatureEnabled());
+        }
+
+        @Override
+        public String toString() {
+            return "enabled";
+        }
+    }
+
+    static final class EnabledUsers extends RuleNode {
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            String userId = featureCheckInput.getUserIdOrNull();
+            return userId != null && feature.getEnabledUserIds().contains(userId);
+        }
+
+        @Override
+        int cost() {
+            return LOOKUP_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            Set<String> enabledUserIds = feature.getEnabledUserIds();
+            return enabledUserIds.isEmpty() ? RuleHandles.constant(false) : RuleHandles.userIdIn(enabledUserIds);
+        }
+
+        @Override
+        public String toString() {
+            return "users";
+        }
+    }
+
+    static final class Proportion extends RuleNode {
+        private final Double proportion;
+        private final BucketingStrategy bucketingStrategy;
+
+        /**
+         * @param proportion the proportion to enable, or null to use the feature's enabledProportion
+         */
+        Proportion(Double proportion, BucketingStrategy bucketingStrategy) {
+            this.proportion = proportion;
+            this.bucketingStrategy = bucketingStrategy;
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            double enabledProportion = proportion != null ? proportion : feature.getEnabledProportion();
+
+            return featureCheckInput.getUserIdOrNull() != null && enabledProportion > 0.0 &&
+                bucketingStrategy.isEnabled(
+                    featureCheckInput,
+                    feature.getHashGroup(),
+                    feature.getHashGroupSalt(bucketingStrategy),
+                    enabledProportion);
+        }
+
+        @Override
+        int cost() {
+            return HASH_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            double enabledProportion = proportion != null ? proportion : feature.getEnabledProportion();
+
+            if (enabledProportion <= 0.0) {
+                return RuleHandles.constant(false);
+            }
+
+            return RuleHandles.proportion(
+                bucketingStrategy,
+                feature.getHashGroup(),
+                feature.getHashGroupSalt(bucketingStrategy),
+                enabledProportion);
+        }
+
+        @Override
+        RuleNode simplify() {
+            return proportion != null && proportion <= 0.0 ? Constant.FALSE : this;
+        }
+
+        @Override
+        public String toString() {
+            return proportion != null ? "proportion " + proportion : "proportion";
+        }
+    }
+
+    static final class InValues extends RuleNode {
+        private final String dimensionKey;
+        private final Set<String> values;
+
+        InValues(String dimensionKey, Set<String> values) {
+            this.dimensionKey = dimensionKey;
+            this.values = values;
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+            return value != null && values.contains(value.toString());
+        }
+
+        @Override
+        int cost() {
+            return LOOKUP_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            return values.isEmpty() ? RuleHandles.constant(false) : RuleHandles.dimensionStringIn(dimensionKey, values);
+        }
+
+        @Override
+        RuleNode simplify() {
+            return values.isEmpty() ? Constant.FALSE : this;
+        }
+
+        @Override
+        public String toString() {
+            return dimensionKey + " IN " + values.stream().sorted().map(v -> '"' + v + '"').collect(Collectors.joining(", ", "[", "]"));
+        }
+    }
+
+    static final class InEnabledValues extends RuleNode {
+        private final String dimensionKey;
+        private final String configKey;
+
+        InEnabledValues(String dimensionKey, String configKey) {
+            this.dimensionKey = dimensionKey;
+            this.configKey = configKey;
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            Object value = featureCheckInput.getDimensionOrNull(dimensionKey);
+            return value != null && feature.getEnabledValues(configKey).contains(value);
+        }
+
+        @Override
+        int cost() {
+            return LOOKUP_COST;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            Set<?> enabledValues = feature.getEnabledValues(configKey);
+            return enabledValues.isEmpty() ? RuleHandles.constant(false) : RuleHandles.dimensionIn(dimensionKey, enabledValues);
+        }
+
+        @Override
+        public String toString() {
+            return dimensionKey + " IN " + configKey;
+        }
+    }
+
+    static final class Not extends RuleNode {
+        private final RuleNode operand;
+
+        Not(RuleNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            return !operand.test(feature, featureCheckInput);
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            return RuleHandles.not(operand.toMethodHandle(feature));
+        }
+
+        @Override
+        RuleNode simplify() {
+            RuleNode simplified = operand.simplify();
+
+            if (simplified instanceof Constant) {
+                return Constant.of(!((Constant) simplified).value);
+            } else if (simplified instanceof Not) {
+                return ((Not) simplified).operand;
+            }
+
+            return new Not(simplified);
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    /**
+     * AND when conjunction is true, otherwise OR. The operands are evaluated in order and short-circuit.
+     */
+    static final class Junction extends RuleNode {
+        private final boolean conjunction;
+        private final RuleNode[] operands;
+
+        Junction(boolean conjunction, List<RuleNode> operands) {
+            this.conjunction = conjunction;
+            this.operands = operands.toArray(new RuleNode[0]);
+        }
+
+        @Override
+        boolean test(CompiledFeature feature, FeatureCheckInput featureCheckInput) {
+            for (RuleNode operand : operands) {
+                if (operand.test(feature, featureCheckInput) != conjunction) {
+                    return !conjunction;
+                }
+            }
+
+            return conjunction;
+        }
+
+        @Override
+        int cost() {
+            int cost = 0;
+
+            for (RuleNode operand : operands) {
+                cost += operand.cost();
+            }
+
+            return cost;
+        }
+
+        @Override
+        MethodHandle toMethodHandle(CompiledFeature feature) {
+            MethodHandle handle = operands[operands.length - 1].toMethodHandle(feature);
+
+            for (int i = operands.length - 2; i >= 0; i--) {
+                MethodHandle operand = operands[i].toMethodHandle(feature);
+                handle = conjunction ? RuleHandles.and(operand, handle) : RuleHandles.or(operand, handle);
+            }
+
+            return handle;
+        }
+
+        @Override
+        RuleNode simplify() {
+            List<RuleNode> simplified = new ArrayList<>();
+
+            for (RuleNode operand : operands) {
+                RuleNode simplifiedOperand = operand.simplify();
+
+                if (simplifiedOperand instanceof Constant) {
+                    // true is the identity of AND and false the identity of OR; the other value decides the whole junction
+                    if (((Constant) simplifiedOperand).value == conjunction) {
+                        continue;
+                    }
+
+                    return simplifiedOperand;
+                } else if (simplifiedOperand instanceof Junction && ((Junction) simplifiedOperand).conjunction == conjunction) {
+                    Collections.addAll(simplified, ((Junction) simplifiedOperand).operands);
+                } else {
+                    simplified.add(simplifiedOperand);
+                }
+            }
+
+            if (simplified.isEmpty()) {
+                return Constant.of(conjunction);
+            } else if (simplified.size() == 1) {
+                return simplified.get(0);
+            }
+
+            simplified.sort(Comparator.comparingInt(RuleNode::cost));
+            return new Junction(conjunction, simplified);
+        }
+
+        @Override
+        public String toString() {
+            String separator = conjunction ? " AND " : " OR ";
+            StringBuilder builder = new StringBuilder("(");
+
+            for (int i = 0; i < operands.length; i++) {
+                if (i > 0) {
+                    builder.append(separator);
+                }
+                builder.append(operands[i]);
+            }
+
+            return builder.append(')').toString();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.nike.moirai.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A recursive-descent parser for the {@link FeatureRule} expression language.
+ */
+final class RuleParser {
+    private final String source;
+    private final BucketingStrategy bucketingStrategy;
+    private int position;
+
+    RuleParser(String source, BucketingStrategy bucketingStrategy) {
+        this.source = source;
+        this.bucketingStrategy = bucketingStrategy;
+    }
+
+    RuleNode parse() {
+        RuleNode node = parseOr();
+        skipWhitespace();
+
+        if (position < source.length()) {
+            throw error("Unexpected '" + source.charAt(position) + "'");
+        }
+
+        return node;
+    }
+
+    private RuleNode parseOr() {
+        List<RuleNode> operands = new ArrayList<>();
+        operands.add(parseAnd());
+
+        while (acceptKeyword("OR")) {
+            operands.add(parseAnd());
+        }
+
+        return operands.size() == 1 ? operands.get(0) : new RuleNode.Junction(false, operands);
+    }
+
+    private RuleNode parseAnd() {
+        List<RuleNode> operands = new ArrayList<>();
+        operands.add(parseNot());
+
+        while (acceptKeyword("AND")) {
+            operands.add(parseNot());
+        }
+
+        return operands.size() == 1 ? operands.get(0) : new RuleNode.Junction(true, operands);
+    }
+
+    private RuleNode parseNot() {
+        if (acceptKeyword("NOT")) {
+            return new RuleNode.Not(parseNot());
+        }
+
+        return parsePrimary();
+    }
+
+    private RuleNode parsePrimary() {
+        if (accept('(')) {
+            RuleNode node = parseOr();
+            expect(')');
+            return node;
+        }
+
+        int start = position;
+        String word = readWord();
+
+        if (word == null) {
+            throw error(position < source.length() ? "Unexpected '" + source.charAt(position) + "'" : "Unexpected end of rule");
+        }
+
+        switch (word.toLowerCase(Locale.ROOT)) {
+            case "true":
+                return RuleNode.Constant.TRUE;
+            case "false":
+                return RuleNode.Constant.FALSE;
+            case "enabled":
+                return new RuleNode.FeatureEnabled();
+            case "users":
+                return new RuleNode.EnabledUsers();
+            case "proportion":
+                return new RuleNode.Proportion(readProportion(), bucketingStrategy);
+            default:
+                if (!acceptKeyword("IN")) {
+                    position = start;
+                    throw error("Expected a rule term or '<dimension> IN' but found '" + word + "'");
+                }
+
+                if (accept('[')) {
+                    return new RuleNode.InValues(word, readValues());
+                }
+
+                String configKey = readWord();
+
+                if (configKey == null) {
+                    throw error("Expected '[' or a config key after IN");
+                }
+
+                return new RuleNode.InEnabledValues(word, configKey);
+        }
+    }
+
+    private Double readProportion() {
+        skipWhitespace();
+        int start = position;
+
+        while (position < source.length() && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+            position++;
+        }
+
+        if (start == position) {
+            return null;
+        }
+
+        try {
+            return Double.parseDouble(source.substring(start, position));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid proportion");
+        }
+    }
+
+    private Set<String> readValues() {
+        Set<String> values = new HashSet<>();
+
+        if (accept(']')) {
+            return Collections.emptySet();
+        }
+
+        do {
+            values.add(readValue());
+        } while (accept(','));
+
+        expect(']');
+        return Collections.unmodifiableSet(values);
+    }
+
+    private String readValue() {
+        skipWhitespace();
+
+        if (position < source.length() && source.charAt(position) == '"') {
+            int end = source.indexOf('"', position + 1);
+
+            if (end < 0) {
+                throw error("Unterminated string");
+            }
+
+            String value = source.substring(position + 1, end);
+            position = end + 1;
+            return value;
+        }
+
+        String value = readWord();
+
+        if (value == null) {
+            throw error("Expected a value");
+        }
+
+        return value;
+    }
+
+    private String readWord() {
+        skipWhitespace();
+        int start = position;
+
+        while (position < source.length() && isWordCharacter(source.charAt(position))) {
+            position++;
+        }
+
+        return start == position ? null : source.substring(start, position);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = position + keyword.length();
+
+        if (source.regionMatches(true, position, keyword, 0, keyword.length()) &&
+            (end == source.length() || !isWordCharacter(source.charAt(end)))) {
+            position = end;
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean accept(char c) {
+        skipWhitespace();
+
+        if (position < source.length() && source.charAt(position) == c) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format("%s at position %d of rule \"%s\"", message, position, source));
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+}
@@ -0,0 +1,104 @@
+package com.nike.moirai.exposure;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer, based on Dmitry Vyukov's bounded MPMC queue. Each slot has a
+ * sequence number that tells producers and the consumer whether the slot is free to write or ready to read, so neither side ever waits
+ * on a lock. A producer that finds the queue full, or closed, fails immediately.
+ *
+ * @param <E> the type of element
+ */
+final class BoundedRingBuffer<E> {
+    private static final long CLOSED = 1L << 62;
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * @param capacity the maximum number of elements, rounded up to a power of two
+     */
+    BoundedRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * May be called from any thread.
+     *
+     * @param element the element to add
+     * @return false if the queue was full or closed
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = this.tail.get();
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.lazySet(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Must only be called from the single consumer thread.
+     *
+     * @param destination where to add the removed elements
+     * @param maxElements the most elements to remove
+     * @return the number of elements removed
+     */
+    int drainTo(List<? super E> destination, int maxElements) {
+        int drained = 0;
+
+        while (drained < maxElements) {
+            int index = (int) this.head & this.mask;
+
+            if (this.sequences.get(index) != this.head + 1) {
+                break;
+            }
+
+            destination.add(this.elements.get(index));
+            this.elements.lazySet(index, null);
+            this.sequences.set(index, this.head + this.mask + 1);
+            this.head++;
+            drained++;
+        }
+
+        return drained;
+    }
+
+    /**
+     * Stops accepting elements, so that every offer that has not claimed a slot yet fails. An offer that claimed a slot before the queue
+     * was closed still adds its element, so keep draining until the returned number of elements have been removed. Must only be called
+     * from the single consumer thread.
+     *
+     * @return the number of elements added before the queue was closed that have not been drained yet
+     */
+    long close() {
+        return (this.tail.getAndUpdate(position -> position | CLOSED) & ~CLOSED) - this.head;
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+}
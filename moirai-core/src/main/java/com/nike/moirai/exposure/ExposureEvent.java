@@ -0,0 +1,102 @@
+package com.nike.moirai.exposure;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A record that a feature was checked for a user, and the result that the user was given.
+ */
+public class ExposureEvent {
+    private final String featureIdentifier;
+    private final String userId;
+    private final boolean enabled;
+    private final long configVersion;
+    private final long timestampMillis;
+
+    /**
+     * @param featureIdentifier the identifier of the feature that was checked
+     * @param userId the id of the user the feature was checked for, or null if the check had no user
+     * @param enabled whether the feature was enabled
+     * @param configVersion the version of the config the check was decided with
+     * @param timestampMillis when the check happened, in milliseconds since the epoch
+     */
+    public ExposureEvent(String featureIdentifier, String userId, boolean enabled, long configVersion, long timestampMillis) {
+        this.featureIdentifier = featureIdentifier;
+        this.userId = userId;
+        this.enabled = enabled;
+        this.configVersion = configVersion;
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * @return the identifier of the feature that was checked
+     */
+    public String getFeatureIdentifier() {
+        return featureIdentifier;
+    }
+
+    /**
+     * @return the id of the user the feature was checked for, or null if the check had no user
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return whether the feature was enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the version of the config the check was decided with
+     */
+    public long getConfigVersion() {
+        return configVersion;
+    }
+
+    /**
+     * @return when the check happened, in milliseconds since the epoch
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return when the check happened
+     */
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ExposureEvent that = (ExposureEvent) o;
+        return enabled == that.enabled &&
+            configVersion == that.configVersion &&
+            timestampMillis == that.timestampMillis &&
+            Objects.equals(featureIdentifier, that.featureIdentifier) &&
+            Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(featureIdentifier, userId, enabled, configVersion, timestampMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "ExposureEvent{" +
+            "featureIdentifier='" + featureIdentifier + '\'' +
+            ", userId=" + userId +
+            ", enabled=" + enabled +
+            ", configVersion=" + configVersion +
+            ", timestamp=" + getTimestamp() +
+            '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.nike.moirai.exposure;
+
+/**
+ * Receives an {@link ExposureEvent} for each feature check decided by a {@link com.nike.moirai.ConfigFeatureFlagChecker}. This is called
+ * on the feature-check path, so implementations should return quickly and never block; see {@link ExposurePipeline}.
+ */
+@FunctionalInterface
+public interface ExposureListener {
+    /**
+     * A listener that ignores every exposure. Checkers using this listener do not create exposure events at all.
+     */
+    ExposureListener NO_OP = exposureEvent -> { };
+
+    /**
+     * @param exposureEvent the feature check that happened
+     */
+    void onExposure(ExposureEvent exposureEvent);
+}
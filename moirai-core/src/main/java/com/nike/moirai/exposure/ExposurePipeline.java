@@ -0,0 +1,337 @@
+package com.nike.moirai.exposure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link ExposureListener} that hands exposure events to a background thread, which writes them in batches to an {@link ExposureSink}.
+ * <p>
+ * Events are published into a bounded, lock-free ring buffer. If the buffer is full, the event is dropped and counted, so a slow sink
+ * never blocks or slows down feature checks. The consumer thread drains the buffer in batches, and skips an event if the same user got
+ * the same result for the same feature and config version within the deduplication window. The deduplication window only remembers a
+ * bounded number of exposures, so under a very large number of distinct users some repeats may still be written.
+ * <p>
+ * Call {@link #close()} to write the events still in the buffer and close the sink. Every event is either written, skipped as a
+ * duplicate, failed or dropped, including events published while the pipeline is closing.
+ */
+public class ExposurePipeline implements ExposureListener, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExposurePipeline.class);
+
+    private final BoundedRingBuffer<ExposureEvent> buffer;
+    private final ExposureSink sink;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long deduplicationWindowMillis;
+    private final Map<DeduplicationKey, Long> recentExposures;
+    private final Thread consumer;
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder duplicateCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private volatile boolean running = true;
+    private long lastPurgeMillis;
+
+    /**
+     * Builds an {@link ExposurePipeline}.
+     */
+    public static class Builder {
+        private final ExposureSink sink;
+        private int capacity = 8192;
+        private int batchSize = 512;
+        private Duration flushInterval = Duration.ofMillis(100);
+        private Duration deduplicationWindow = Duration.ofMinutes(1);
+        private int deduplicationCapacity = 65536;
+
+        /**
+         * @param sink where to write exposure events
+         */
+        public Builder(ExposureSink sink) {
+            this.sink = Objects.requireNonNull(sink, "sink");
+        }
+
+        /**
+         * @param capacity the number of events that can wait to be written before new events are dropped, rounded up to a power of
+         *                 two; defaults to 8192
+         * @return this
+         */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+            }
+
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param batchSize the most events to write to the sink at once; defaults to 512
+         * @return this
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param flushInterval how long the consumer waits for more events when the buffer is empty; defaults to 100 milliseconds
+         * @return this
+         */
+        public Builder flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * @param deduplicationWindow how long after writing an exposure to skip the same feature, userId, result and config version; a zero duration
+         *                            turns off deduplication; defaults to 1 minute
+         * @return this
+         */
+        public Builder deduplicationWindow(Duration deduplicationWindow) {
+            this.deduplicationWindow = deduplicationWindow;
+            return this;
+        }
+
+        /**
+         * @param deduplicationCapacity the most exposures to remember for deduplication; once full, the oldest exposure is forgotten
+         *                              early; defaults to 65536
+         * @return this
+         */
+        public Builder deduplicationCapacity(int deduplicationCapacity) {
+            if (deduplicationCapacity <= 0) {
+                throw new IllegalArgumentException("deduplicationCapacity must be positive: " + deduplicationCapacity);
+            }
+
+            this.deduplicationCapacity = deduplicationCapacity;
+            return this;
+        }
+
+        /**
+         * @return a new ExposurePipeline, with its consumer thread started
+         */
+        public ExposurePipeline build() {
+            return new ExposurePipeline(this);
+        }
+    }
+
+    private ExposurePipeline(Builder builder) {
+        this.buffer = new BoundedRingBuffer<>(builder.capacity);
+        this.sink = builder.sink;
+        this.batchSize = builder.batchSize;
+        this.flushIntervalNanos = builder.flushInterval.toNanos();
+        this.deduplicationWindowMillis = builder.deduplicationWindow.toMillis();
+        this.recentExposures = new RecentExposures(builder.deduplicationCapacity);
+
+        this.consumer = new Thread(this::consume, "ExposurePipelineMoiraiThread");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Adds the event to the buffer without blocking, or drops it if the buffer is full.
+     */
+    @Override
+    public void onExposure(ExposureEvent exposureEvent) {
+        if (!this.running || !this.buffer.offer(exposureEvent)) {
+            this.droppedCount.increment();
+        }
+    }
+
+    /**
+     * @return the number of events dropped because the buffer was full or the pipeline was closed
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * @return the number of events skipped as repeats within the deduplication window
+     */
+    public long getDuplicateCount() {
+        return this.duplicateCount.sum();
+    }
+
+    /**
+     * @return the number of events written to the sink
+     */
+    public long getWrittenCount() {
+        return this.writtenCount.sum();
+    }
+
+    /**
+     * @return the number of events in batches that the sink failed to write
+     */
+    public long getFailedCount() {
+        return this.failedCount.sum();
+    }
+
+    /**
+     * Stops accepting events, writes the events still in the buffer, and closes the sink. Events published after the consumer stops
+     * accepting them are counted as dropped.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.consumer);
+
+        try {
+            this.consumer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        List<ExposureEvent> drained = new ArrayList<>(this.batchSize);
+        List<ExposureEvent> batch = new ArrayList<>(this.batchSize);
+
+        while (this.running) {
+            if (this.buffer.drainTo(drained, this.batchSize) == 0) {
+                LockSupport.parkNanos(this, this.flushIntervalNanos);
+            } else {
+                writeBatch(drained, batch);
+            }
+        }
+
+        long remaining = this.buffer.close();
+
+        while (remaining > 0) {
+            int count = this.buffer.drainTo(drained, this.batchSize);
+
+            if (count == 0) {
+                // A producer claimed a slot before the buffer was closed and has not filled it in yet
+                Thread.yield();
+            } else {
+                remaining -= count;
+                writeBatch(drained, batch);
+            }
+        }
+
+        try {
+            this.sink.close();
+        } catch (Exception e) {
+            LOGGER.error("Error closing exposure sink", e);
+        }
+    }
+
+    private void writeBatch(List<ExposureEvent> drained, List<ExposureEvent> batch) {
+        for (ExposureEvent exposureEvent : drained) {
+            if (isFirstInWindow(exposureEvent)) {
+                batch.add(exposureEvent);
+            } else {
+                this.duplicateCount.increment();
+            }
+        }
+
+        drained.clear();
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.sink.write(batch);
+            this.writtenCount.add(batch.size());
+        } catch (Exception e) {
+            this.failedCount.add(batch.size());
+            LOGGER.error("Error writing exposure events", e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private boolean isFirstInWindow(ExposureEvent exposureEvent) {
+        if (this.deduplicationWindowMillis <= 0) {
+            return true;
+        }
+
+        long now = exposureEvent.getTimestampMillis();
+
+        if (now - this.lastPurgeMillis >= this.deduplicationWindowMillis) {
+            purgeBefore(now - this.deduplicationWindowMillis);
+            this.lastPurgeMillis = now;
+        }
+
+        DeduplicationKey key = new DeduplicationKey(exposureEvent);
+        Long lastWritten = this.recentExposures.get(key);
+
+        if (lastWritten != null && now - lastWritten < this.deduplicationWindowMillis) {
+            return false;
+        }
+
+        // Remove first, so the exposure moves to the end of the insertion order
+        this.recentExposures.remove(key);
+        this.recentExposures.put(key, now);
+        return true;
+    }
+
+    private void purgeBefore(long cutoffMillis) {
+        Iterator<Long> lastWritten = this.recentExposures.values().iterator();
+
+        // Oldest first, so stop at the first exposure that is still within the window
+        while (lastWritten.hasNext() && lastWritten.next() < cutoffMillis) {
+            lastWritten.remove();
+        }
+    }
+
+    private static final class RecentExposures extends LinkedHashMap<DeduplicationKey, Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private RecentExposures(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DeduplicationKey, Long> eldest) {
+            return size() > this.capacity;
+        }
+    }
+
+    private static final class DeduplicationKey {
+        private final String featureIdentifier;
+        private final String userId;
+        private final boolean enabled;
+        private final long configVersion;
+
+        private DeduplicationKey(ExposureEvent exposureEvent) {
+            this.featureIdentifier = exposureEvent.getFeatureIdentifier();
+            this.userId = exposureEvent.getUserId();
+            this.enabled = exposureEvent.isEnabled();
+            this.configVersion = exposureEvent.getConfigVersion();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            DeduplicationKey that = (DeduplicationKey) o;
+            return enabled == that.enabled &&
+                configVersion == that.configVersion &&
+                Objects.equals(featureIdentifier, that.featureIdentifier) &&
+                Objects.equals(userId, that.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(featureIdentifier, userId, enabled, configVersion);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nike.moirai.exposure;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where an {@link ExposurePipeline} writes batches of exposure events. A sink is only called from the pipeline's consumer thread.
+ */
+public interface ExposureSink extends AutoCloseable {
+    /**
+     * @param exposureEvents the events to write, in the order they were received
+     * @throws IOException if the events could not be written; the batch is dropped and the pipeline continues
+     */
+    void write(List<ExposureEvent> exposureEvents) throws IOException;
+
+    /**
+     * Releases any resources held by the sink. Called once when the pipeline is closed. Does nothing by default.
+     *
+     * @throws IOException if the sink could not be closed
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
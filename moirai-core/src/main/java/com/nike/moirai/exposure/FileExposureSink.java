@@ -0,0 +1,48 @@
+package com.nike.moirai.exposure;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends exposure events to a file, one per line, flushing after each batch. Each line has tab-separated fields: the timestamp in
+ * ISO-8601 format, the feature identifier, the userId (empty if there was none), "true" or "false", and the config version.
+ */
+public class FileExposureSink implements ExposureSink {
+    private final BufferedWriter writer;
+
+    /**
+     * @param path the file to append to, which will be created if it does not exist
+     * @throws IOException if the file could not be opened
+     */
+    public FileExposureSink(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(List<ExposureEvent> exposureEvents) throws IOException {
+        for (ExposureEvent exposureEvent : exposureEvents) {
+            this.writer.write(exposureEvent.getTimestamp().toString());
+            this.writer.write('\t');
+            this.writer.write(exposureEvent.getFeatureIdentifier());
+            this.writer.write('\t');
+            this.writer.write(exposureEvent.getUserId() == null ? "" : exposureEvent.getUserId());
+            this.writer.write('\t');
+            this.writer.write(Boolean.toString(exposureEvent.isEnabled()));
+            this.writer.write('\t');
+            this.writer.write(Long.toString(exposureEvent.getConfigVersion()));
+            this.writer.newLine();
+        }
+
+        this.writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
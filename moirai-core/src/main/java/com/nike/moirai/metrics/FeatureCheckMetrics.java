@@ -0,0 +1,23 @@
+package com.nike.moirai.metrics;
+
+/**
+ * Receives a record of each feature check decided by a {@link com.nike.moirai.ConfigFeatureFlagChecker}, for counting checks and
+ * measuring how long they take. Implementations are called on the feature-check path from many threads, so they should be thread-safe
+ * and avoid locking.
+ *
+ * @see InMemoryFeatureCheckMetrics
+ */
+@FunctionalInterface
+public interface FeatureCheckMetrics {
+    /**
+     * Metrics that ignore every check. Checkers using these do not measure the time of checks at all.
+     */
+    FeatureCheckMetrics NO_OP = (featureIdentifier, enabled, durationNanos) -> { };
+
+    /**
+     * @param featureIdentifier the identifier of the feature that was checked
+     * @param enabled whether the feature was enabled
+     * @param durationNanos how long the decision took, in nanoseconds
+     */
+    void recordCheck(String featureIdentifier, boolean enabled, long durationNanos);
+}
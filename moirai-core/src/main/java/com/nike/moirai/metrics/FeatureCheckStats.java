@@ -0,0 +1,83 @@
+package com.nike.moirai.metrics;
+
+import java.util.Objects;
+
+/**
+ * The checks recorded for one feature by an {@link InMemoryFeatureCheckMetrics}, at the time of a snapshot.
+ */
+public class FeatureCheckStats {
+    private final String featureIdentifier;
+    private final long checkCount;
+    private final long enabledCount;
+    private final LatencyHistogram.Snapshot latency;
+
+    FeatureCheckStats(String featureIdentifier, long checkCount, long enabledCount, LatencyHistogram.Snapshot latency) {
+        this.featureIdentifier = featureIdentifier;
+        this.checkCount = checkCount;
+        this.enabledCount = enabledCount;
+        this.latency = latency;
+    }
+
+    /**
+     * @return the identifier of the feature
+     */
+    public String getFeatureIdentifier() {
+        return featureIdentifier;
+    }
+
+    /**
+     * @return the number of times the feature was checked
+     */
+    public long getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * @return the number of checks for which the feature was enabled
+     */
+    public long getEnabledCount() {
+        return enabledCount;
+    }
+
+    /**
+     * @return the proportion of checks for which the feature was enabled, or 0.0 if it was never checked
+     */
+    public double getEnabledProportion() {
+        return checkCount == 0 ? 0.0 : (double) enabledCount / checkCount;
+    }
+
+    /**
+     * @return the durations of the checks
+     */
+    public LatencyHistogram.Snapshot getLatency() {
+        return latency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        FeatureCheckStats that = (FeatureCheckStats) o;
+        return checkCount == that.checkCount &&
+            enabledCount == that.enabledCount &&
+            Objects.equals(featureIdentifier, that.featureIdentifier) &&
+            Objects.equals(latency, that.latency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(featureIdentifier, checkCount, enabledCount, latency);
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureCheckStats{" +
+            "featureIdentifier='" + featureIdentifier + '\'' +
+            ", checkCount=" + checkCount +
+            ", enabledCount=" + enabledCount +
+            ", latency=" + latency +
+            '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.nike.moirai.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps counts and a {@link LatencyHistogram} for each checked feature in memory. Take a {@link #snapshot()} to export them, such as
+ * periodically to a metrics system, or to find the hottest features.
+ */
+public class InMemoryFeatureCheckMetrics implements FeatureCheckMetrics {
+    private final ConcurrentMap<String, FeatureCounters> features = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordCheck(String featureIdentifier, boolean enabled, long durationNanos) {
+        FeatureCounters counters = this.features.get(featureIdentifier);
+
+        if (counters == null) {
+            counters = this.features.computeIfAbsent(featureIdentifier, f -> new FeatureCounters());
+        }
+
+        counters.checks.increment();
+
+        if (enabled) {
+            counters.enabled.increment();
+        }
+
+        counters.latency.record(durationNanos);
+    }
+
+    /**
+     * @return the stats of every feature checked so far, by feature identifier in sorted order
+     */
+    public Map<String, FeatureCheckStats> snapshot() {
+        Map<String, FeatureCheckStats> snapshot = new TreeMap<>();
+
+        for (Map.Entry<String, FeatureCounters> entry : this.features.entrySet()) {
+            FeatureCounters counters = entry.getValue();
+            snapshot.put(entry.getKey(), new FeatureCheckStats(
+                entry.getKey(),
+                counters.checks.sum(),
+                counters.enabled.sum(),
+                counters.latency.snapshot()));
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * @param featureIdentifiers the features that are configured
+     * @return the given features that have not been checked, in sorted order
+     */
+    public Set<String> neverChecked(Collection<String> featureIdentifiers) {
+        Set<String> neverChecked = new TreeSet<>(featureIdentifiers);
+        neverChecked.removeAll(this.features.keySet());
+        return Collections.unmodifiableSet(neverChecked);
+    }
+
+    /**
+     * Removes everything recorded so far.
+     */
+    public void clear() {
+        this.features.clear();
+    }
+
+    private static final class FeatureCounters {
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder enabled = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,201 @@
+package com.nike.moirai.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations in nanoseconds, with buckets on a log-linear scale in the style of an HDR histogram. Each power of
+ * two is split into {@value #SUB_BUCKETS} equal buckets, so recorded values are reported with a relative error of at most 1/{@value #SUB_BUCKETS}
+ * over the whole range of a long, using up to {@value #BUCKET_COUNT} counters.
+ * <p>
+ * Each bucket is a {@link LongAdder}, so threads recording into the same bucket of a hot feature do not contend on one counter. Buckets
+ * are only allocated once a value is recorded in them, in groups of one power of two, so a histogram of durations that fall in a few
+ * buckets stays small.
+ * <p>
+ * Recording is lock-free. Snapshots are not atomic across buckets, so a snapshot taken while values are being recorded may count some of
+ * them in the total but not yet in a bucket, or the other way around.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int GROUP_COUNT = BUCKET_COUNT / SUB_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<LongAdder>> bucketGroups = new AtomicReferenceArray<>(GROUP_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param durationNanos a duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long durationNanos) {
+        long value = Math.max(durationNanos, 0L);
+
+        bucket(bucketIndex(value)).increment();
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    /**
+     * @return the counts recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+
+        for (int group = 0; group < GROUP_COUNT; group++) {
+            AtomicReferenceArray<LongAdder> buckets = this.bucketGroups.get(group);
+
+            if (buckets != null) {
+                for (int i = 0; i < SUB_BUCKETS; i++) {
+                    LongAdder bucket = buckets.get(i);
+                    counts[group * SUB_BUCKETS + i] = bucket != null ? bucket.sum() : 0L;
+                }
+            }
+        }
+
+        return new Snapshot(counts, this.count.sum(), this.sum.sum());
+    }
+
+    private LongAdder bucket(int index) {
+        int group = index >>> SUB_BUCKET_BITS;
+        AtomicReferenceArray<LongAdder> buckets = this.bucketGroups.get(group);
+
+        if (buckets == null) {
+            this.bucketGroups.compareAndSet(group, null, new AtomicReferenceArray<>(SUB_BUCKETS));
+            buckets = this.bucketGroups.get(group);
+        }
+
+        int subBucket = index & (SUB_BUCKETS - 1);
+        LongAdder bucket = buckets.get(subBucket);
+
+        if (bucket == null) {
+            buckets.compareAndSet(subBucket, null, new LongAdder());
+            bucket = buckets.get(subBucket);
+        }
+
+        return bucket;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+        return lowerBound + ((1L << shift) - 1);
+    }
+
+    /**
+     * The counts of a {@link LatencyHistogram} at some point in time.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(long[] counts, long count, long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        /**
+         * @return the number of recorded durations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the mean of the recorded durations in nanoseconds, or 0 if none were recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * @return the largest recorded duration in nanoseconds, rounded up to the top of its bucket, or 0 if none were recorded
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return bucketUpperBound(i);
+                }
+            }
+
+            return 0L;
+        }
+
+        /**
+         * @param percentile a percentile from 0.0 to 100.0
+         * @return the duration in nanoseconds that the given percentile of recorded durations are at or below, rounded up to the top of
+         * its bucket, or 0 if none were recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+
+            if (total == 0) {
+                return 0L;
+            }
+
+            long target = Math.max(1L, (long) Math.ceil(Math.min(Math.max(percentile, 0.0), 100.0) / 100.0 * total));
+            long seen = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+
+                if (seen >= target) {
+                    return bucketUpperBound(i);
+                }
+            }
+
+            return getMax();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            Snapshot that = (Snapshot) o;
+            return count == that.count &&
+                sum == that.sum &&
+                Arrays.equals(counts, that.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(count) + Long.hashCode(sum)) + Arrays.hashCode(counts);
+        }
+
+        @Override
+        public String toString() {
+            return "LatencyHistogram.Snapshot{" +
+                "count=" + count +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50.0) +
+                ", p99=" + getValueAtPercentile(99.0) +
+                ", max=" + getMax() +
+                '}';
+        }
+    }
+}
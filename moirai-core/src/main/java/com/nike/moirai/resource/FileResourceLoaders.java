@@ -1,6 +1,7 @@
 package com.nike.moirai.resource;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -35,6 +36,27 @@ public class FileResourceLoaders {
         return () -> loadResourceBlocking(fileStream(file), "file://" + file.getAbsolutePath());
     }
 
+    /**
+     * Supplies the contents of a resource on the classpath as bytes, for binary resources such as an
+     * {@link com.nike.moirai.segment.IdBitmap}.
+     *
+     * @param path a classpath resource path, as specified in {@link ClassLoader#getResource(String)}
+     * @return a supplier that will read the resource into a byte array when called
+     */
+    public static Supplier<byte[]> forClasspathResourceBytes(String path) {
+        return () -> loadResourceBytesBlocking(classpathFileStream(path), "classpath://" + path);
+    }
+
+    /**
+     * Supplies the contents of a file as bytes, for binary resources such as an {@link com.nike.moirai.segment.IdBitmap}.
+     *
+     * @param file the file to read
+     * @return a supplier that will read the file into a byte array when called
+     */
+    public static Supplier<byte[]> forFileBytes(File file) {
+        return () -> loadResourceBytesBlocking(fileStream(file), "file://" + file.getAbsolutePath());
+    }
+
     private static InputStream fileStream(File file) {
         try {
             return new FileInputStream(file);
@@ -64,6 +86,22 @@ public class FileResourceLoaders {
         }
     }
 
+    private static byte[] loadResourceBytesBlocking(InputStream in, String path) {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading resource from: " + path, e);
+        }
+    }
+
     private FileResourceLoaders() {
         // Prevent instantiation
     }
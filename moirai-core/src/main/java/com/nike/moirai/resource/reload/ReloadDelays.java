@@ -0,0 +1,36 @@
+package com.nike.moirai.resource.reload;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ReloadDelays {
+    /**
+     * @return the base doubled the given number of times, but no more than the max, and no less than the base
+     */
+    static Duration doubled(Duration base, int times, Duration max) {
+        if (base.isZero() || base.isNegative()) {
+            return base;
+        }
+
+        Duration cap = max.compareTo(base) > 0 ? max : base;
+        Duration delay = base;
+
+        for (int i = 0; i < times && delay.compareTo(cap) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+
+        return delay.compareTo(cap) < 0 ? delay : cap;
+    }
+
+    /**
+     * @return a random delay between delay * (1 - jitter) and delay * (1 + jitter)
+     */
+    static Duration jittered(Duration delay, double jitter) {
+        double factor = 1.0 + jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0);
+        return Duration.ofNanos((long) (delay.toNanos() * factor));
+    }
+
+    private ReloadDelays() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,75 @@
+package com.nike.moirai.resource.reload;
+
+import java.util.Objects;
+
+/**
+ * The recent results of reloading a resource, used by a {@link ReloadPolicy} to pick the delay before the next reload.
+ * <p>
+ * A reload is unchanged when the loader returned the same instance as the current value, such as a loader chained with
+ * {@link com.nike.moirai.Suppliers#futureSupplierAndThenOnChange}.
+ */
+public final class ReloadHistory {
+    static final ReloadHistory INITIAL = new ReloadHistory(0, 0);
+
+    private final int consecutiveFailures;
+    private final int consecutiveUnchanged;
+
+    ReloadHistory(int consecutiveFailures, int consecutiveUnchanged) {
+        this.consecutiveFailures = consecutiveFailures;
+        this.consecutiveUnchanged = consecutiveUnchanged;
+    }
+
+    ReloadHistory failed() {
+        return new ReloadHistory(saturatedIncrement(consecutiveFailures), consecutiveUnchanged);
+    }
+
+    ReloadHistory loaded(boolean changed) {
+        return new ReloadHistory(0, changed ? 0 : saturatedIncrement(consecutiveUnchanged));
+    }
+
+    private static int saturatedIncrement(int count) {
+        return count == Integer.MAX_VALUE ? count : count + 1;
+    }
+
+    /**
+     * @return the number of reloads that have failed or timed out in a row; 0 if the last reload succeeded
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return the number of successful reloads in a row that returned the current value; 0 right after the value changed
+     */
+    public int getConsecutiveUnchanged() {
+        return consecutiveUnchanged;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ReloadHistory that = (ReloadHistory) o;
+        return consecutiveFailures == that.consecutiveFailures &&
+            consecutiveUnchanged == that.consecutiveUnchanged;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(consecutiveFailures, consecutiveUnchanged);
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadHistory{" +
+            "consecutiveFailures=" + consecutiveFailures +
+            ", consecutiveUnchanged=" + consecutiveUnchanged +
+            '}';
+    }
+}
@@ -0,0 +1,150 @@
+package com.nike.moirai.resource.reload;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The built-in {@link ReloadPolicy} implementations. Unlike lambdas, they are equal when built from equal arguments, so that
+ * {@link ResourceReloadSettings} using them are equal too.
+ */
+final class ReloadPolicies {
+    static final class Fixed implements ReloadPolicy {
+        static final Fixed INSTANCE = new Fixed();
+
+        private Fixed() {
+        }
+
+        @Override
+        public Duration nextDelay(Duration reloadFrequency, ReloadHistory reloadHistory) {
+            return reloadFrequency;
+        }
+
+        @Override
+        public String toString() {
+            return "ReloadPolicy.FIXED";
+        }
+    }
+
+    static final class Adaptive implements ReloadPolicy {
+        private final Duration maxDelay;
+
+        Adaptive(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        @Override
+        public Duration nextDelay(Duration reloadFrequency, ReloadHistory reloadHistory) {
+            return ReloadDelays.doubled(reloadFrequency, reloadHistory.getConsecutiveUnchanged(), maxDelay);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Adaptive that = (Adaptive) o;
+            return Objects.equals(maxDelay, that.maxDelay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxDelay);
+        }
+
+        @Override
+        public String toString() {
+            return "ReloadPolicy.adaptive(" + maxDelay + ")";
+        }
+    }
+
+    static final class ExponentialBackoff implements ReloadPolicy {
+        private final ReloadPolicy policy;
+        private final Duration maxDelay;
+
+        ExponentialBackoff(ReloadPolicy policy, Duration maxDelay) {
+            this.policy = policy;
+            this.maxDelay = maxDelay;
+        }
+
+        @Override
+        public Duration nextDelay(Duration reloadFrequency, ReloadHistory reloadHistory) {
+            return reloadHistory.getConsecutiveFailures() > 0 ?
+                ReloadDelays.doubled(reloadFrequency, reloadHistory.getConsecutiveFailures(), maxDelay) :
+                policy.nextDelay(reloadFrequency, reloadHistory);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ExponentialBackoff that = (ExponentialBackoff) o;
+            return Objects.equals(policy, that.policy) &&
+                Objects.equals(maxDelay, that.maxDelay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(policy, maxDelay);
+        }
+
+        @Override
+        public String toString() {
+            return policy + ".withExponentialBackoff(" + maxDelay + ")";
+        }
+    }
+
+    static final class Jitter implements ReloadPolicy {
+        private final ReloadPolicy policy;
+        private final double jitter;
+
+        Jitter(ReloadPolicy policy, double jitter) {
+            this.policy = policy;
+            this.jitter = jitter;
+        }
+
+        @Override
+        public Duration nextDelay(Duration reloadFrequency, ReloadHistory reloadHistory) {
+            return ReloadDelays.jittered(policy.nextDelay(reloadFrequency, reloadHistory), jitter);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Jitter that = (Jitter) o;
+            return Double.compare(jitter, that.jitter) == 0 &&
+                Objects.equals(policy, that.policy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(policy, jitter);
+        }
+
+        @Override
+        public String toString() {
+            return policy + ".withJitter(" + jitter + ")";
+        }
+    }
+
+    private ReloadPolicies() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,66 @@
+package com.nike.moirai.resource.reload;
+
+import java.time.Duration;
+
+/**
+ * Decides how long to wait before the next reload of a resource, given its reload frequency from {@link ResourceReloadSettings} and the
+ * recent results of reloading it. Policies are shared by reloaders and must not keep state of their own.
+ * <p>
+ * The built-in policies are equal when built from equal arguments, so {@link ResourceReloadSettings} using them can be compared. A custom
+ * policy, such as a lambda, is only equal to itself unless it implements {@code equals}.
+ * <p>
+ * Policies can be combined, for example:
+ * <pre>
+ * ReloadPolicy.adaptive(Duration.ofMinutes(5)).withExponentialBackoff(Duration.ofMinutes(10)).withJitter(0.2)
+ * </pre>
+ */
+@FunctionalInterface
+public interface ReloadPolicy {
+    /**
+     * Always waits the reload frequency.
+     */
+    ReloadPolicy FIXED = ReloadPolicies.Fixed.INSTANCE;
+
+    /**
+     * Waits the reload frequency right after the value changes, and doubles the wait for each reload in a row that returns the same value,
+     * up to the given maximum. Failed reloads do not change the wait.
+     *
+     * @param maxDelay the longest to wait while the value is not changing
+     * @return an adaptive policy
+     */
+    static ReloadPolicy adaptive(Duration maxDelay) {
+        return new ReloadPolicies.Adaptive(maxDelay);
+    }
+
+    /**
+     * @param reloadFrequency the reload frequency from the {@link ResourceReloadSettings}
+     * @param reloadHistory the recent results of reloading the resource
+     * @return how long to wait before the next reload
+     */
+    Duration nextDelay(Duration reloadFrequency, ReloadHistory reloadHistory);
+
+    /**
+     * After a failed reload, waits twice the reload frequency, doubling again for each further failure in a row, up to the given maximum.
+     * Otherwise waits as decided by this policy.
+     *
+     * @param maxDelay the longest to wait after failures
+     * @return a policy that backs off after failures
+     */
+    default ReloadPolicy withExponentialBackoff(Duration maxDelay) {
+        return new ReloadPolicies.ExponentialBackoff(this, maxDelay);
+    }
+
+    /**
+     * Adds a random amount to each delay decided by this policy, so that many instances started together do not reload at the same time.
+     *
+     * @param jitter the largest fraction of the delay to add or subtract, from 0.0 to 1.0
+     * @return a policy with random jitter
+     */
+    default ReloadPolicy withJitter(double jitter) {
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("jitter must be from 0.0 to 1.0, but was " + jitter);
+        }
+
+        return new ReloadPolicies.Jitter(this, jitter);
+    }
+}
@@ -0,0 +1,122 @@
+package com.nike.moirai.resource.reload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A pool of reload threads that many {@link ResourceReloader} instances can share, so the number of threads stays the same as resources
+ * are added. Each reloader keeps its own {@link ResourceReloadSettings}, and reloads that are due at the same time run in the order they
+ * were scheduled. The threads only start loads and time them out; they never wait for a load to finish, so a small scheduler can drive
+ * many loads in flight at once.
+ * <p>
+ * Create reloaders on the scheduler with {@link ResourceReloader#withScheduler}. Shutting down the scheduler stops all of its reloaders.
+ */
+public class ReloadScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadScheduler.class);
+
+    static final class ReloadThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = delegate.newThread(r);
+            thread.setDaemon(true);
+            thread.setName("ReloadableResourceMoiraiThread-" + thread.getName());
+
+            return thread;
+        }
+    }
+
+    /**
+     * Creates a scheduler with the given number of threads. A shutdown-hook is added to stop the scheduler.
+     *
+     * @param threadCount the number of threads for running reloads
+     * @return a reload scheduler
+     */
+    public static ReloadScheduler withThreads(int threadCount) {
+        ReloadScheduler scheduler = new ReloadScheduler(threadCount);
+        Runtime.getRuntime().addShutdownHook(new Thread(scheduler::shutdown));
+
+        return scheduler;
+    }
+
+    /**
+     * Creates a scheduler with the given number of threads, which runs until {@link #shutdown()} is called.
+     *
+     * @param threadCount the number of threads for running reloads
+     * @return a reload scheduler
+     */
+    public static ReloadScheduler withThreadsAndManualLifecycle(int threadCount) {
+        return new ReloadScheduler(threadCount);
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private ReloadScheduler(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1, but was " + threadCount);
+        }
+
+        this.executor = new ScheduledThreadPoolExecutor(threadCount, new ReloadThreadFactory());
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        if (this.executor.isShutdown()) {
+            return null;
+        }
+
+        try {
+            return this.executor.schedule(task, delay.toMillis(), MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Not scheduling task because the scheduler is shut down");
+            return null;
+        }
+    }
+
+    /**
+     * Completes the future with a {@link TimeoutException} if it is not done within the timeout, using a timer rather than a waiting thread.
+     */
+    void failAfter(CompletableFuture<?> future, Duration timeout) {
+        ScheduledFuture<?> timer = schedule(
+            () -> future.completeExceptionally(new TimeoutException("Resource load did not complete within " + timeout)),
+            timeout);
+
+        if (timer != null) {
+            future.whenComplete((value, throwable) -> timer.cancel(false));
+        }
+    }
+
+    /**
+     * @return the number of threads for running reloads
+     */
+    public int getThreadCount() {
+        return this.executor.getCorePoolSize();
+    }
+
+    /**
+     * @return true if {@link #shutdown()} has been called
+     */
+    public boolean isShutdown() {
+        return this.executor.isShutdown();
+    }
+
+    /**
+     * Stops scheduling reloads for every reloader using this scheduler. Reloads that are already running are allowed to finish.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
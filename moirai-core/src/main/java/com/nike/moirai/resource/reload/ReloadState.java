@@ -0,0 +1,26 @@
+package com.nike.moirai.resource.reload;
+
+/**
+ * The state of a {@link ResourceReloader}, for use in health and readiness checks.
+ */
+public enum ReloadState {
+    /**
+     * No load has finished yet, so the reloader still provides its initial value.
+     */
+    INITIAL,
+
+    /**
+     * The last load succeeded.
+     */
+    LOADED,
+
+    /**
+     * The resource has loaded before, but the last load failed or timed out, so the reloader provides the last value that loaded.
+     */
+    STALE,
+
+    /**
+     * Every load so far has failed or timed out, so the reloader still provides its initial value.
+     */
+    FAILED
+}
@@ -4,20 +4,34 @@ import java.time.Duration;
 import java.util.Objects;
 
 /**
- * Settings for reloading a resource.
+ * Settings for reloading a resource. Settings are equal when their durations and reload policies are equal; see {@link ReloadPolicy} for
+ * when policies are equal.
  */
 public class ResourceReloadSettings {
 
     private final Duration reloadFrequency;
     private final Duration resourceLoadTimeout;
+    private final ReloadPolicy reloadPolicy;
 
     /**
+     * Reloads at a fixed frequency.
+     *
      * @param reloadFrequency the duration between calls to load the resource
      * @param resourceLoadTimeout the duration to wait for loading the resource to return
      */
     public ResourceReloadSettings(Duration reloadFrequency, Duration resourceLoadTimeout) {
+        this(reloadFrequency, resourceLoadTimeout, ReloadPolicy.FIXED);
+    }
+
+    /**
+     * @param reloadFrequency the base duration between calls to load the resource, adjusted by the reload policy
+     * @param resourceLoadTimeout the duration to wait for loading the resource to return
+     * @param reloadPolicy the policy for the duration between calls to load the resource, such as to add jitter or back off after failures
+     */
+    public ResourceReloadSettings(Duration reloadFrequency, Duration resourceLoadTimeout, ReloadPolicy reloadPolicy) {
         this.reloadFrequency = reloadFrequency;
         this.resourceLoadTimeout = resourceLoadTimeout;
+        this.reloadPolicy = Objects.requireNonNull(reloadPolicy, "reloadPolicy");
     }
 
     /**
@@ -34,6 +48,13 @@ public class ResourceReloadSettings {
         return resourceLoadTimeout;
     }
 
+    /**
+     * @return the policy for the duration between requests to load the resource
+     */
+    public ReloadPolicy getReloadPolicy() {
+        return reloadPolicy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -46,12 +67,13 @@ public class ResourceReloadSettings {
 
         ResourceReloadSettings that = (ResourceReloadSettings) o;
         return Objects.equals(reloadFrequency, that.reloadFrequency) &&
-            Objects.equals(resourceLoadTimeout, that.resourceLoadTimeout);
+            Objects.equals(resourceLoadTimeout, that.resourceLoadTimeout) &&
+            Objects.equals(reloadPolicy, that.reloadPolicy);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(reloadFrequency, resourceLoadTimeout);
+        return Objects.hash(reloadFrequency, resourceLoadTimeout, reloadPolicy);
     }
 
     @Override
@@ -59,6 +81,7 @@ public class ResourceReloadSettings {
         return "ResourceReloadSettings{" +
             "reloadFrequency=" + reloadFrequency +
             ", resourceLoadTimeout=" + resourceLoadTimeout +
+            ", reloadPolicy=" + reloadPolicy +
             '}';
     }
 }
@@ -6,46 +6,40 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static java.time.temporal.ChronoUnit.SECONDS;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Given a supplier of some object, transparently reloads and replaces that object in the background.
  *
- * Uses a {@link ScheduledExecutorService} to periodically reload the resource. Uses a timeout for the calls for loading the resource.
- * Schedules the next reload after getting the success, failure, or timeout result for loading a resource, so there should not be overlapping resource requests
- * happening at the same time.
+ * Uses a {@link ReloadScheduler} to periodically reload the resource, either its own single-thread scheduler or one shared with other
+ * reloaders. Uses a timeout for the calls for loading the resource, applied with a timer so that no thread waits on a load. A load that
+ * times out has the future returned by the resource loader completed with a {@link TimeoutException}; loaders composed with
+ * {@link com.nike.moirai.Suppliers} pass that on by cancelling the future they were built from, such as an HTTP request. Always schedules the next reload after getting the success, failure, or timeout result for loading a resource,
+ * so there should not be overlapping resource requests happening at the same time. The delay before each reload is decided by the
+ * {@link ReloadPolicy} of the settings.
+ *
+ * Use {@link #getState()} for health checks, and {@link #awaitInitialLoad(Duration)} or {@link #getInitialLoad()} to wait until the resource has
+ * loaded before taking traffic.
+ *
+ * A loaded value that is the same instance as the current value is not published again. Chain expensive steps with
+ * {@link com.nike.moirai.Suppliers#futureSupplierAndThenOnChange} so that an unchanged resource yields the same instance.
  *
  * @param <R> the type of object returned by the resource loader to provide and reload
  */
 public class ResourceReloader<R> {
-    private static final class ResourceReloaderThreadFactory implements ThreadFactory {
-        private final ThreadFactory delegate = Executors.defaultThreadFactory();
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread thread = delegate.newThread(r);
-            thread.setDaemon(true);
-            thread.setName("ReloadableResourceMoiraiThread-" + thread.getName());
-
-            return thread;
-        }
-    }
-
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourceReloader.class);
 
     /**
-     * Given an asynchronous supplier of some resource and an initial value, will reload the resource once per minute. Each resource load attempt should
-     * complete in less than 30 seconds, otherwise a new attempt to load the resource will be scheduled. The reloading schedule will be started immediately, and
-     * a shutdown-hook is added to stop the executor service.
+     * Given an asynchronous supplier of some resource and an initial value, will load the resource right away and then reload it once per minute. Each
+     * resource load attempt should complete in less than 30 seconds, otherwise a new attempt to load the resource will be scheduled. A shutdown-hook is added
+     * to stop the executor service. Use {@link #awaitInitialLoad(Duration)} to wait for the first load.
      *
      * @param resourceLoader supplier that will be called for each attempt to load the resource
      * @param initialValue an initial value to use before the first successful reload of the resource
@@ -60,6 +54,9 @@ public class ResourceReloader<R> {
             resourceLoader,
             initialValue,
             new ResourceReloadSettings(Duration.of(1, MINUTES), Duration.of(30, SECONDS)),
+            ReloadScheduler.withThreadsAndManualLifecycle(1),
+            true,
+            true,
             true);
     }
 
@@ -83,13 +80,44 @@ public class ResourceReloader<R> {
             resourceLoader,
             initialValue,
             resourceReloadSettings,
+            ReloadScheduler.withThreadsAndManualLifecycle(1),
+            true,
+            true,
+            false);
+    }
+
+    /**
+     * Given an asynchronous supplier of some resource and an initial value, will load the resource right away and then reload it based on the given
+     * ResourceReloadSettings. Each resource load attempt should complete in the provided timeout specified by the ResourceReloadSettings, otherwise a new
+     * attempt to load the resource will be scheduled. A shutdown-hook is added to stop the executor service. Use {@link #awaitInitialLoad(Duration)} to wait
+     * for the first load.
+     *
+     * @param resourceLoader supplier that will be called for each attempt to load the resource
+     * @param initialValue an initial value to use before the first successful load of the resource
+     * @param resourceReloadSettings custom settings for how to reload the resource
+     * @param <R> the type of resource
+     * @return a resource reloader
+     */
+    public static <R> ResourceReloader<R> withCustomSettingsAndEagerLoad(
+        Supplier<CompletableFuture<R>> resourceLoader,
+        R initialValue,
+        ResourceReloadSettings resourceReloadSettings) {
+
+        return new ResourceReloader<>(
+            resourceLoader,
+            initialValue,
+            resourceReloadSettings,
+            ReloadScheduler.withThreadsAndManualLifecycle(1),
+            true,
+            true,
             true);
     }
 
     /**
      * Given an asynchronous supplier of some resource and an initial value, will reload the resource based on the given ResourceReloadSettings.
      * Each resource load attempt should complete in the provided timeout specified by the ResourceReloadSettings, otherwise a new attempt to load the resource
-     * will be scheduled. The reloading process will be started when {@link #init()} is called, and stopped when {@link #shutdown()} is called.
+     * will be scheduled. The reloading process will be started when {@link #init()} or {@link #initWithEagerLoad()} is called, and stopped when
+     * {@link #shutdown()} is called.
      *
      * @param resourceLoader supplier that will be called for each attempt to load the resource
      * @param initialValue an initial value to use before the first successful reload of the resource
@@ -106,57 +134,154 @@ public class ResourceReloader<R> {
             resourceLoader,
             initialValue,
             resourceReloadSettings,
+            ReloadScheduler.withThreadsAndManualLifecycle(1),
+            true,
+            false,
             false);
     }
 
+    /**
+     * Given an asynchronous supplier of some resource and an initial value, will reload the resource based on the given ResourceReloadSettings
+     * using a {@link ReloadScheduler} shared with other reloaders. The resource is loaded right away, and then reloaded on schedule. No shutdown-hook is
+     * added; {@link #shutdown()} stops reloading this resource, and shutting down the scheduler stops all of its reloaders.
+     *
+     * @param reloadScheduler the scheduler to run reloads on
+     * @param resourceLoader supplier that will be called for each attempt to load the resource
+     * @param initialValue an initial value to use before the first successful reload of the resource
+     * @param resourceReloadSettings custom settings for how to reload the resource
+     * @param <R> the type of resource
+     * @return a resource reloader
+     */
+    public static <R> ResourceReloader<R> withScheduler(
+        ReloadScheduler reloadScheduler,
+        Supplier<CompletableFuture<R>> resourceLoader,
+        R initialValue,
+        ResourceReloadSettings resourceReloadSettings) {
+
+        ResourceReloader<R> resourceReloader = new ResourceReloader<>(
+            resourceLoader,
+            initialValue,
+            resourceReloadSettings,
+            reloadScheduler,
+            false,
+            false,
+            false);
+        resourceReloader.initWithEagerLoad();
+
+        return resourceReloader;
+    }
+
     private final Supplier<CompletableFuture<R>> resourceLoader;
 
     private final AtomicReference<R> valueReference;
-    private final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1, new ResourceReloaderThreadFactory());
     private final ResourceReloadSettings resourceReloadSettings;
+    private final ReloadScheduler reloadScheduler;
+    private final boolean ownsScheduler;
+    private volatile boolean stopped = false;
+    private volatile ReloadHistory reloadHistory = ReloadHistory.INITIAL;
+    private volatile ReloadState state = ReloadState.INITIAL;
+    private final CompletableFuture<R> initialLoad = new CompletableFuture<>();
 
     private ResourceReloader(
         Supplier<CompletableFuture<R>> resourceLoader,
         R initialValue,
         ResourceReloadSettings resourceReloadSettings,
-        boolean managedLifecycle) {
+        ReloadScheduler reloadScheduler,
+        boolean ownsScheduler,
+        boolean managedLifecycle,
+        boolean eagerLoad) {
 
         this.resourceLoader = resourceLoader;
         this.valueReference = new AtomicReference<R>(initialValue);
         this.resourceReloadSettings = resourceReloadSettings;
+        this.reloadScheduler = reloadScheduler;
+        this.ownsScheduler = ownsScheduler;
 
         if (managedLifecycle) {
             Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
-            init();
+
+            if (eagerLoad) {
+                initWithEagerLoad();
+            } else {
+                init();
+            }
         }
     }
 
-    private Runnable reload() {
-        return () -> {
-            R originalValue = this.valueReference.get();
+    private void reload() {
+        if (this.stopped) {
+            return;
+        }
 
-            CompletableFuture<R> resource = this.resourceLoader.get();
+        CompletableFuture<R> resource;
 
-            try {
-                R value = resource.get(this.resourceReloadSettings.getResourceLoadTimeout().toMillis(), MILLISECONDS);
+        try {
+            resource = this.resourceLoader.get();
 
-                // Only update if the original value has not changed, otherwise a cancellation or timeout may have occurred
-                boolean updated = this.valueReference.compareAndSet(originalValue, value);
-                if (updated) {
-                    scheduleReload();
+            if (resource == null) {
+                throw new NullPointerException("Resource loader returned null instead of a future");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Error loading resource", e);
+            failed();
+            scheduleReload();
+            return;
+        }
+
+        // A timed-out load is completed with a TimeoutException, which lets the next reload be scheduled
+        if (!resource.isDone()) {
+            this.reloadScheduler.failAfter(resource, this.resourceReloadSettings.getResourceLoadTimeout());
+        }
+
+        resource.whenComplete((value, throwable) -> {
+            try {
+                if (throwable != null) {
+                    LOGGER.error("Error loading resource", throwable);
+                    failed();
+                } else {
+                    // Nothing to publish when the loader returns the current instance, such as for an unchanged resource
+                    boolean changed = value != this.valueReference.get();
+                    if (changed) {
+                        this.valueReference.set(value);
+                    }
+                    this.reloadHistory = this.reloadHistory.loaded(changed);
+                    this.state = ReloadState.LOADED;
+                    this.initialLoad.complete(value);
                 }
-            } catch (ExecutionException | TimeoutException e) {
-                LOGGER.error("Error loading resource", e);
+            } finally {
                 scheduleReload();
-            } catch (InterruptedException e) {
-                // Interrupt thread and do not schedule a new reload
-                Thread.currentThread().interrupt();
             }
-        };
+        });
+    }
+
+    private void failed() {
+        this.reloadHistory = this.reloadHistory.failed();
+        this.state = this.initialLoad.isDone() ? ReloadState.STALE : ReloadState.FAILED;
     }
 
     private void scheduleReload() {
-        this.scheduledExecutorService.schedule(reload(), this.resourceReloadSettings.getReloadFrequency().toMillis(), MILLISECONDS);
+        if (!this.stopped) {
+            this.reloadScheduler.schedule(this::reload, nextDelay());
+        }
+    }
+
+    private Duration nextDelay() {
+        Duration reloadFrequency = this.resourceReloadSettings.getReloadFrequency();
+
+        try {
+            Duration delay = this.resourceReloadSettings.getReloadPolicy().nextDelay(reloadFrequency, this.reloadHistory);
+
+            if (delay != null) {
+                return delay;
+            }
+
+            LOGGER.error("Reload policy returned no delay, reloading after the reload frequency");
+        } catch (RuntimeException e) {
+            // A broken policy must not stop reloading for good
+            LOGGER.error("Error deciding the next reload delay, reloading after the reload frequency", e);
+        }
+
+        return reloadFrequency;
     }
 
     /**
@@ -166,6 +291,40 @@ public class ResourceReloader<R> {
         return this.valueReference.get();
     }
 
+    /**
+     * @return whether the resource has loaded, and whether the last load succeeded
+     */
+    public ReloadState getState() {
+        return this.state;
+    }
+
+    /**
+     * @return a future that completes with the first value that loads successfully; it does not complete while loads are failing
+     */
+    public CompletableFuture<R> getInitialLoad() {
+        // A dependent future, so that callers cannot complete the reloader's own
+        return this.initialLoad.thenApply(Function.identity());
+    }
+
+    /**
+     * Waits for the first successful load of the resource, such as before taking traffic on startup.
+     *
+     * @param timeout the longest to wait
+     * @return true if the resource has loaded, or false if it did not load within the timeout
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean awaitInitialLoad(Duration timeout) throws InterruptedException {
+        try {
+            this.initialLoad.get(timeout.toNanos(), NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // The initial load future is only ever completed with a value
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Starts schedule the reload
      */
@@ -174,9 +333,20 @@ public class ResourceReloader<R> {
     }
 
     /**
-     * Shuts down the executor service
+     * Starts the reloading with a load right away, rather than after the first reload delay
+     */
+    public void initWithEagerLoad() {
+        this.reloadScheduler.schedule(this::reload, Duration.ZERO);
+    }
+
+    /**
+     * Stops reloading the resource, and shuts down the scheduler unless it is shared with other reloaders
      */
     public void shutdown() {
-        this.scheduledExecutorService.shutdown();
+        this.stopped = true;
+
+        if (this.ownsScheduler) {
+            this.reloadScheduler.shutdown();
+        }
     }
 }
@@ -0,0 +1,378 @@
+package com.nike.moirai.segment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable, compressed set of numeric ids with primitive {@code long} lookups, in the style of a Roaring bitmap.
+ * <p>
+ * Ids are split into a high part (all but the lowest 16 bits) and a low part. For each high part present in the set, the low parts are
+ * kept in a container: a sorted array of 16-bit values while there are at most 4096 of them, or otherwise a 65536-bit bitmap. Dense ranges
+ * of ids, such as sequential account ids, take about one bit each, and sparse ids take about two bytes each, compared to dozens of bytes
+ * for a boxed id in a hash set. {@link #contains(long)} is a binary search over the high parts followed by a search of one container, and
+ * does not allocate.
+ * <p>
+ * A bitmap can be serialized with {@link #toBytes()}, and read from any byte loader, such as
+ * {@link com.nike.moirai.resource.FileResourceLoaders#forFileBytes(java.io.File)}, with {@link #fromBytes(byte[])}.
+ */
+public final class IdBitmap {
+    static final int MAGIC = 0x4D424D50;
+    static final int VERSION = 1;
+
+    private static final int ARRAY_CONTAINER = 0;
+    private static final int BITMAP_CONTAINER = 1;
+    private static final int MAX_ARRAY_CARDINALITY = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final IdBitmap EMPTY = new IdBitmap(new long[0], new Object[0], 0);
+
+    private final long[] keys;
+    private final Object[] containers;
+    private final long cardinality;
+
+    /**
+     * Builds an {@link IdBitmap}.
+     */
+    public static class Builder {
+        private long[] ids = new long[16];
+        private int size = 0;
+
+        /**
+         * @param id an id to add
+         * @return this
+         */
+        public Builder add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            ids[size++] = id;
+            return this;
+        }
+
+        /**
+         * @param ids ids to add
+         * @return this
+         */
+        public Builder addAll(Collection<? extends Number> ids) {
+            for (Number id : ids) {
+                add(id.longValue());
+            }
+
+            return this;
+        }
+
+        /**
+         * @return a new IdBitmap containing every id added
+         */
+        public IdBitmap build() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+
+            long[] keys = new long[sorted.length];
+            Object[] containers = new Object[sorted.length];
+            int containerCount = 0;
+            long cardinality = 0;
+            int start = 0;
+
+            while (start < sorted.length) {
+                long key = sorted[start] >> 16;
+                int end = start;
+
+                while (end < sorted.length && sorted[end] >> 16 == key) {
+                    end++;
+                }
+
+                char[] lows = new char[Math.min(end - start, 1 << 16)];
+                int lowCount = 0;
+
+                for (int i = start; i < end; i++) {
+                    char low = (char) sorted[i];
+
+                    if (lowCount == 0 || lows[lowCount - 1] != low) {
+                        lows[lowCount++] = low;
+                    }
+                }
+
+                keys[containerCount] = key;
+                containers[containerCount] = lowCount > MAX_ARRAY_CARDINALITY ? toBitmap(lows, lowCount) : Arrays.copyOf(lows, lowCount);
+                containerCount++;
+                cardinality += lowCount;
+                start = end;
+            }
+
+            return containerCount == 0 ? EMPTY : new IdBitmap(Arrays.copyOf(keys, containerCount), Arrays.copyOf(containers, containerCount), cardinality);
+        }
+
+        private static long[] toBitmap(char[] lows, int lowCount) {
+            long[] words = new long[BITMAP_WORDS];
+
+            for (int i = 0; i < lowCount; i++) {
+                words[lows[i] >>> 6] |= 1L << lows[i];
+            }
+
+            return words;
+        }
+    }
+
+    private IdBitmap(long[] keys, Object[] containers, long cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param ids the ids to include
+     * @return a bitmap containing the given ids
+     */
+    public static IdBitmap of(long... ids) {
+        Builder builder = new Builder();
+
+        for (long id : ids) {
+            builder.add(id);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @return a bitmap without any ids
+     */
+    public static IdBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param id the id to look up
+     * @return whether the id is in this bitmap
+     */
+    public boolean contains(long id) {
+        int index = keys.length == 1 ? (keys[0] == id >> 16 ? 0 : -1) : Arrays.binarySearch(keys, id >> 16);
+
+        if (index < 0) {
+            return false;
+        }
+
+        Object container = containers[index];
+        char low = (char) id;
+
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, low) >= 0;
+        }
+
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * Parses the id as a signed decimal long without allocating, so that ids held as strings, such as userIds, can be checked.
+     *
+     * @param id the id to look up, in decimal
+     * @return whether the id is a decimal long that is in this bitmap; false if it is not a valid long
+     */
+    public boolean containsDecimal(String id) {
+        int length = id.length();
+
+        if (length == 0) {
+            return false;
+        }
+
+        boolean negative = id.charAt(0) == '-';
+        int i = negative ? 1 : 0;
+
+        if (i == length) {
+            return false;
+        }
+
+        // Accumulate negatively, as Long.parseLong does, so that Long.MIN_VALUE can be parsed
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+
+        for (; i < length; i++) {
+            int digit = id.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                return false;
+            }
+
+            result *= 10;
+
+            if (result < limit + digit) {
+                return false;
+            }
+
+            result -= digit;
+        }
+
+        return contains(negative ? result : -result);
+    }
+
+    /**
+     * @return the number of ids in this bitmap
+     */
+    public long getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return whether this bitmap has no ids
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return the approximate number of bytes used by this bitmap's keys and containers
+     */
+    public long getSizeInBytes() {
+        long size = keys.length * 8L;
+
+        for (Object container : containers) {
+            size += container instanceof char[] ? ((char[]) container).length * 2L : BITMAP_WORDS * 8L;
+        }
+
+        return size;
+    }
+
+    /**
+     * Serializes this bitmap as:
+     * <pre>
+     * int magic ("MBMP"), int version, int container count
+     * for each container: long key, byte type (0 for an array, 1 for a bitmap), int cardinality, then either cardinality 16-bit values or
+     * 1024 64-bit words
+     * </pre>
+     *
+     * @return this bitmap as bytes that can be read by {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, getSizeInBytes() + 12 + keys.length * 13L));
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keys.length);
+
+            for (int i = 0; i < keys.length; i++) {
+                out.writeLong(keys[i]);
+
+                if (containers[i] instanceof char[]) {
+                    char[] lows = (char[]) containers[i];
+                    out.writeByte(ARRAY_CONTAINER);
+                    out.writeInt(lows.length);
+
+                    for (char low : lows) {
+                        out.writeChar(low);
+                    }
+                } else {
+                    long[] words = (long[]) containers[i];
+                    out.writeByte(BITMAP_CONTAINER);
+                    out.writeInt(bitCount(words));
+
+                    for (long word : words) {
+                        out.writeLong(word);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param bytes a bitmap serialized by {@link #toBytes()}
+     * @return the bitmap
+     * @throws IllegalArgumentException if the bytes are not a valid bitmap
+     */
+    public static IdBitmap fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an id bitmap");
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported id bitmap version " + version);
+            }
+
+            int containerCount = buffer.getInt();
+            if (containerCount < 0 || containerCount > buffer.remaining() / 13) {
+                throw new IllegalArgumentException("Invalid id bitmap container count " + containerCount);
+            }
+
+            long[] keys = new long[containerCount];
+            Object[] containers = new Object[containerCount];
+            long cardinality = 0;
+
+            for (int i = 0; i < containerCount; i++) {
+                keys[i] = buffer.getLong();
+                if (i > 0 && keys[i] <= keys[i - 1]) {
+                    throw new IllegalArgumentException("Id bitmap keys are not sorted");
+                }
+
+                int type = buffer.get();
+                int containerCardinality = buffer.getInt();
+
+                if (type == ARRAY_CONTAINER && containerCardinality >= 0 && containerCardinality <= MAX_ARRAY_CARDINALITY) {
+                    char[] lows = new char[containerCardinality];
+                    buffer.asCharBuffer().get(lows);
+                    buffer.position(buffer.position() + containerCardinality * 2);
+
+                    for (int l = 1; l < lows.length; l++) {
+                        if (lows[l] <= lows[l - 1]) {
+                            throw new IllegalArgumentException("Id bitmap container values are not sorted");
+                        }
+                    }
+                    containers[i] = lows;
+                } else if (type == BITMAP_CONTAINER) {
+                    long[] words = new long[BITMAP_WORDS];
+                    buffer.asLongBuffer().get(words);
+                    buffer.position(buffer.position() + BITMAP_WORDS * 8);
+
+                    if (bitCount(words) != containerCardinality) {
+                        throw new IllegalArgumentException("Id bitmap container cardinality does not match its bits");
+                    }
+                    containers[i] = words;
+                } else {
+                    throw new IllegalArgumentException("Invalid id bitmap container type " + type + " with cardinality " + containerCardinality);
+                }
+
+                cardinality += containerCardinality;
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected bytes after id bitmap");
+            }
+
+            return containerCount == 0 ? EMPTY : new IdBitmap(keys, containers, cardinality);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated id bitmap", e);
+        }
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "IdBitmap{" +
+            "cardinality=" + cardinality +
+            ", containers=" + keys.length +
+            '}';
+    }
+}
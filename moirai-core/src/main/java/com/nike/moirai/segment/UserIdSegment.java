@@ -0,0 +1,300 @@
+package com.nike.moirai.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable set of userIds read from a segment file that is memory mapped with {@link FileChannel#map}, so that a list of millions
+ * of users does not take up any heap or need to be copied when it is loaded. Since this is a {@link java.util.Set}, it can be returned
+ * from {@link com.nike.moirai.config.EnabledUsersConfigDecider#enabledUsers} and is checked in place.
+ * <p>
+ * A segment file holds the userIds encoded as UTF-8, sorted by their bytes, with a table of offsets so that {@link #contains(Object)} is a
+ * binary search against the mapped file. The file is laid out as:
+ * <pre>
+ * int magic ("MSEG"), int version, int count, int reserved
+ * int[count + 1] offsets of each userId, relative to the start of the userIds
+ * byte[] the userIds
+ * </pre>
+ * Write segment files with {@link #write(Collection, Path)}, which replaces the file atomically. A segment that is already open keeps
+ * reading the file it mapped, so use a {@link UserIdSegmentLoader} to map the new file when it is replaced.
+ */
+public final class UserIdSegment extends AbstractSet<String> {
+    static final int MAGIC = 0x4D534547;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int dataStart;
+    private final String source;
+
+    private UserIdSegment(ByteBuffer buffer, String source) {
+        this.buffer = buffer;
+        this.source = source;
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a userId segment: " + source);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported userId segment version " + buffer.getInt(4) + ": " + source);
+        }
+
+        this.count = buffer.getInt(8);
+        long offsetsEnd = HEADER_SIZE + (count + 1L) * 4;
+
+        if (count < 0 || offsetsEnd > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated userId segment: " + source);
+        }
+
+        this.dataStart = (int) offsetsEnd;
+        validateOffsets();
+    }
+
+    /**
+     * Checks that the offsets start at 0, never go backwards, and end at the end of the file, so that every entry read by
+     * {@link #contains(Object)} is within the userIds.
+     */
+    private void validateOffsets() {
+        int dataSize = buffer.limit() - dataStart;
+
+        if (buffer.getInt(HEADER_SIZE + count * 4) != dataSize) {
+            throw new IllegalArgumentException("Truncated userId segment: " + source);
+        }
+
+        int previous = 0;
+
+        for (int index = 0; index <= count; index++) {
+            int offset = buffer.getInt(HEADER_SIZE + index * 4);
+
+            if ((index == 0 && offset != 0) || offset < previous || offset > dataSize) {
+                throw new IllegalArgumentException("Invalid offset for userId " + index + " in userId segment: " + source);
+            }
+
+            previous = offset;
+        }
+    }
+
+    /**
+     * Maps a segment file into memory. The file does not need to stay open, and can be replaced or deleted while the segment is used.
+     *
+     * @param path a segment file written by {@link #write(Collection, Path)}
+     * @return the segment
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid segment
+     */
+    public static UserIdSegment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new UserIdSegment(buffer.order(ByteOrder.BIG_ENDIAN), path.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading userId segment from: " + path, e);
+        }
+    }
+
+    /**
+     * Writes a segment file to a temporary file next to the path, then moves it into place atomically, so that a process mapping the
+     * path either sees the previous file or the complete new one.
+     *
+     * @param userIds the userIds to write; duplicates are written once
+     * @param path where to write the segment
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void write(Collection<String> userIds, Path path) {
+        List<byte[]> encoded = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            encoded.add(Objects.requireNonNull(userId, "userId").getBytes(StandardCharsets.UTF_8));
+        }
+        encoded.sort(UserIdSegment::compareUnsigned);
+
+        List<byte[]> unique = new ArrayList<>(encoded.size());
+        long dataSize = 0;
+        for (byte[] userId : encoded) {
+            if (unique.isEmpty() || compareUnsigned(unique.get(unique.size() - 1), userId) != 0) {
+                unique.add(userId);
+                dataSize += userId.length;
+            }
+        }
+
+        long fileSize = HEADER_SIZE + (unique.size() + 1) * 4L + dataSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many userIds for one segment: " + fileSize + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(unique.size()).putInt(0);
+
+        int offset = 0;
+        for (byte[] userId : unique) {
+            buffer.putInt(offset);
+            offset += userId.length;
+        }
+        buffer.putInt(offset);
+
+        for (byte[] userId : unique) {
+            buffer.put(userId);
+        }
+        buffer.flip();
+
+        try {
+            Path absolute = path.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing userId segment to: " + path, e);
+        }
+    }
+
+    /**
+     * Binary searches the mapped userIds, encoding the userId to UTF-8 as it is compared, so that a check does not allocate.
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String) || count == 0) {
+            return false;
+        }
+
+        String key = (String) o;
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareEntry(mid, key);
+
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decodes each userId in byte order. Iterating copies the userIds onto the heap, so it is intended for tooling rather than checks.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int start = entryStart(index);
+                byte[] userId = new byte[entryStart(index + 1) - start];
+                for (int i = 0; i < userId.length; i++) {
+                    userId[i] = buffer.get(start + i);
+                }
+                index++;
+
+                return new String(userId, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    private int entryStart(int index) {
+        return dataStart + buffer.getInt(HEADER_SIZE + index * 4);
+    }
+
+    /**
+     * Compares the entry to the UTF-8 bytes of the key, encoding the key the same way as {@link String#getBytes} does.
+     */
+    private int compareEntry(int index, String key) {
+        int position = entryStart(index);
+        int end = entryStart(index + 1);
+        int keyLength = key.length();
+
+        for (int i = 0; i < keyLength; i++) {
+            char c = key.charAt(i);
+            int codePoint = c;
+
+            if (Character.isHighSurrogate(c) && i + 1 < keyLength && Character.isLowSurrogate(key.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, key.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                // An unpaired surrogate is encoded as '?'
+                codePoint = '?';
+            }
+
+            int byteCount = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            int firstByte = byteCount == 1 ? codePoint : ((0xF00 >> byteCount) & 0xFF) | (codePoint >> (6 * (byteCount - 1)));
+            int comparison = compareByte(position++, end, firstByte);
+
+            for (int shift = 6 * (byteCount - 2); comparison == 0 && shift >= 0; shift -= 6) {
+                comparison = compareByte(position++, end, 0x80 | ((codePoint >> shift) & 0x3F));
+            }
+
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return position == end ? 0 : 1;
+    }
+
+    private int compareByte(int position, int end, int keyByte) {
+        return position >= end ? -1 : (buffer.get(position) & 0xFF) - keyByte;
+    }
+
+    private static int compareUnsigned(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+
+        for (int i = 0; i < common; i++) {
+            int comparison = (a[i] & 0xFF) - (b[i] & 0xFF);
+
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return a.length - b.length;
+    }
+
+    @Override
+    public String toString() {
+        return "UserIdSegment{" +
+            "source=" + source +
+            ", size=" + count +
+            '}';
+    }
+}
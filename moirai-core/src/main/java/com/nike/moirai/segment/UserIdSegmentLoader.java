@@ -0,0 +1,92 @@
+package com.nike.moirai.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Supplies the {@link UserIdSegment} for a segment file, mapping the file again only when it has been replaced or modified. The new
+ * segment is swapped in atomically, and checks already using the previous segment keep reading the file it mapped.
+ * <p>
+ * This can be the supplier for a {@link com.nike.moirai.resource.reload.ResourceReloader}, so that a segment is remapped on the reload
+ * interval without copying the userIds.
+ */
+public class UserIdSegmentLoader implements Supplier<UserIdSegment> {
+    private final Path path;
+    private volatile Mapped mapped;
+
+    /**
+     * @param path the segment file
+     */
+    public UserIdSegmentLoader(Path path) {
+        this.path = Objects.requireNonNull(path, "path");
+    }
+
+    /**
+     * @return the segment for the current file
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid segment
+     */
+    @Override
+    public UserIdSegment get() {
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading userId segment from: " + path, e);
+        }
+
+        Mapped current = this.mapped;
+
+        if (current == null || !current.matches(attributes)) {
+            current = new Mapped(attributes, UserIdSegment.open(path));
+            this.mapped = current;
+        }
+
+        return current.segment;
+    }
+
+    /**
+     * Gets the segment mapped by the last successful call to {@link #get()}, without checking the file, so that it can be used on the
+     * feature-check path.
+     *
+     * @return the last mapped segment, or null if the segment has not been mapped yet
+     */
+    public UserIdSegment getLastMapped() {
+        Mapped current = this.mapped;
+        return current != null ? current.segment : null;
+    }
+
+    /**
+     * @return the segment file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    private static final class Mapped {
+        private final Object fileKey;
+        private final FileTime lastModifiedTime;
+        private final long size;
+        private final UserIdSegment segment;
+
+        private Mapped(BasicFileAttributes attributes, UserIdSegment segment) {
+            this.fileKey = attributes.fileKey();
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.segment = segment;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey()) &&
+                lastModifiedTime.equals(attributes.lastModifiedTime()) &&
+                size == attributes.size();
+        }
+    }
+}
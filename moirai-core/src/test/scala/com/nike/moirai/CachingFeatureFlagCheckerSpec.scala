@@ -0,0 +1,174 @@
+package com.nike.moirai
+
+import java.time.Instant
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.nike.moirai.exposure.ExposureEvent
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class CachingFeatureFlagCheckerSpec extends FunSpec with Matchers {
+  class Fixture(initialConfig: Map[String, Set[String]]) {
+    @volatile var config: Map[String, Set[String]] = initialConfig
+    val decisions = new AtomicInteger()
+
+    val checker: ConfigFeatureFlagChecker[Map[String, Set[String]]] = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Set[String]]](
+      () => config,
+      (configDecisionInput) => {
+        decisions.incrementAndGet()
+        configDecisionInput.getFeatureCheckInput.getUserId.map[Boolean](userId =>
+          configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, Set.empty[String]).contains(userId)
+        ).orElse(false)
+      }
+    )
+  }
+
+  val time: Instant = Instant.parse("2020-01-01T00:00:00Z")
+
+  describe("a caching checker") {
+    it("should only decide once for the same feature and input") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+
+      (1 to 5).foreach { _ =>
+        caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true
+        caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("b", time)) shouldBe false
+      }
+
+      fixture.decisions.get shouldBe 2
+      caching.getMissCount shouldBe 2
+      caching.getHitCount shouldBe 8
+      caching.size shouldBe 2
+    }
+
+    it("should drop every cached decision when the config changes") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true
+      caching.isFeatureEnabled("feature2", FeatureCheckInput.forUserAtTime("a", time)) shouldBe false
+
+      fixture.config = Map("feature2" -> Set("a"))
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe false
+      caching.isFeatureEnabled("feature2", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true
+      fixture.decisions.get shouldBe 4
+      caching.getEvictionCount shouldBe 0
+    }
+
+    it("should evict decisions beyond the maximum size") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = new CachingFeatureFlagChecker.Builder(fixture.checker).maximumSize(10).segments(1).build()
+
+      (1 to 20).foreach(i => caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime(s"user$i", time)))
+
+      caching.size shouldBe 10
+      caching.getEvictionCount shouldBe 10
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("user20", time))
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("user1", time))
+      caching.getHitCount shouldBe 1
+      caching.getMissCount shouldBe 21
+    }
+
+    it("should keep a copy of a reusable input") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+      val input = new ReusableFeatureCheckInput(DimensionSchema.empty())
+
+      caching.isFeatureEnabled("feature1", input.reset().userId("a")) shouldBe true
+      caching.isFeatureEnabled("feature1", input.reset().userId("b")) shouldBe false
+      caching.isFeatureEnabled("feature1", input.reset().userId("a")) shouldBe true
+
+      fixture.decisions.get shouldBe 2
+    }
+
+    it("should decide again for a different dateTime by default") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time))
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time.plusSeconds(1)))
+
+      fixture.decisions.get shouldBe 2
+    }
+
+    it("should get hits for inputs from forUser when ignoring the dateTime") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = new CachingFeatureFlagChecker.Builder(fixture.checker).ignoreDateTime(true).build()
+
+      (1 to 5).foreach(_ => caching.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a")) shouldBe true)
+
+      fixture.decisions.get shouldBe 1
+      caching.getHitCount shouldBe 4
+    }
+
+    it("should decide again for a different dateTime when not ignoring the dateTime") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = new CachingFeatureFlagChecker.Builder(fixture.checker).ignoreDateTime(false).build()
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time))
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time.plusSeconds(1)))
+
+      fixture.decisions.get shouldBe 2
+    }
+
+    it("should share decisions across dateTimes when ignoring the dateTime") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = new CachingFeatureFlagChecker.Builder(fixture.checker).ignoreDateTime(true).build()
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a")) shouldBe true
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a")) shouldBe true
+
+      fixture.decisions.get shouldBe 1
+    }
+
+    it("should not swap back to the replaced config for checks racing a reload") {
+      val oldConfig = Map("feature1" -> Set("a"))
+      val newConfig = Map("feature1" -> Set("b"))
+      val fixture = new Fixture(oldConfig)
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true
+      fixture.config = newConfig
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("b", time)) shouldBe true
+
+      fixture.config = oldConfig
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true
+      fixture.config = newConfig
+      caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("b", time)) shouldBe true
+
+      caching.getHitCount shouldBe 1
+      fixture.decisions.get shouldBe 3
+    }
+
+    it("should cache decisions for evaluating several features") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val caching = CachingFeatureFlagChecker.of(fixture.checker, 100)
+      val features = java.util.Arrays.asList("feature1", "feature2")
+
+      caching.evaluateAll(features, FeatureCheckInput.forUserAtTime("a", time)) shouldBe
+        caching.evaluateAll(features, FeatureCheckInput.forUserAtTime("a", time))
+
+      fixture.decisions.get shouldBe 2
+    }
+
+    it("should publish an exposure for every check, including cache hits") {
+      val fixture = new Fixture(Map("feature1" -> Set("a")))
+      val exposures = new java.util.concurrent.ConcurrentLinkedQueue[ExposureEvent]()
+      val caching = CachingFeatureFlagChecker.of(fixture.checker.withExposureListener(event => exposures.add(event)), 100)
+
+      (1 to 5).foreach(_ => caching.isFeatureEnabled("feature1", FeatureCheckInput.forUserAtTime("a", time)) shouldBe true)
+
+      fixture.decisions.get shouldBe 1
+      exposures.size shouldBe 5
+      all(exposures.asScala.map(event => (event.getFeatureIdentifier, event.getUserId, event.isEnabled))) shouldBe (("feature1", "a", true))
+    }
+
+    it("should reject a non-positive maximum size") {
+      val fixture = new Fixture(Map.empty)
+      an[IllegalArgumentException] should be thrownBy new CachingFeatureFlagChecker.Builder(fixture.checker).maximumSize(0)
+    }
+  }
+}
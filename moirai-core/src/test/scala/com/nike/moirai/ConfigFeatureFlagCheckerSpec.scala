@@ -6,6 +6,8 @@ import java.time.temporal.ChronoUnit.MILLIS
 import com.nike.moirai.resource.reload.{ResourceReloadSettings, ResourceReloader}
 import org.scalatest.{FunSpec, Matchers}
 
+import scala.collection.JavaConverters._
+
 class ConfigFeatureFlagCheckerSpec extends FunSpec with Matchers {
   describe("checker for config supplier") {
     val config = Map(
@@ -26,6 +28,42 @@ class ConfigFeatureFlagCheckerSpec extends FunSpec with Matchers {
     }
   }
 
+  describe("evaluating several features") {
+    var configReads = 0
+
+    val configFeatureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+      () => {
+        configReads += 1
+        Map("feature1" -> true, "feature2" -> false)
+      },
+      (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+    )
+
+    it("should return the result for each feature in order, reading the config once") {
+      val results = configFeatureFlagChecker.evaluateAll(java.util.Arrays.asList("feature3", "feature1", "feature2"), FeatureCheckInput.forUser("a"))
+
+      results.asScala.toSeq shouldBe Seq("feature3" -> false, "feature1" -> true, "feature2" -> false)
+      configReads shouldBe 1
+    }
+
+    it("should build the decision input once for the whole batch") {
+      // Deciders must not hold on to the input, so record what is needed while deciding
+      val decisionInputs = scala.collection.mutable.Buffer[(String, Int)]()
+      val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+        () => Map("feature1" -> true),
+        (configDecisionInput) => {
+          decisionInputs += configDecisionInput.getFeatureIdentifier -> System.identityHashCode(configDecisionInput)
+          configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+        }
+      )
+
+      checker.evaluateAll(java.util.Arrays.asList("feature1", "feature2", "feature3"), FeatureCheckInput.forUser("a")).asScala.toSeq shouldBe
+        Seq("feature1" -> true, "feature2" -> false, "feature3" -> false)
+      decisionInputs.map(_._1) shouldBe Seq("feature1", "feature2", "feature3")
+      decisionInputs.map(_._2).distinct.size shouldBe 1
+    }
+  }
+
   describe("checker for resource reloader") {
     val initialConfig = Map(
       "feature1" -> true
@@ -62,4 +100,24 @@ class ConfigFeatureFlagCheckerSpec extends FunSpec with Matchers {
       configFeatureFlagChecker.isFeatureEnabled("feature2", FeatureCheckInput.forUser("a")) shouldBe true
     }
   }
+
+  describe("finding enabled users") {
+    var configReads = 0
+
+    val configFeatureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Int]](
+      () => {
+        configReads += 1
+        Map("feature1" -> 3)
+      },
+      (configDecisionInput) => configDecisionInput.getFeatureCheckInput.getUserId.get().toInt % configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, 0) == 0
+    )
+
+    it("should return the enabled users in order, reading the config once") {
+      val userIds = (1 to 10000).map(_.toString)
+      val enabledUsers = configFeatureFlagChecker.enabledUsers("feature1", userIds.asJava.stream()).collect(java.util.stream.Collectors.toList[String]())
+
+      enabledUsers.asScala shouldBe userIds.filter(_.toInt % 3 == 0)
+      configReads shouldBe 1
+    }
+  }
 }
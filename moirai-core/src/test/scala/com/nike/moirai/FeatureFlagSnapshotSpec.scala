@@ -0,0 +1,68 @@
+package com.nike.moirai
+
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class FeatureFlagSnapshotSpec extends FunSpec with Matchers {
+  describe("a snapshot of a checker") {
+    @volatile var config = Map("feature1" -> true, "feature2" -> false)
+
+    val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+      () => config,
+      (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+    )
+
+    val snapshot = checker.snapshot()
+
+    it("should start at version 1") {
+      snapshot.getVersion shouldBe 1
+      snapshot.getConfig shouldBe config
+      checker.snapshot().getVersion shouldBe 1
+      checker.snapshot().getLoadedAt shouldBe snapshot.getLoadedAt
+    }
+
+    it("should keep deciding with its config after the config changes") {
+      config = Map("feature1" -> false, "feature2" -> true)
+
+      snapshot.isFeatureEnabled("feature1") shouldBe true
+      snapshot.isFeatureEnabled("feature2", FeatureCheckInput.forUser("a")) shouldBe false
+      snapshot.evaluateAll(Seq("feature1", "feature2").asJava, FeatureCheckInput.empty()).asScala shouldBe Map("feature1" -> true, "feature2" -> false)
+      snapshot.enabledUsers("feature1", java.util.stream.Stream.of("a", "b")).count() shouldBe 2
+      snapshot.handle("feature1").isEnabled() shouldBe true
+
+      checker.isFeatureEnabled("feature1") shouldBe false
+    }
+
+    it("should get a new version for a new config") {
+      val newSnapshot = checker.snapshot()
+
+      newSnapshot.getVersion shouldBe 2
+      newSnapshot.getLoadedAt.isBefore(snapshot.getLoadedAt) shouldBe false
+      newSnapshot.isFeatureEnabled("feature2") shouldBe true
+    }
+  }
+
+  describe("snapshots of a checker while a reload is in progress") {
+    it("should keep the version of the replaced config for checks that still see it") {
+      val oldConfig = Map("feature1" -> true)
+      val newConfig = Map("feature1" -> false)
+      @volatile var config = oldConfig
+
+      val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+        () => config,
+        (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+      )
+
+      checker.snapshot().getVersion shouldBe 1
+      config = newConfig
+      checker.snapshot().getVersion shouldBe 2
+      config = oldConfig
+      checker.snapshot().getVersion shouldBe 1
+      config = newConfig
+      checker.snapshot().getVersion shouldBe 2
+      config = Map("feature1" -> true)
+      checker.snapshot().getVersion shouldBe 3
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.nike.moirai
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Predicate
+
+import com.nike.moirai.config._
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class FeatureHandleSpec extends FunSpec with Matchers {
+  describe("a handle from a checker with a bindable decider") {
+    @volatile var config = Map("feature1" -> Set("a"))
+    val binds = new AtomicInteger()
+
+    val decider = new BindableConfigDecider[Map[String, Set[String]]] {
+      override def bind(config: Map[String, Set[String]], featureIdentifier: String): Predicate[FeatureCheckInput] = {
+        binds.incrementAndGet()
+        val userIds = config.getOrElse(featureIdentifier, Set.empty[String])
+        (featureCheckInput: FeatureCheckInput) => featureCheckInput.getUserId.map[Boolean](userId => userIds.contains(userId)).orElse(false)
+      }
+
+      override def test(configDecisionInput: ConfigDecisionInput[Map[String, Set[String]]]): Boolean =
+        bind(configDecisionInput.getConfig, configDecisionInput.getFeatureIdentifier).test(configDecisionInput.getFeatureCheckInput)
+    }
+
+    val handle = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Set[String]]](() => config, decider).handle("feature1")
+
+    it("should bind the feature once for the same config") {
+      handle.isEnabled(FeatureCheckInput.forUser("a")) shouldBe true
+      handle.isEnabled(FeatureCheckInput.forUser("b")) shouldBe false
+      handle.isEnabled() shouldBe false
+
+      binds.get shouldBe 1
+      handle.getFeatureIdentifier shouldBe "feature1"
+    }
+
+    it("should bind the feature again when the config changes") {
+      config = Map("feature1" -> Set("b"))
+
+      handle.isEnabled(FeatureCheckInput.forUser("a")) shouldBe false
+      handle.isEnabled(FeatureCheckInput.forUser("b")) shouldBe true
+
+      binds.get shouldBe 2
+    }
+  }
+
+  describe("a handle from a checker with compiled feature deciders") {
+    @volatile var config = CompiledConfig.of(Seq(
+      new CompiledFeature.Builder("feature1").enabledUserIds(Seq("a").asJava).build()
+    ).asJava)
+
+    val checker = ConfigFeatureFlagChecker.forConfigSupplier[CompiledConfig](
+      () => config,
+      CompiledFeatureDeciders.ENABLED_USERS.or(CompiledFeatureDeciders.FEATURE_ENABLED)
+    )
+    val handle = checker.handle("feature1")
+
+    it("should decide the same as the checker") {
+      Seq("a", "b").foreach { userId =>
+        handle.isEnabled(FeatureCheckInput.forUser(userId)) shouldBe checker.isFeatureEnabled("feature1", FeatureCheckInput.forUser(userId))
+      }
+    }
+
+    it("should use the new compiled feature when the config changes") {
+      config = CompiledConfig.of(Seq(new CompiledFeature.Builder("feature1").featureEnabled(true).build()).asJava)
+
+      handle.isEnabled(FeatureCheckInput.forUser("b")) shouldBe true
+    }
+  }
+
+  describe("a handle from a checker with a plain predicate") {
+    val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+      () => Map("feature1" -> true),
+      (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+    )
+
+    it("should decide using the predicate") {
+      checker.handle("feature1").isEnabled() shouldBe true
+      checker.handle("feature2").isEnabled(FeatureCheckInput.forUser("a")) shouldBe false
+    }
+  }
+
+  describe("a handle from another FeatureFlagChecker") {
+    val checker = new FeatureFlagChecker {
+      override def isFeatureEnabled(featureIdentifier: String, featureCheckInput: FeatureCheckInput): Boolean =
+        featureCheckInput.getUserId.isPresent
+
+      override def isFeatureEnabled(featureIdentifier: String): Boolean = false
+    }
+
+    it("should delegate to the checker") {
+      checker.handle("feature1").isEnabled(FeatureCheckInput.forUser("a")) shouldBe true
+      checker.handle("feature1").isEnabled() shouldBe false
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.nike.moirai
+
+import java.time.Instant
+
+import com.nike.moirai.config.{ConfigDeciders, ConfigDecisionInput, EnabledUsersConfigDecider}
+import org.scalatest.{FunSpec, Matchers}
+
+class ReusableFeatureCheckInputSpec extends FunSpec with Matchers {
+  describe("DimensionSchema") {
+    val schema = DimensionSchema.of("country", "platform")
+
+    it("should assign slots in registration order") {
+      schema.slotOf("country") shouldBe 0
+      schema.slotOf("platform") shouldBe 1
+      schema.slotOf("other") shouldBe -1
+    }
+
+    it("should error on a built-in dimension key") {
+      an [IllegalArgumentException] should be thrownBy DimensionSchema.of("country", "USER_ID")
+    }
+
+    it("should error on a duplicate key") {
+      an [IllegalArgumentException] should be thrownBy DimensionSchema.of("country", "country")
+    }
+  }
+
+  describe("ReusableFeatureCheckInput") {
+    val schema = DimensionSchema.of("country", "platform")
+    val input = new ReusableFeatureCheckInput(schema)
+    val time = Instant.ofEpochMilli(1490917936950L)
+
+    it("should provide the values it is filled with") {
+      input.userId("8675309").dateTime(time).dimension("country", "Peru").dimension(schema.slotOf("platform"), "ios")
+
+      input.getUserId.get() shouldBe "8675309"
+      input.getDateTime.get() shouldBe time
+      input.getDimension("country").get() shouldBe "Peru"
+      input.getDimension("platform").get() shouldBe "ios"
+      input.getDimension("USER_ID").get() shouldBe "8675309"
+      input.getDimension("other").isPresent shouldBe false
+    }
+
+    it("should be usable by deciders") {
+      ConfigDeciders.userIdCheck(input, _ == "8675309") shouldBe true
+      ConfigDeciders.customDimensionCheck(input, "country", _ == "Peru") shouldBe true
+    }
+
+    it("should copy to an immutable input equal to one built directly") {
+      input.builder().build() shouldBe FeatureCheckInput.forUserAtTime("8675309", time).withAdditionalDimension("country", "Peru").withAdditionalDimension("platform", "ios")
+    }
+
+    it("should be empty after being reset") {
+      input.reset()
+
+      input.getUserId.isPresent shouldBe false
+      input.getDateTime.isPresent shouldBe false
+      input.getDimension("country").isPresent shouldBe false
+      input.builder().build() shouldBe FeatureCheckInput.empty()
+    }
+
+    it("should be refilled for another check") {
+      val decider = new EnabledUsersConfigDecider[Set[String]]() {
+        import scala.collection.JavaConverters._
+        override protected def enabledUsers(config: Set[String], featureIdentifier: String): java.util.Collection[String] = config.asJava
+      }
+      val config = Set("a")
+
+      decider.test(new ConfigDecisionInput(config, "feature", input.reset().userId("a"))) shouldBe true
+      decider.test(new ConfigDecisionInput(config, "feature", input.reset().userId("b"))) shouldBe false
+    }
+
+    it("should error on a key that is not registered") {
+      an [IllegalArgumentException] should be thrownBy input.dimension("other", "value")
+    }
+  }
+}
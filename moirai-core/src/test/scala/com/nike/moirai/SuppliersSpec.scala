@@ -1,6 +1,6 @@
 package com.nike.moirai
 
-import java.util.concurrent.CompletableFuture
+import java.util.concurrent.{CompletableFuture, TimeoutException}
 
 import org.scalatest.{FunSpec, Matchers}
 
@@ -25,6 +25,74 @@ class SuppliersSpec  extends FunSpec with Matchers {
         _.length
       ).get().exceptionally(_ => 7).get() shouldBe 7
     }
+
+    it("should cancel the supplied future when the transformed future fails first") {
+      val source = new CompletableFuture[String]()
+      val transformed = Suppliers.futureSupplierAndThen[String, Int](() => source, _.length).get()
+
+      transformed.completeExceptionally(new TimeoutException())
+
+      source.isCancelled shouldBe true
+    }
+  }
+
+  describe("supplierAndThenOnChange") {
+    it("should only apply the function when the supplied value changes") {
+      var supplied = "abc"
+      var applied = 0
+      val supplier = Suppliers.supplierAndThenOnChange[String, String](() => supplied, value => {
+        applied += 1
+        value.toUpperCase
+      })
+
+      val first = supplier.get()
+      first shouldBe "ABC"
+
+      supplied = new String("abc")
+      supplier.get() should be theSameInstanceAs first
+      applied shouldBe 1
+
+      supplied = "def"
+      supplier.get() shouldBe "DEF"
+      applied shouldBe 2
+    }
+
+    it("should apply the function again after it fails") {
+      var fail = true
+      val supplier = Suppliers.supplierAndThenOnChange[String, String](() => "abc", value => {
+        if (fail) throw new RuntimeException("error")
+        value.toUpperCase
+      })
+
+      a[RuntimeException] should be thrownBy supplier.get()
+      fail = false
+      supplier.get() shouldBe "ABC"
+    }
+  }
+
+  describe("futureSupplierAndThenOnChange") {
+    it("should only apply the function when the future value changes") {
+      var applied = 0
+      val supplier = Suppliers.futureSupplierAndThenOnChange[String, Int](
+        () => CompletableFuture.completedFuture("abc"),
+        value => {
+          applied += 1
+          value.length
+        })
+
+      supplier.get().get() shouldBe 3
+      supplier.get().get() shouldBe 3
+      applied shouldBe 1
+    }
+
+    it("should cancel the supplied future when the transformed future fails first") {
+      val source = new CompletableFuture[String]()
+      val transformed = Suppliers.futureSupplierAndThenOnChange[String, Int](() => source, _.length).get()
+
+      transformed.completeExceptionally(new TimeoutException())
+
+      source.isCancelled shouldBe true
+    }
   }
 
   describe("async") {
@@ -0,0 +1,222 @@
+package com.nike.moirai.exposure
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.time.Duration
+import java.util
+import java.util.concurrent.{CopyOnWriteArrayList, CountDownLatch}
+
+import com.nike.moirai.{ConfigFeatureFlagChecker, FeatureCheckInput}
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class ExposurePipelineSpec extends FunSpec with Matchers {
+  class CollectingSink extends ExposureSink {
+    val batches = new CopyOnWriteArrayList[List[ExposureEvent]]()
+    @volatile var closed = false
+
+    override def write(exposureEvents: util.List[ExposureEvent]): Unit = batches.add(exposureEvents.asScala.toList)
+
+    override def close(): Unit = closed = true
+
+    def events: List[ExposureEvent] = batches.asScala.toList.flatten
+  }
+
+  def event(feature: String, userId: String, enabled: Boolean, timestampMillis: Long = 1000L, configVersion: Long = 1L): ExposureEvent =
+    new ExposureEvent(feature, userId, enabled, configVersion, timestampMillis)
+
+  describe("a bounded ring buffer") {
+    it("should return elements in order and refuse elements when full") {
+      val buffer = new BoundedRingBuffer[Integer](3)
+      buffer.capacity shouldBe 4
+
+      (1 to 4).foreach(i => buffer.offer(i) shouldBe true)
+      buffer.offer(5) shouldBe false
+
+      val drained = new util.ArrayList[Integer]()
+      buffer.drainTo(drained, 3) shouldBe 3
+      buffer.offer(6) shouldBe true
+      buffer.drainTo(drained, 10) shouldBe 2
+
+      drained.asScala.map(_.intValue) shouldBe Seq(1, 2, 3, 4, 6)
+    }
+
+    it("should not lose elements offered from many threads") {
+      val buffer = new BoundedRingBuffer[Integer](1 << 14)
+
+      (0 until 10000).par.foreach(i => buffer.offer(i) shouldBe true)
+
+      val drained = new util.ArrayList[Integer]()
+      buffer.drainTo(drained, Int.MaxValue)
+      drained.asScala.map(_.intValue).sorted shouldBe (0 until 10000)
+    }
+
+    it("should refuse elements once closed and report the elements left to drain") {
+      val buffer = new BoundedRingBuffer[Integer](4)
+      buffer.offer(1) shouldBe true
+      buffer.offer(2) shouldBe true
+
+      buffer.close() shouldBe 2
+      buffer.offer(3) shouldBe false
+
+      val drained = new util.ArrayList[Integer]()
+      buffer.drainTo(drained, 10) shouldBe 2
+      drained.asScala.map(_.intValue) shouldBe Seq(1, 2)
+    }
+  }
+
+  describe("an exposure pipeline") {
+    it("should write every event to the sink and close it") {
+      val sink = new CollectingSink
+      val pipeline = new ExposurePipeline.Builder(sink).batchSize(2).deduplicationWindow(Duration.ZERO).build()
+
+      (1 to 5).foreach(i => pipeline.onExposure(event("feature1", s"user$i", enabled = true)))
+      pipeline.close()
+
+      sink.events.map(_.getUserId) shouldBe (1 to 5).map(i => s"user$i")
+      all(sink.batches.asScala.map(_.size)) should be <= 2
+      sink.closed shouldBe true
+      pipeline.getWrittenCount shouldBe 5
+    }
+
+    it("should skip repeat exposures within the deduplication window") {
+      val sink = new CollectingSink
+      val pipeline = new ExposurePipeline.Builder(sink).deduplicationWindow(Duration.ofSeconds(10)).build()
+
+      pipeline.onExposure(event("feature1", "a", enabled = true, 1000L))
+      pipeline.onExposure(event("feature1", "a", enabled = true, 2000L))
+      pipeline.onExposure(event("feature1", "a", enabled = false, 3000L))
+      pipeline.onExposure(event("feature2", "a", enabled = true, 4000L))
+      pipeline.onExposure(event("feature1", "a", enabled = true, 12000L))
+      pipeline.close()
+
+      sink.events.map(e => (e.getFeatureIdentifier, e.isEnabled, e.getTimestampMillis)) shouldBe List(
+        ("feature1", true, 1000L),
+        ("feature1", false, 3000L),
+        ("feature2", true, 4000L),
+        ("feature1", true, 12000L)
+      )
+      pipeline.getDuplicateCount shouldBe 1
+    }
+
+    it("should write an exposure again for a new config version") {
+      val sink = new CollectingSink
+      val pipeline = new ExposurePipeline.Builder(sink).deduplicationWindow(Duration.ofSeconds(10)).build()
+
+      pipeline.onExposure(event("feature1", "a", enabled = true, 1000L, configVersion = 1L))
+      pipeline.onExposure(event("feature1", "a", enabled = true, 2000L, configVersion = 2L))
+      pipeline.onExposure(event("feature1", "a", enabled = true, 3000L, configVersion = 2L))
+      pipeline.close()
+
+      sink.events.map(_.getConfigVersion) shouldBe List(1L, 2L)
+      pipeline.getDuplicateCount shouldBe 1
+    }
+
+    it("should only remember up to the deduplication capacity") {
+      val sink = new CollectingSink
+      val pipeline = new ExposurePipeline.Builder(sink).deduplicationWindow(Duration.ofSeconds(10)).deduplicationCapacity(2).build()
+
+      Seq("a", "b", "c", "a", "c").foreach(userId => pipeline.onExposure(event("feature1", userId, enabled = true)))
+      pipeline.close()
+
+      sink.events.map(_.getUserId) shouldBe List("a", "b", "c", "a")
+      pipeline.getDuplicateCount shouldBe 1
+    }
+
+    it("should account for every event published while closing") {
+      val sink = new CollectingSink
+      val pipeline = new ExposurePipeline.Builder(sink).capacity(1 << 16).deduplicationWindow(Duration.ZERO).build()
+      val started = new CountDownLatch(4)
+
+      val producers = (1 to 4).map(t => new Thread(() => {
+        started.countDown()
+        (1 to 10000).foreach(i => pipeline.onExposure(event("feature1", s"user$t-$i", enabled = true)))
+      }))
+      producers.foreach(_.start())
+      started.await()
+      pipeline.close()
+      producers.foreach(_.join())
+
+      pipeline.getWrittenCount + pipeline.getDroppedCount shouldBe 40000
+      sink.events.size shouldBe pipeline.getWrittenCount
+    }
+
+    it("should drop events instead of blocking when the buffer is full") {
+      val writing = new CountDownLatch(1)
+      val release = new CountDownLatch(1)
+      val sink = new CollectingSink {
+        override def write(exposureEvents: util.List[ExposureEvent]): Unit = {
+          writing.countDown()
+          release.await()
+          super.write(exposureEvents)
+        }
+      }
+      val pipeline = new ExposurePipeline.Builder(sink).capacity(4).batchSize(1).deduplicationWindow(Duration.ZERO).build()
+
+      pipeline.onExposure(event("feature1", "first", enabled = true))
+      writing.await()
+      (1 to 10).foreach(i => pipeline.onExposure(event("feature1", s"user$i", enabled = true)))
+      release.countDown()
+      pipeline.close()
+
+      pipeline.getDroppedCount shouldBe 6
+      sink.events.size shouldBe 5
+    }
+
+    it("should keep going after the sink fails") {
+      val sink = new CollectingSink {
+        override def write(exposureEvents: util.List[ExposureEvent]): Unit =
+          if (exposureEvents.asScala.exists(_.getUserId == "bad")) throw new java.io.IOException("boom") else super.write(exposureEvents)
+      }
+      val pipeline = new ExposurePipeline.Builder(sink).batchSize(1).deduplicationWindow(Duration.ZERO).build()
+
+      pipeline.onExposure(event("feature1", "bad", enabled = true))
+      pipeline.onExposure(event("feature1", "good", enabled = true))
+      pipeline.close()
+
+      sink.events.map(_.getUserId) shouldBe List("good")
+      pipeline.getFailedCount shouldBe 1
+    }
+  }
+
+  describe("a file exposure sink") {
+    it("should append a tab-separated line per event") {
+      val path = Files.createTempFile("exposures", ".tsv")
+      val sink = new FileExposureSink(path)
+
+      sink.write(util.Arrays.asList(event("feature1", "a", enabled = true, 0L), event("feature2", null, enabled = false, 0L)))
+      sink.close()
+
+      Files.readAllLines(path, StandardCharsets.UTF_8).asScala shouldBe Seq(
+        "1970-01-01T00:00:00Z\tfeature1\ta\ttrue\t1",
+        "1970-01-01T00:00:00Z\tfeature2\t\tfalse\t1"
+      )
+
+      Files.delete(path)
+    }
+  }
+
+  describe("a checker with an exposure listener") {
+    it("should publish an exposure for each check with the config version") {
+      val events = new CopyOnWriteArrayList[ExposureEvent]()
+      @volatile var config = Map("feature1" -> true)
+
+      val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+        () => config,
+        (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+      ).withExposureListener(events.add(_))
+
+      checker.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a"))
+      checker.handle("feature2").isEnabled(FeatureCheckInput.forUser("b"))
+      config = Map("feature1" -> false)
+      checker.isFeatureEnabled("feature1")
+
+      events.asScala.map(e => (e.getFeatureIdentifier, e.getUserId, e.isEnabled, e.getConfigVersion)) shouldBe Seq(
+        ("feature1", "a", true, 1L),
+        ("feature2", "b", false, 1L),
+        ("feature1", null, false, 2L)
+      )
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.nike.moirai.metrics
+
+import com.nike.moirai.{ConfigFeatureFlagChecker, FeatureCheckInput}
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class InMemoryFeatureCheckMetricsSpec extends FunSpec with Matchers {
+  describe("in-memory metrics") {
+    it("should count checks and enabled checks by feature") {
+      val metrics = new InMemoryFeatureCheckMetrics()
+      metrics.recordCheck("feature1", true, 100L)
+      metrics.recordCheck("feature1", false, 200L)
+      metrics.recordCheck("feature2", false, 300L)
+
+      val snapshot = metrics.snapshot().asScala
+
+      snapshot.keys.toList shouldBe List("feature1", "feature2")
+      snapshot("feature1").getCheckCount shouldBe 2
+      snapshot("feature1").getEnabledCount shouldBe 1
+      snapshot("feature1").getEnabledProportion shouldBe 0.5
+      snapshot("feature1").getLatency.getCount shouldBe 2
+      snapshot("feature2").getEnabledProportion shouldBe 0.0
+    }
+
+    it("should find features that were never checked") {
+      val metrics = new InMemoryFeatureCheckMetrics()
+      metrics.recordCheck("feature1", true, 100L)
+
+      metrics.neverChecked(Seq("feature3", "feature1", "feature2").asJava).asScala.toList shouldBe List("feature2", "feature3")
+    }
+
+    it("should not change a snapshot after it is taken, and clear everything on clear") {
+      val metrics = new InMemoryFeatureCheckMetrics()
+      metrics.recordCheck("feature1", true, 100L)
+      val snapshot = metrics.snapshot()
+
+      metrics.recordCheck("feature1", true, 100L)
+      snapshot.get("feature1").getCheckCount shouldBe 1
+
+      metrics.clear()
+      metrics.snapshot().isEmpty shouldBe true
+    }
+
+    it("should count checks from many threads") {
+      val metrics = new InMemoryFeatureCheckMetrics()
+
+      (1 to 10000).par.foreach(i => metrics.recordCheck(s"feature${i % 4}", i % 2 == 0, i.toLong))
+
+      val snapshot = metrics.snapshot().asScala
+      snapshot.values.map(_.getCheckCount).sum shouldBe 10000
+      snapshot.values.map(_.getEnabledCount).sum shouldBe 5000
+    }
+  }
+
+  describe("a checker with metrics") {
+    val metrics = new InMemoryFeatureCheckMetrics()
+    val checker = ConfigFeatureFlagChecker.forConfigSupplier[Map[String, Boolean]](
+      () => Map("feature1" -> true),
+      (configDecisionInput) => configDecisionInput.getConfig.getOrElse(configDecisionInput.getFeatureIdentifier, false)
+    ).withMetrics(metrics)
+
+    it("should record every check") {
+      checker.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a")) shouldBe true
+      checker.isFeatureEnabled("feature2") shouldBe false
+      checker.evaluateAll(Seq("feature1", "feature2").asJava, FeatureCheckInput.empty())
+      checker.handle("feature1").isEnabled() shouldBe true
+      checker.enabledUsers("feature1", java.util.stream.Stream.of("a", "b")).count() shouldBe 2
+
+      val snapshot = metrics.snapshot().asScala
+      snapshot("feature1").getCheckCount shouldBe 5
+      snapshot("feature1").getEnabledCount shouldBe 5
+      snapshot("feature2").getCheckCount shouldBe 2
+      snapshot("feature2").getEnabledCount shouldBe 0
+    }
+  }
+}
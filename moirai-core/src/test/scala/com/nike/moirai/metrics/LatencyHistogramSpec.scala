@@ -0,0 +1,84 @@
+package com.nike.moirai.metrics
+
+import org.scalacheck.Gen
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+class LatencyHistogramSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  describe("bucketing") {
+    it("should put every value in a bucket whose upper bound is within 1/8 above it") {
+      forAll(Gen.chooseNum(0L, Long.MaxValue)) { value: Long =>
+        val index = LatencyHistogram.bucketIndex(value)
+        index should be < LatencyHistogram.BUCKET_COUNT
+
+        val upperBound = LatencyHistogram.bucketUpperBound(index)
+        upperBound should be >= value
+        (upperBound - value).toDouble should be <= value / 8.0
+      }
+    }
+
+    it("should keep small values exact") {
+      (0L to 15L).foreach { value =>
+        LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value)) shouldBe value
+      }
+    }
+  }
+
+  describe("a snapshot") {
+    it("should be empty before anything is recorded") {
+      val snapshot = new LatencyHistogram().snapshot()
+
+      snapshot.getCount shouldBe 0
+      snapshot.getMean shouldBe 0.0
+      snapshot.getMax shouldBe 0
+      snapshot.getValueAtPercentile(99.0) shouldBe 0
+    }
+
+    it("should report the count, mean and percentiles of recorded values") {
+      val histogram = new LatencyHistogram()
+      (1 to 100).foreach(i => histogram.record(i * 1000L))
+      val snapshot = histogram.snapshot()
+
+      snapshot.getCount shouldBe 100
+      snapshot.getMean shouldBe 50500.0
+      snapshot.getValueAtPercentile(50.0) shouldBe 50000L +- 6250L
+      snapshot.getValueAtPercentile(99.0) shouldBe 99000L +- 12375L
+      snapshot.getMax shouldBe 100000L +- 12500L
+      snapshot.getMax should be >= 100000L
+    }
+
+    it("should record negative durations as 0") {
+      val histogram = new LatencyHistogram()
+      histogram.record(-5L)
+
+      histogram.snapshot().getMax shouldBe 0
+    }
+  }
+
+  describe("recording from many threads") {
+    it("should count every value") {
+      val histogram = new LatencyHistogram()
+      val threads = (1 to 8).map(_ => new Thread(() => (1 to 10000).foreach(i => histogram.record(i % 100))))
+      threads.foreach(_.start())
+      threads.foreach(_.join())
+
+      histogram.snapshot().getCount shouldBe 80000
+      histogram.snapshot().getValueAtPercentile(100.0) shouldBe 99L +- 12L
+    }
+  }
+
+  describe("snapshot equality") {
+    it("should compare the recorded counts") {
+      val a = new LatencyHistogram()
+      val b = new LatencyHistogram()
+      a.record(1000L)
+      b.record(1000L)
+
+      a.snapshot() shouldBe b.snapshot()
+      a.snapshot().hashCode shouldBe b.snapshot().hashCode
+
+      b.record(5000L)
+      a.snapshot() should not be b.snapshot()
+    }
+  }
+}
@@ -16,4 +16,16 @@ class FileResourceLoadersSpec extends FunSpec with Matchers {
       FileResourceLoaders.forFile(new File("moirai-core/src/test/resources/com/nike/moirai/resource/resource.txt")).get() shouldBe "Hi! \uD83D\uDE0E"
     }
   }
+
+  describe("forClasspathResourceBytes") {
+    it("should load a classpath resource as bytes") {
+      FileResourceLoaders.forClasspathResourceBytes("com/nike/moirai/resource/resource.txt").get() shouldBe "Hi! \uD83D\uDE0E\n".getBytes("UTF-8")
+    }
+  }
+
+  describe("forFileBytes") {
+    it("should load a file as bytes") {
+      FileResourceLoaders.forFileBytes(new File("moirai-core/src/test/resources/com/nike/moirai/resource/resource.txt")).get() shouldBe "Hi! \uD83D\uDE0E\n".getBytes("UTF-8")
+    }
+  }
 }
@@ -0,0 +1,103 @@
+package com.nike.moirai.resource.reload
+
+import java.time.Duration
+import java.time.temporal.ChronoUnit.MILLIS
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.scalatest.{FunSpec, Matchers}
+
+class ReloadPolicySpec extends FunSpec with Matchers {
+  val frequency: Duration = Duration.ofSeconds(10)
+
+  def history(failures: Int, unchanged: Int) = new ReloadHistory(failures, unchanged)
+
+  describe("FIXED") {
+    it("should always wait the reload frequency") {
+      ReloadPolicy.FIXED.nextDelay(frequency, history(3, 5)) shouldBe frequency
+    }
+  }
+
+  describe("adaptive") {
+    val policy = ReloadPolicy.adaptive(Duration.ofSeconds(60))
+
+    it("should wait the reload frequency right after a change") {
+      policy.nextDelay(frequency, history(0, 0)) shouldBe frequency
+    }
+
+    it("should double the wait while the value is unchanged, up to the maximum") {
+      policy.nextDelay(frequency, history(0, 1)) shouldBe Duration.ofSeconds(20)
+      policy.nextDelay(frequency, history(0, 2)) shouldBe Duration.ofSeconds(40)
+      policy.nextDelay(frequency, history(0, 3)) shouldBe Duration.ofSeconds(60)
+      policy.nextDelay(frequency, history(0, Integer.MAX_VALUE)) shouldBe Duration.ofSeconds(60)
+    }
+  }
+
+  describe("withExponentialBackoff") {
+    val policy = ReloadPolicy.FIXED.withExponentialBackoff(Duration.ofSeconds(100))
+
+    it("should double the wait for each failure in a row, up to the maximum") {
+      policy.nextDelay(frequency, history(1, 0)) shouldBe Duration.ofSeconds(20)
+      policy.nextDelay(frequency, history(3, 0)) shouldBe Duration.ofSeconds(80)
+      policy.nextDelay(frequency, history(4, 0)) shouldBe Duration.ofSeconds(100)
+      policy.nextDelay(frequency, history(Integer.MAX_VALUE, 0)) shouldBe Duration.ofSeconds(100)
+    }
+
+    it("should wait as decided by the underlying policy when the last reload succeeded") {
+      policy.nextDelay(frequency, history(0, 0)) shouldBe frequency
+      ReloadPolicy.adaptive(Duration.ofSeconds(60)).withExponentialBackoff(Duration.ofSeconds(100)).nextDelay(frequency, history(0, 1)) shouldBe Duration.ofSeconds(20)
+    }
+
+    it("should never wait less than the reload frequency") {
+      ReloadPolicy.FIXED.withExponentialBackoff(Duration.ofSeconds(1)).nextDelay(frequency, history(2, 0)) shouldBe frequency
+      ReloadPolicy.FIXED.withExponentialBackoff(Duration.ofSeconds(1)).nextDelay(Duration.ZERO, history(2, 0)) shouldBe Duration.ZERO
+    }
+  }
+
+  describe("withJitter") {
+    it("should wait a random amount within the jitter of the delay") {
+      val policy = ReloadPolicy.FIXED.withJitter(0.2)
+      val delays = (1 to 1000).map(_ => policy.nextDelay(frequency, history(0, 0)))
+
+      all(delays.map(_.toMillis)) should (be >= 8000L and be <= 12000L)
+      delays.distinct.size should be > 1
+    }
+
+    it("should require a jitter from 0.0 to 1.0") {
+      an[IllegalArgumentException] should be thrownBy ReloadPolicy.FIXED.withJitter(-0.1)
+      an[IllegalArgumentException] should be thrownBy ReloadPolicy.FIXED.withJitter(1.5)
+    }
+  }
+
+  describe("ReloadHistory") {
+    it("should count failures and unchanged reloads in a row") {
+      val failedTwice = ReloadHistory.INITIAL.loaded(false).failed().failed()
+      failedTwice shouldBe history(2, 1)
+      failedTwice.loaded(false) shouldBe history(0, 2)
+      failedTwice.loaded(true) shouldBe history(0, 0)
+    }
+  }
+
+  describe("ResourceReloader with a backoff policy") {
+    it("should reload less often while loads fail") {
+      val loads = new AtomicInteger()
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[Int](
+        () => {
+          loads.incrementAndGet()
+          val failed = new CompletableFuture[Int]()
+          failed.completeExceptionally(new RuntimeException("error"))
+          failed
+        },
+        0,
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS), ReloadPolicy.FIXED.withExponentialBackoff(Duration.of(1000L, MILLIS)))
+      )
+
+      resourceReloader.init()
+      Thread.sleep(300)
+      resourceReloader.shutdown()
+
+      // Fixed at 10ms this would be about 30 loads; backing off, the delays are 10, 20, 40, 80, 160...
+      loads.get() should (be >= 3 and be <= 6)
+    }
+  }
+}
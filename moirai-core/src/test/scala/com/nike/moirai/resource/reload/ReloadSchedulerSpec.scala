@@ -0,0 +1,87 @@
+package com.nike.moirai.resource.reload
+
+import java.time.Duration
+import java.time.temporal.ChronoUnit.MILLIS
+import java.util.concurrent.{CompletableFuture, ConcurrentHashMap}
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+import com.nike.moirai.Suppliers
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class ReloadSchedulerSpec extends FunSpec with Matchers {
+  describe("ReloadScheduler shared by many reloaders") {
+    it("should reload every resource at its own frequency on the scheduler's threads") {
+      val scheduler = ReloadScheduler.withThreadsAndManualLifecycle(2)
+      val threads = ConcurrentHashMap.newKeySet[String]()
+      val fastLoads = new AtomicInteger()
+      val slowLoads = new AtomicInteger()
+
+      // Completes on the calling thread, so records the scheduler thread that ran the reload
+      def counting(counter: AtomicInteger): Supplier[CompletableFuture[Int]] = () => {
+        threads.add(Thread.currentThread().getName)
+        CompletableFuture.completedFuture(counter.incrementAndGet())
+      }
+
+      val fast = ResourceReloader.withScheduler(scheduler, counting(fastLoads), 0, new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS)))
+      val slow = ResourceReloader.withScheduler(scheduler, counting(slowLoads), 0, new ResourceReloadSettings(Duration.of(100L, MILLIS), Duration.of(100L, MILLIS)))
+      val others = (1 to 20).map(_ => ResourceReloader.withScheduler(scheduler, counting(new AtomicInteger()), 0, new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS))))
+
+      Thread.sleep(250)
+
+      fast.getValue should be > slow.getValue
+      slow.getValue should be >= 1
+      all(others.map(_.getValue)) should be >= 1
+      threads.size should be <= 2
+      all(threads.asScala) should startWith("ReloadableResourceMoiraiThread-")
+
+      scheduler.shutdown()
+    }
+
+    it("should stop one reloader without stopping the others") {
+      val scheduler = ReloadScheduler.withThreadsAndManualLifecycle(1)
+      val stoppedLoads = new AtomicInteger()
+      val runningLoads = new AtomicInteger()
+      val settings = new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS))
+
+      val stopped = ResourceReloader.withScheduler(scheduler, Suppliers.async[Int](() => stoppedLoads.incrementAndGet()), 0, settings)
+      ResourceReloader.withScheduler(scheduler, Suppliers.async[Int](() => runningLoads.incrementAndGet()), 0, settings)
+
+      Thread.sleep(50)
+      stopped.shutdown()
+      scheduler.isShutdown shouldBe false
+      Thread.sleep(20)
+
+      val stoppedCount = stoppedLoads.get()
+      val runningCount = runningLoads.get()
+      Thread.sleep(100)
+
+      stoppedLoads.get() shouldBe stoppedCount
+      runningLoads.get() should be > runningCount
+
+      scheduler.shutdown()
+    }
+
+    it("should stop all of its reloaders when shut down") {
+      val scheduler = ReloadScheduler.withThreadsAndManualLifecycle(1)
+      val loads = new AtomicInteger()
+      ResourceReloader.withScheduler(scheduler, Suppliers.async[Int](() => loads.incrementAndGet()), 0, new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS)))
+
+      Thread.sleep(50)
+      scheduler.shutdown()
+      Thread.sleep(20)
+      val count = loads.get()
+      Thread.sleep(100)
+
+      loads.get() shouldBe count
+      scheduler.isShutdown shouldBe true
+    }
+
+    it("should require at least one thread") {
+      an[IllegalArgumentException] should be thrownBy ReloadScheduler.withThreadsAndManualLifecycle(0)
+      ReloadScheduler.withThreadsAndManualLifecycle(3).getThreadCount shouldBe 3
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.nike.moirai.resource.reload
 
+import java.time.Duration
+
 import nl.jqno.equalsverifier.EqualsVerifier
 import org.scalatest.{FunSpec, Matchers}
 
@@ -8,5 +10,30 @@ class ResourceReloadSettingsSpec extends FunSpec with Matchers {
     it("should satisfy their contract") {
       EqualsVerifier.forClass(classOf[ResourceReloadSettings]).usingGetClass().verify()
     }
+
+    it("should be equal for equal built-in reload policies") {
+      def settings = new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30),
+        ReloadPolicy.adaptive(Duration.ofMinutes(5)).withExponentialBackoff(Duration.ofMinutes(10)).withJitter(0.2))
+
+      settings shouldBe settings
+      settings.hashCode shouldBe settings.hashCode
+      new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30)) shouldBe
+        new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30), ReloadPolicy.FIXED)
+    }
+
+    it("should not be equal for different built-in reload policies") {
+      new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30), ReloadPolicy.adaptive(Duration.ofMinutes(5))) should not be
+        new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30), ReloadPolicy.adaptive(Duration.ofMinutes(6)))
+      new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30), ReloadPolicy.FIXED.withJitter(0.1)) should not be
+        new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(30), ReloadPolicy.FIXED.withJitter(0.2))
+    }
+  }
+
+  describe("built-in ReloadPolicy equals and hashCode") {
+    it("should satisfy their contract") {
+      EqualsVerifier.forClass(classOf[ReloadPolicies.Adaptive]).usingGetClass().verify()
+      EqualsVerifier.forClass(classOf[ReloadPolicies.ExponentialBackoff]).usingGetClass().verify()
+      EqualsVerifier.forClass(classOf[ReloadPolicies.Jitter]).usingGetClass().verify()
+    }
   }
 }
@@ -2,10 +2,14 @@ package com.nike.moirai.resource.reload
 
 import java.time.Duration
 import java.time.temporal.ChronoUnit.MILLIS
+import java.util.concurrent.{CompletableFuture, ConcurrentLinkedQueue, ExecutionException, Executors, TimeUnit, TimeoutException}
+import java.util.concurrent.atomic.AtomicInteger
 
 import com.nike.moirai.Suppliers
 import org.scalatest.{FunSpec, Matchers}
 
+import scala.collection.JavaConverters._
+
 class ResourceReloaderSpec extends FunSpec with Matchers {
   describe("ResourceReloader for resource that returns an incrementing value, and sometimes throws an error or takes too long") {
     class MockSupplier() {
@@ -68,4 +72,208 @@ class ResourceReloaderSpec extends FunSpec with Matchers {
       resourceReloader.getValue shouldBe lastValue
     }
   }
+
+  describe("ResourceReloader for a resource that does not change") {
+    val parses = new AtomicInteger()
+
+    val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle(
+      Suppliers.futureSupplierAndThenOnChange[String, java.util.List[String]](
+        Suppliers.async(() => new String("a,b")),
+        content => {
+          parses.incrementAndGet()
+          java.util.Arrays.asList(content.split(","): _*)
+        }),
+      java.util.Collections.emptyList[String](),
+      new ResourceReloadSettings(Duration.of(20L, MILLIS), Duration.of(100L, MILLIS))
+    )
+
+    it("should only transform the resource once and keep publishing the same instance") {
+      resourceReloader.init()
+      Thread.sleep(100)
+      val value = resourceReloader.getValue
+      value shouldBe java.util.Arrays.asList("a", "b")
+
+      Thread.sleep(100)
+      resourceReloader.getValue should be theSameInstanceAs value
+      parses.get() shouldBe 1
+
+      resourceReloader.shutdown()
+    }
+  }
+
+  describe("ResourceReloader for a resource whose loads never complete") {
+    val loads = new ConcurrentLinkedQueue[CompletableFuture[Int]]()
+
+    val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[Int](
+      () => {
+        val load = new CompletableFuture[Int]()
+        loads.add(load)
+        load
+      },
+      -1,
+      new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(20L, MILLIS))
+    )
+
+    it("should complete each load with a TimeoutException, and keep scheduling reloads") {
+      resourceReloader.init()
+      Thread.sleep(200)
+      resourceReloader.shutdown()
+
+      loads.size should be >= 3
+      val timedOut = loads.asScala.init
+      all(timedOut.map(_.isCompletedExceptionally)) shouldBe true
+      val thrown = the[ExecutionException] thrownBy timedOut.head.get()
+      thrown.getCause shouldBe a[TimeoutException]
+      resourceReloader.getValue shouldBe -1
+    }
+  }
+
+  describe("ResourceReloader for a loader composed with Suppliers whose loads never complete") {
+    it("should cancel the future each load was built from when it times out") {
+      val sources = new ConcurrentLinkedQueue[CompletableFuture[String]]()
+
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[Int](
+        Suppliers.futureSupplierAndThen[String, Int](
+          () => {
+            val source = new CompletableFuture[String]()
+            sources.add(source)
+            source
+          },
+          _.length),
+        -1,
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(20L, MILLIS))
+      )
+
+      resourceReloader.init()
+      Thread.sleep(200)
+      resourceReloader.shutdown()
+
+      sources.size should be >= 3
+      all(sources.asScala.init.map(_.isCancelled)) shouldBe true
+    }
+  }
+
+  describe("ResourceReloader with a broken loader or reload policy") {
+    it("should keep reloading when the loader returns null") {
+      val loads = new AtomicInteger()
+
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[String](
+        () => if (loads.incrementAndGet() == 1) null else CompletableFuture.completedFuture("loaded"),
+        "initial",
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS))
+      )
+
+      resourceReloader.initWithEagerLoad()
+
+      resourceReloader.awaitInitialLoad(Duration.ofSeconds(1)) shouldBe true
+      resourceReloader.getValue shouldBe "loaded"
+
+      resourceReloader.shutdown()
+    }
+
+    it("should keep reloading after the reload frequency when the reload policy throws") {
+      val loads = new AtomicInteger()
+
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[Int](
+        () => CompletableFuture.completedFuture(loads.incrementAndGet()),
+        0,
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS), (_, _) => throw new IllegalStateException("broken policy"))
+      )
+
+      resourceReloader.initWithEagerLoad()
+      Thread.sleep(100)
+      resourceReloader.shutdown()
+
+      loads.get() should be >= 3
+    }
+  }
+
+  describe("ResourceReloader on a single scheduler thread with slow loads") {
+    it("should have many loads in flight at once") {
+      val scheduler = ReloadScheduler.withThreadsAndManualLifecycle(1)
+      val completer = Executors.newScheduledThreadPool(1)
+
+      def slowLoad(): CompletableFuture[Int] = {
+        val load = new CompletableFuture[Int]()
+        completer.schedule(new Runnable {
+          override def run(): Unit = load.complete(1)
+        }, 50, TimeUnit.MILLISECONDS)
+        load
+      }
+
+      val reloaders = (1 to 20).map(_ => ResourceReloader.withScheduler[Int](
+        scheduler,
+        () => slowLoad(),
+        0,
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(500L, MILLIS))))
+
+      Thread.sleep(200)
+
+      all(reloaders.map(_.getValue)) shouldBe 1
+
+      scheduler.shutdown()
+      completer.shutdown()
+    }
+  }
+
+  describe("ResourceReloader with an eager first load") {
+    it("should load right away rather than after the reload frequency") {
+      val resourceReloader = ResourceReloader.withCustomSettingsAndEagerLoad[String](
+        Suppliers.async(() => "loaded"),
+        "initial",
+        new ResourceReloadSettings(Duration.ofMinutes(1), Duration.ofSeconds(1))
+      )
+
+      resourceReloader.awaitInitialLoad(Duration.ofSeconds(1)) shouldBe true
+      resourceReloader.getValue shouldBe "loaded"
+      resourceReloader.getState shouldBe ReloadState.LOADED
+      resourceReloader.getInitialLoad.get() shouldBe "loaded"
+
+      resourceReloader.shutdown()
+    }
+  }
+
+  describe("ResourceReloader state") {
+    def failing[T](): CompletableFuture[T] = {
+      val failed = new CompletableFuture[T]()
+      failed.completeExceptionally(new RuntimeException("error"))
+      failed
+    }
+
+    it("should be FAILED while every load fails, and not complete the initial load") {
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[String](
+        () => failing(),
+        "initial",
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS))
+      )
+
+      resourceReloader.getState shouldBe ReloadState.INITIAL
+      resourceReloader.initWithEagerLoad()
+
+      resourceReloader.awaitInitialLoad(Duration.of(50L, MILLIS)) shouldBe false
+      resourceReloader.getState shouldBe ReloadState.FAILED
+      resourceReloader.getInitialLoad.isDone shouldBe false
+      resourceReloader.getValue shouldBe "initial"
+
+      resourceReloader.shutdown()
+    }
+
+    it("should be STALE when loads fail after the resource has loaded") {
+      val loads = new AtomicInteger()
+      val resourceReloader = ResourceReloader.withCustomSettingsAndManualLifecycle[String](
+        () => if (loads.incrementAndGet() == 1) CompletableFuture.completedFuture("loaded") else failing(),
+        "initial",
+        new ResourceReloadSettings(Duration.of(10L, MILLIS), Duration.of(100L, MILLIS))
+      )
+
+      resourceReloader.initWithEagerLoad()
+      resourceReloader.awaitInitialLoad(Duration.ofSeconds(1)) shouldBe true
+      Thread.sleep(50)
+
+      resourceReloader.getState shouldBe ReloadState.STALE
+      resourceReloader.getValue shouldBe "loaded"
+
+      resourceReloader.shutdown()
+    }
+  }
 }
@@ -0,0 +1,97 @@
+package com.nike.moirai.segment
+
+import org.scalacheck.Gen
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+class IdBitmapSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  val clusteredIds: Gen[List[Long]] = Gen.listOf(Gen.oneOf(Gen.choose(-70000L, 70000L), Gen.choose(Long.MinValue, Long.MaxValue)))
+
+  describe("IdBitmap") {
+    it("should contain exactly the added ids") {
+      forAll(clusteredIds, Gen.choose(Long.MinValue, Long.MaxValue)) { (ids: List[Long], other: Long) =>
+        val bitmap = IdBitmap.of(ids: _*)
+
+        bitmap.getCardinality shouldBe ids.distinct.size
+        ids.foreach(id => bitmap.contains(id) shouldBe true)
+        bitmap.contains(other) shouldBe ids.contains(other)
+      }
+    }
+
+    it("should switch dense containers to bitmaps") {
+      val builder = new IdBitmap.Builder()
+      (0L until 100000L by 2).foreach(builder.add)
+      val bitmap = builder.build()
+
+      bitmap.getCardinality shouldBe 50000
+      bitmap.contains(4096) shouldBe true
+      bitmap.contains(4097) shouldBe false
+      bitmap.contains(99998) shouldBe true
+      bitmap.contains(100000) shouldBe false
+      bitmap.getSizeInBytes should be < 20000L
+    }
+
+    it("should handle the extremes of long") {
+      val bitmap = IdBitmap.of(Long.MinValue, -1, 0, Long.MaxValue)
+
+      Seq(Long.MinValue, -1L, 0L, Long.MaxValue).foreach(id => bitmap.contains(id) shouldBe true)
+      Seq(Long.MinValue + 1, -2L, 1L, Long.MaxValue - 1).foreach(id => bitmap.contains(id) shouldBe false)
+    }
+
+    it("should not contain anything when empty") {
+      IdBitmap.empty().isEmpty shouldBe true
+      IdBitmap.of().contains(0) shouldBe false
+      new IdBitmap.Builder().build() should be theSameInstanceAs IdBitmap.empty()
+    }
+  }
+
+  describe("containsDecimal") {
+    val bitmap = IdBitmap.of(42, -7, Long.MinValue, Long.MaxValue)
+
+    it("should parse decimal ids the same as Long.parseLong") {
+      forAll { id: Long =>
+        bitmap.containsDecimal(id.toString) shouldBe bitmap.contains(id)
+      }
+
+      bitmap.containsDecimal("42") shouldBe true
+      bitmap.containsDecimal("-7") shouldBe true
+      bitmap.containsDecimal(Long.MinValue.toString) shouldBe true
+      bitmap.containsDecimal(Long.MaxValue.toString) shouldBe true
+    }
+
+    it("should be false for anything that is not a valid long") {
+      Seq("", "-", "4 2", "42a", "+42", "9223372036854775808", "-9223372036854775809", "99999999999999999999").foreach { id =>
+        bitmap.containsDecimal(id) shouldBe false
+      }
+    }
+  }
+
+  describe("serialization") {
+    it("should read back the bitmap it wrote") {
+      forAll(clusteredIds) { ids: List[Long] =>
+        val bitmap = IdBitmap.fromBytes(IdBitmap.of(ids: _*).toBytes)
+
+        bitmap.getCardinality shouldBe ids.distinct.size
+        ids.foreach(id => bitmap.contains(id) shouldBe true)
+      }
+    }
+
+    it("should read back bitmap containers") {
+      val builder = new IdBitmap.Builder()
+      (0L until 10000L).foreach(builder.add)
+      val bitmap = IdBitmap.fromBytes(builder.build().toBytes)
+
+      bitmap.getCardinality shouldBe 10000
+      bitmap.contains(9999) shouldBe true
+      bitmap.contains(10000) shouldBe false
+    }
+
+    it("should reject invalid bytes") {
+      val bytes = IdBitmap.of(1, 2, 3).toBytes
+
+      (the[IllegalArgumentException] thrownBy IdBitmap.fromBytes("not a bitmap".getBytes)).getMessage shouldBe "Not an id bitmap"
+      (the[IllegalArgumentException] thrownBy IdBitmap.fromBytes(bytes.take(bytes.length - 1))).getMessage shouldBe "Truncated id bitmap"
+      (the[IllegalArgumentException] thrownBy IdBitmap.fromBytes(bytes :+ 0.toByte)).getMessage shouldBe "Unexpected bytes after id bitmap"
+    }
+  }
+}
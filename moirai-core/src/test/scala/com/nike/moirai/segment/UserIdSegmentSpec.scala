@@ -0,0 +1,139 @@
+package com.nike.moirai.segment
+
+import java.io.UncheckedIOException
+import java.nio.{ByteBuffer, ByteOrder}
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path}
+import java.nio.file.attribute.FileTime
+
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class UserIdSegmentSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  def tempSegment(userIds: Seq[String]): Path = {
+    val path = Files.createTempFile("users", ".seg")
+    path.toFile.deleteOnExit()
+    UserIdSegment.write(userIds.asJava, path)
+    path
+  }
+
+  describe("UserIdSegment") {
+    it("should contain exactly the written userIds") {
+      forAll { (userIds: List[String], other: String) =>
+        val path = tempSegment(userIds)
+        val segment = UserIdSegment.open(path)
+
+        segment.size shouldBe userIds.distinct.size
+        userIds.foreach(userId => segment.contains(userId) shouldBe true)
+        segment.contains(other) shouldBe userIds.contains(other)
+        segment.asScala shouldBe userIds.toSet
+
+        Files.delete(path)
+      }
+    }
+
+    it("should compare non-ASCII userIds by their UTF-8 bytes") {
+      val segment = UserIdSegment.open(tempSegment(Seq("ü", "z", "a", "日本", "")))
+
+      segment.iterator().asScala.toList shouldBe List("", "a", "z", "ü", "日本")
+      segment.contains("日本") shouldBe true
+      segment.contains("日") shouldBe false
+    }
+
+    it("should match userIds by their UTF-8 bytes, including supplementary characters and unpaired surrogates") {
+      val userIds = Seq("a\uD83D\uDE00", "b\uD800", "c?", "\uDC00")
+      val segment = UserIdSegment.open(tempSegment(userIds))
+
+      segment.contains("a\uD83D\uDE00") shouldBe true
+      segment.contains("a\uD83D") shouldBe false
+      segment.contains("b?") shouldBe true
+      segment.contains("c\uDFFF") shouldBe true
+      segment.contains("?") shouldBe true
+      segment.contains("a") shouldBe false
+
+      forAll { other: String =>
+        val bytes = other.getBytes(StandardCharsets.UTF_8)
+        segment.contains(other) shouldBe userIds.exists(_.getBytes(StandardCharsets.UTF_8).sameElements(bytes))
+      }
+    }
+
+    it("should not contain anything when empty or for non-strings") {
+      val segment = UserIdSegment.open(tempSegment(Seq("42")))
+
+      UserIdSegment.open(tempSegment(Seq.empty)).contains("42") shouldBe false
+      segment.contains(42) shouldBe false
+      segment.contains(null) shouldBe false
+    }
+
+    it("should keep reading the mapped file after it is replaced") {
+      val path = tempSegment(Seq("a"))
+      val segment = UserIdSegment.open(path)
+
+      UserIdSegment.write(Seq("b").asJava, path)
+
+      segment.contains("a") shouldBe true
+      UserIdSegment.open(path).contains("a") shouldBe false
+    }
+
+    it("should reject files that are not segments") {
+      val path = Files.createTempFile("users", ".seg")
+      path.toFile.deleteOnExit()
+      Files.write(path, "not a segment".getBytes)
+
+      the[IllegalArgumentException] thrownBy UserIdSegment.open(path) should have message s"Not a userId segment: $path"
+    }
+
+    it("should reject truncated files") {
+      val path = tempSegment(Seq("alpha", "beta"))
+      val bytes = Files.readAllBytes(path)
+      Files.write(path, bytes.take(bytes.length - 1))
+
+      the[IllegalArgumentException] thrownBy UserIdSegment.open(path) should have message s"Truncated userId segment: $path"
+    }
+
+    it("should reject a count too large for the file") {
+      val path = tempSegment(Seq("alpha", "beta"))
+      val bytes = Files.readAllBytes(path)
+      ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN).putInt(8, Int.MaxValue)
+      Files.write(path, bytes)
+
+      the[IllegalArgumentException] thrownBy UserIdSegment.open(path) should have message s"Truncated userId segment: $path"
+    }
+
+    it("should reject offsets outside of the userIds") {
+      val path = tempSegment(Seq("alpha", "beta"))
+      val bytes = Files.readAllBytes(path)
+      ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN).putInt(20, 1000)
+      Files.write(path, bytes)
+
+      the[IllegalArgumentException] thrownBy UserIdSegment.open(path) should have message s"Invalid offset for userId 1 in userId segment: $path"
+    }
+  }
+
+  describe("UserIdSegmentLoader") {
+    it("should reuse the segment until the file changes") {
+      val path = tempSegment(Seq("a"))
+      val loader = new UserIdSegmentLoader(path)
+      val first = loader.get()
+
+      loader.get() should be theSameInstanceAs first
+
+      UserIdSegment.write(Seq("b").asJava, path)
+      Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis + 1000))
+
+      val second = loader.get()
+      second should not be theSameInstanceAs(first)
+      second.contains("b") shouldBe true
+      first.contains("a") shouldBe true
+    }
+
+    it("should fail when the file is missing") {
+      val path = tempSegment(Seq("a"))
+      Files.delete(path)
+
+      an[UncheckedIOException] should be thrownBy new UserIdSegmentLoader(path).get()
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.nike.moirai.config
+
+import com.nike.moirai.{FeatureCheckInput, Hashing}
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+class BucketingStrategySpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  def enabled(strategy: BucketingStrategy, userId: String, hashGroup: String, proportion: Double): Boolean =
+    strategy.isEnabled(FeatureCheckInput.forUser(userId), hashGroup, strategy.hashGroupSalt(hashGroup), proportion)
+
+  def enabledCount(strategy: BucketingStrategy, hashGroup: String, proportion: Double, users: Int): Int =
+    (0 until users).count(i => enabled(strategy, s"user-$i", hashGroup, proportion))
+
+  describe("HASH_CODE_PERCENT") {
+    it("should enable the same users as hashing the concatenated userId and hash group") {
+      forAll { (userId: String, hashGroup: String) =>
+        List(0.0, 0.01, 0.33, 0.7, 1.0).foreach { proportion =>
+          enabled(BucketingStrategy.HASH_CODE_PERCENT, userId, hashGroup, proportion) shouldBe
+            (Math.abs((userId + hashGroup).hashCode) % 100) / 100.0 < proportion
+        }
+      }
+    }
+  }
+
+  describe("MURMUR3_BASIS_POINTS") {
+    it("should return a consistent answer for a user") {
+      forAll { (userId: String, hashGroup: String) =>
+        enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 0.5) shouldBe
+          enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 0.5)
+      }
+    }
+
+    it("should enable every user for 1.0 and no users for 0.0") {
+      forAll { (userId: String, hashGroup: String) =>
+        enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 1.0) shouldBe true
+        enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 0.0) shouldBe false
+      }
+    }
+
+    it("should enable close to the configured proportion of users") {
+      enabledCount(BucketingStrategy.MURMUR3_BASIS_POINTS, "feature1", 0.2, 100000) shouldBe 20000 +- 600
+      enabledCount(BucketingStrategy.MURMUR3_BASIS_POINTS, "feature2", 0.5, 100000) shouldBe 50000 +- 600
+    }
+
+    it("should support proportions finer than a percent") {
+      enabledCount(BucketingStrategy.MURMUR3_BASIS_POINTS, "feature1", 0.0025, 400000) shouldBe 1000 +- 150
+    }
+
+    it("should keep enabled users enabled as the proportion grows") {
+      forAll { (userId: String, hashGroup: String) =>
+        whenever(enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 0.3)) {
+          enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, userId, hashGroup, 0.6) shouldBe true
+        }
+      }
+    }
+
+    it("should bucket users independently for different hash groups") {
+      val users = 0 until 20000
+      val group1 = users.filter(i => enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, s"user-$i", "group1", 0.5)).toSet
+      val both = users.count(i => group1.contains(i) && enabled(BucketingStrategy.MURMUR3_BASIS_POINTS, s"user-$i", "group2", 0.5))
+
+      both shouldBe 5000 +- 300
+    }
+  }
+
+  describe("Hashing.murmur3") {
+    it("should match the first 64 bits of MurmurHash3 x64 128 of the UTF-16 characters") {
+      Hashing.murmur3("8675309") shouldBe -5783071609098585481L
+      Hashing.murmur3("abcdefghi") shouldBe 1929419699232638766L
+    }
+  }
+}
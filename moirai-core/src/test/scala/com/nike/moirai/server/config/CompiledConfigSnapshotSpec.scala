@@ -0,0 +1,92 @@
+package com.nike.moirai.config
+
+import java.io.UncheckedIOException
+import java.nio.ByteBuffer
+import java.nio.file.Files
+
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class CompiledConfigSnapshotSpec extends FunSpec with Matchers {
+  val config: CompiledConfig = CompiledConfig.of(Seq(
+    new CompiledFeature.Builder("feature1")
+      .enabledUserIds(Seq("a", "b", "日本").asJava)
+      .enabledProportion(0.25)
+      .featureGroup("group1")
+      .enabledValues("enabledCountries", Seq("PE", "US").asJava)
+      .enabledValues("enabledAccounts", Seq(Long.box(7L), Int.box(8), Double.box(9.5), Boolean.box(true)).asJava)
+      .build(),
+    new CompiledFeature.Builder("feature2")
+      .featureEnabled(true)
+      .rule(FeatureRule.parse("users OR proportion 0.5", BucketingStrategy.MURMUR3_BASIS_POINTS))
+      .build(),
+    new CompiledFeature.Builder("").build()
+  ).asJava)
+
+  describe("CompiledConfigSnapshot") {
+    it("should read back the config it wrote") {
+      val read = CompiledConfigSnapshot.FROM_BYTES.apply(CompiledConfigSnapshot.toBytes(config))
+
+      read shouldBe config
+      read.getFeature("feature1").getEnabledValues("enabledAccounts").asScala shouldBe Set(7L, 8, 9.5, true)
+      read.getFeature("feature2").getRule.get.getBucketingStrategy shouldBe BucketingStrategy.MURMUR3_BASIS_POINTS
+    }
+
+    it("should read an empty config") {
+      CompiledConfigSnapshot.FROM_BYTES.apply(CompiledConfigSnapshot.toBytes(CompiledConfig.empty())) shouldBe CompiledConfig.empty()
+    }
+
+    it("should read from a position within a buffer") {
+      val bytes = CompiledConfigSnapshot.toBytes(config)
+      val buffer = ByteBuffer.allocate(bytes.length + 3)
+      buffer.position(3)
+      buffer.put(bytes)
+      buffer.position(3)
+
+      CompiledConfigSnapshot.fromBuffer(buffer) shouldBe config
+    }
+
+    it("should write and map a snapshot file") {
+      val path = Files.createTempFile("moirai", ".snapshot")
+      path.toFile.deleteOnExit()
+
+      CompiledConfigSnapshot.write(config, path)
+
+      CompiledConfigSnapshot.read(path) shouldBe config
+    }
+
+    it("should fail to read a missing file") {
+      val path = Files.createTempFile("moirai", ".snapshot")
+      Files.delete(path)
+
+      an[UncheckedIOException] should be thrownBy CompiledConfigSnapshot.read(path)
+    }
+
+    it("should reject bytes that are not a valid snapshot") {
+      val bytes = CompiledConfigSnapshot.toBytes(config)
+      val corrupted = bytes.clone()
+      corrupted(bytes.length - 5) = (corrupted(bytes.length - 5) ^ 1).toByte
+      val newerVersion = bytes.clone()
+      newerVersion(7) = 2
+
+      def message(bytes: Array[Byte]): String =
+        (the[IllegalArgumentException] thrownBy CompiledConfigSnapshot.FROM_BYTES.apply(bytes)).getMessage
+
+      message("not a snapshot".getBytes) shouldBe "Not a config snapshot"
+      message(newerVersion) shouldBe "Unsupported config snapshot version 2"
+      message(corrupted) shouldBe "Config snapshot checksum does not match"
+      message(bytes.take(bytes.length - 1)) should startWith("Config snapshot body is")
+      message(bytes.take(10)) shouldBe "Truncated config snapshot"
+    }
+
+    it("should reject enabled values it cannot write") {
+      val unsupported = CompiledConfig.of(Seq(
+        new CompiledFeature.Builder("feature1").enabledValues("enabledDates", Seq(java.time.LocalDate.of(2020, 1, 1)).asJava).build()
+      ).asJava)
+
+      the[IllegalArgumentException] thrownBy CompiledConfigSnapshot.toBytes(unsupported) should have message
+        "Cannot write enabled value of type java.time.LocalDate for feature 'feature1' to a config snapshot"
+    }
+  }
+}
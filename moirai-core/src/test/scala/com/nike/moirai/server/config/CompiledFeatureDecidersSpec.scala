@@ -0,0 +1,104 @@
+package com.nike.moirai.config
+
+import com.nike.moirai.FeatureCheckInput
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class CompiledFeatureDecidersSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  val config: CompiledConfig = CompiledConfig.of(Seq(
+    new CompiledFeature.Builder("feature1").enabledUserIds(Seq("a", "b").asJava).enabledProportion(0.0).build(),
+    new CompiledFeature.Builder("feature2").enabledProportion(1.0).build(),
+    new CompiledFeature.Builder("feature3").enabledProportion(0.7).featureGroup("group1").build(),
+    new CompiledFeature.Builder("feature4").featureEnabled(true).enabledValues("enabledCountries", Seq("Peru").asJava).build()
+  ).asJava)
+
+  def check(decider: CompiledFeatureDecider, feature: String, input: FeatureCheckInput): Boolean =
+    decider.test(new ConfigDecisionInput(config, feature, input))
+
+  describe("ENABLED_USERS") {
+    it("should return true for enabled users") {
+      check(CompiledFeatureDeciders.ENABLED_USERS, "feature1", FeatureCheckInput.forUser("a")) shouldBe true
+      check(CompiledFeatureDeciders.ENABLED_USERS, "feature1", FeatureCheckInput.forUser("b")) shouldBe true
+    }
+
+    it("should return false for any other user") {
+      forAll { userId: String =>
+        whenever(userId != "a" && userId != "b") {
+          check(CompiledFeatureDeciders.ENABLED_USERS, "feature1", FeatureCheckInput.forUser(userId)) shouldBe false
+        }
+      }
+    }
+
+    it("should return false without a user") {
+      check(CompiledFeatureDeciders.ENABLED_USERS, "feature1", FeatureCheckInput.empty()) shouldBe false
+    }
+  }
+
+  describe("PROPORTION_OF_USERS") {
+    it("should return false for any user for a proportion of 0.0") {
+      forAll { userId: String =>
+        check(CompiledFeatureDeciders.PROPORTION_OF_USERS, "feature1", FeatureCheckInput.forUser(userId)) shouldBe false
+      }
+    }
+
+    it("should return true for any user for a proportion of 1.0") {
+      forAll { userId: String =>
+        check(CompiledFeatureDeciders.PROPORTION_OF_USERS, "feature2", FeatureCheckInput.forUser(userId)) shouldBe true
+      }
+    }
+
+    it("should hash users the same way as ProportionOfUsersConfigDecider") {
+      forAll { userId: String =>
+        check(CompiledFeatureDeciders.PROPORTION_OF_USERS, "feature3", FeatureCheckInput.forUser(userId)) shouldBe
+          (Math.abs((userId + "group1").hashCode) % 100) / 100.0 < 0.7
+      }
+    }
+
+    it("should return false for a feature that is not configured") {
+      forAll { userId: String =>
+        check(CompiledFeatureDeciders.PROPORTION_OF_USERS, "feature5", FeatureCheckInput.forUser(userId)) shouldBe false
+      }
+    }
+  }
+
+  describe("FEATURE_ENABLED") {
+    it("should return the configured value") {
+      check(CompiledFeatureDeciders.FEATURE_ENABLED, "feature4", FeatureCheckInput.empty()) shouldBe true
+      check(CompiledFeatureDeciders.FEATURE_ENABLED, "feature1", FeatureCheckInput.empty()) shouldBe false
+      check(CompiledFeatureDeciders.FEATURE_ENABLED, "feature5", FeatureCheckInput.empty()) shouldBe false
+    }
+  }
+
+  describe("enabledCustomDimension") {
+    val decider = CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries")
+
+    it("should return true for an enabled value") {
+      check(decider, "feature4", FeatureCheckInput.forUser("a").withAdditionalDimension("country", "Peru")) shouldBe true
+    }
+
+    it("should return false for a value that is not enabled or of the wrong type") {
+      check(decider, "feature4", FeatureCheckInput.forUser("a").withAdditionalDimension("country", "Belgium")) shouldBe false
+      check(decider, "feature4", FeatureCheckInput.forUser("a").withAdditionalDimension("country", 8)) shouldBe false
+      check(decider, "feature4", FeatureCheckInput.forUser("a")) shouldBe false
+    }
+  }
+
+  describe("combined deciders") {
+    val decider = CompiledFeatureDeciders.ENABLED_USERS.or(CompiledFeatureDeciders.PROPORTION_OF_USERS)
+
+    it("should be enabled for users enabled by either decider") {
+      check(decider, "feature1", FeatureCheckInput.forUser("a")) shouldBe true
+      check(decider, "feature2", FeatureCheckInput.forUser("z")) shouldBe true
+      check(decider, "feature1", FeatureCheckInput.forUser("z")) shouldBe false
+    }
+
+    it("should require both deciders with and") {
+      val both = CompiledFeatureDeciders.FEATURE_ENABLED.and(CompiledFeatureDeciders.enabledCustomDimension("country", "enabledCountries"))
+      check(both, "feature4", FeatureCheckInput.empty().withAdditionalDimension("country", "Peru")) shouldBe true
+      check(both, "feature4", FeatureCheckInput.empty()) shouldBe false
+      check(both.negate(), "feature4", FeatureCheckInput.empty()) shouldBe true
+    }
+  }
+}
@@ -66,4 +66,90 @@ class EnabledUsersConfigDeciderSpec extends FunSpec with Matchers with Generator
       }
     }
   }
+
+  describe("An implementation reading from a config instance") {
+    var reads = 0
+
+    val decider = new EnabledUsersConfigDecider[Map[String, Seq[String]]]() {
+      override protected def enabledUsers(config: Map[String, Seq[String]], featureIdentifier: String): util.Collection[String] = {
+        reads += 1
+        config.get(featureIdentifier).map(_.asJava).getOrElse(java.util.Collections.emptyList())
+      }
+    }
+
+    val config = Map("feature1" -> Seq("a", "b"))
+
+    it("should only read the enabled users once per feature for the same config instance after it is cached") {
+      decider.test(new ConfigDecisionInput(config, "feature1", FeatureCheckInput.forUser("a"))) shouldBe true
+      decider.test(new ConfigDecisionInput(config, "feature1", FeatureCheckInput.forUser("c"))) shouldBe false
+      decider.test(new ConfigDecisionInput(config, "feature2", FeatureCheckInput.forUser("a"))) shouldBe false
+      decider.test(new ConfigDecisionInput(config, "feature2", FeatureCheckInput.forUser("a"))) shouldBe false
+      // The first check against the instance is not cached, since a per-check config would never be checked again
+      reads shouldBe 3
+    }
+
+    it("should read the enabled users again for a new config instance") {
+      val updatedConfig = Map("feature1" -> Seq("c"))
+      decider.test(new ConfigDecisionInput(updatedConfig, "feature1", FeatureCheckInput.forUser("a"))) shouldBe false
+      decider.test(new ConfigDecisionInput(updatedConfig, "feature1", FeatureCheckInput.forUser("c"))) shouldBe true
+      decider.test(new ConfigDecisionInput(updatedConfig, "feature1", FeatureCheckInput.forUser("c"))) shouldBe true
+      reads shouldBe 5
+    }
+  }
+
+  describe("An implementation with a config supplier that returns a new instance for every check") {
+    class CountingUsers(users: String*) extends java.util.AbstractCollection[String] {
+      var iterations = 0
+      var lookups = 0
+
+      override def iterator(): util.Iterator[String] = {
+        iterations += 1
+        users.iterator.asJava
+      }
+
+      override def size(): Int = users.size
+
+      override def contains(o: Any): Boolean = {
+        lookups += 1
+        users.contains(o)
+      }
+    }
+
+    val users = new CountingUsers("a", "b")
+
+    val decider = new EnabledUsersConfigDecider[Map[String, util.Collection[String]]]() {
+      override protected def enabledUsers(config: Map[String, util.Collection[String]], featureIdentifier: String): util.Collection[String] =
+        config.getOrElse(featureIdentifier, java.util.Collections.emptyList())
+    }
+
+    it("should check the collection as is rather than copying it for every check") {
+      (1 to 100).foreach { i =>
+        val perCallConfig = Map[String, util.Collection[String]]("feature1" -> users)
+        decider.test(new ConfigDecisionInput(perCallConfig, "feature1", FeatureCheckInput.forUser(if (i % 2 == 0) "a" else "c"))) shouldBe (i % 2 == 0)
+      }
+
+      users.iterations shouldBe 0
+      users.lookups shouldBe 100
+    }
+
+    it("should keep the sets for both configs while checks alternate between the old and new config") {
+      var reads = 0
+      val countingDecider = new EnabledUsersConfigDecider[Map[String, Seq[String]]]() {
+        override protected def enabledUsers(config: Map[String, Seq[String]], featureIdentifier: String): util.Collection[String] = {
+          reads += 1
+          config.get(featureIdentifier).map(_.asJava).getOrElse(java.util.Collections.emptyList())
+        }
+      }
+      val oldConfig = Map("feature1" -> Seq("a"))
+      val newConfig = Map("feature1" -> Seq("b"))
+
+      (1 to 10).foreach { _ =>
+        countingDecider.test(new ConfigDecisionInput(oldConfig, "feature1", FeatureCheckInput.forUser("a"))) shouldBe true
+        countingDecider.test(new ConfigDecisionInput(newConfig, "feature1", FeatureCheckInput.forUser("a"))) shouldBe false
+      }
+
+      // One uncached and one cached read for each config
+      reads shouldBe 4
+    }
+  }
 }
@@ -0,0 +1,120 @@
+package com.nike.moirai.config
+
+import com.nike.moirai.FeatureCheckInput
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class FeatureRuleSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  val feature: CompiledFeature = new CompiledFeature.Builder("feature1")
+    .enabledUserIds(Seq("a", "b").asJava)
+    .enabledProportion(0.3)
+    .enabledValues("enabledCountries", Seq("PE").asJava)
+    .featureEnabled(true)
+    .build()
+
+  def check(rule: String, input: FeatureCheckInput): Boolean = FeatureRule.parse(rule).test(feature, input)
+
+  describe("parsing") {
+    it("should give AND precedence over OR, and NOT over both") {
+      FeatureRule.parse("enabled OR users AND NOT proportion").getSimplified shouldBe "(enabled OR (users AND NOT proportion))"
+      FeatureRule.parse("(enabled OR users) AND country IN [US]").getSimplified shouldBe "(country IN [\"US\"] AND (enabled OR users))"
+    }
+
+    it("should accept keywords in any case and quoted or bare values") {
+      FeatureRule.parse("users or country in [\"United States\", CA]").getSimplified shouldBe "(users OR country IN [\"CA\", \"United States\"])"
+    }
+
+    it("should reject invalid rules with the position of the problem") {
+      val invalid = Seq("", "users OR", "users users", "(users", "country", "country IN [US", "proportion 1.2.3", "users & enabled")
+
+      invalid.foreach { rule =>
+        val thrown = the[IllegalArgumentException] thrownBy FeatureRule.parse(rule)
+        thrown.getMessage should include("position")
+      }
+    }
+
+    it("should only be equal to a rule with the same source and bucketing strategy") {
+      FeatureRule.parse("proportion 0.2") shouldBe FeatureRule.parse("proportion 0.2", BucketingStrategy.HASH_CODE_PERCENT)
+      FeatureRule.parse("proportion 0.2").hashCode shouldBe FeatureRule.parse("proportion 0.2").hashCode
+      FeatureRule.parse("proportion 0.2") should not be FeatureRule.parse("proportion 0.2", BucketingStrategy.MURMUR3_BASIS_POINTS)
+    }
+  }
+
+  describe("simplifying") {
+    it("should fold constants") {
+      FeatureRule.parse("users OR true").getSimplified shouldBe "true"
+      FeatureRule.parse("users AND false").getSimplified shouldBe "false"
+      FeatureRule.parse("users AND true").getSimplified shouldBe "users"
+      FeatureRule.parse("NOT (false OR proportion 0.0)").getSimplified shouldBe "true"
+      FeatureRule.parse("country IN [] OR users").getSimplified shouldBe "users"
+    }
+
+    it("should remove double negation and flatten nested junctions") {
+      FeatureRule.parse("NOT NOT users").getSimplified shouldBe "users"
+      FeatureRule.parse("users OR (enabled OR (proportion 0.5 OR country IN enabledCountries))").getSimplified shouldBe
+        "(enabled OR users OR country IN enabledCountries OR proportion 0.5)"
+    }
+
+    it("should check cheap terms before expensive ones") {
+      FeatureRule.parse("proportion 0.2 AND country IN [US] AND enabled").getSimplified shouldBe
+        "(enabled AND country IN [\"US\"] AND proportion 0.2)"
+    }
+  }
+
+  describe("deciding") {
+    it("should check enabled users") {
+      check("users", FeatureCheckInput.forUser("a")) shouldBe true
+      check("users", FeatureCheckInput.forUser("c")) shouldBe false
+      check("users", FeatureCheckInput.empty()) shouldBe false
+    }
+
+    it("should check custom dimensions against listed values as strings") {
+      check("country IN [US, 7]", FeatureCheckInput.empty().withAdditionalDimension("country", "US")) shouldBe true
+      check("country IN [US, 7]", FeatureCheckInput.empty().withAdditionalDimension("country", 7)) shouldBe true
+      check("country IN [US, 7]", FeatureCheckInput.empty().withAdditionalDimension("country", "PE")) shouldBe false
+      check("country IN [US, 7]", FeatureCheckInput.empty()) shouldBe false
+    }
+
+    it("should check custom dimensions against the feature's enabled values") {
+      check("country IN enabledCountries", FeatureCheckInput.empty().withAdditionalDimension("country", "PE")) shouldBe true
+      check("country IN enabledCountries", FeatureCheckInput.empty().withAdditionalDimension("country", "US")) shouldBe false
+      check("country IN otherCountries", FeatureCheckInput.empty().withAdditionalDimension("country", "PE")) shouldBe false
+    }
+
+    it("should bucket proportions the same way as the proportion of users decider") {
+      forAll { userId: String =>
+        val input = FeatureCheckInput.forUser(userId)
+
+        check("proportion", input) shouldBe CompiledFeatureDeciders.PROPORTION_OF_USERS.test(feature, input)
+        check("proportion 0.7", input) shouldBe (Math.abs((userId + "feature1").hashCode) % 100) / 100.0 < 0.7
+      }
+    }
+
+    it("should decide combined rules") {
+      val rule = "users OR (country IN [US] AND NOT proportion 0.0)"
+
+      check(rule, FeatureCheckInput.forUser("a")) shouldBe true
+      check(rule, FeatureCheckInput.forUser("c").withAdditionalDimension("country", "US")) shouldBe true
+      check(rule, FeatureCheckInput.forUser("c").withAdditionalDimension("country", "CA")) shouldBe false
+    }
+  }
+
+  describe("rule deciders") {
+    val withoutRule = feature
+    val withRule = new CompiledFeature.Builder("feature2").rule(FeatureRule.parse("users")).enabledUserIds(Seq("c").asJava).build()
+
+    it("should use the feature's rule") {
+      CompiledFeatureDeciders.RULE.test(withRule, FeatureCheckInput.forUser("c")) shouldBe true
+      CompiledFeatureDeciders.RULE.test(withoutRule, FeatureCheckInput.forUser("a")) shouldBe false
+    }
+
+    it("should fall back for features without a rule") {
+      val decider = CompiledFeatureDeciders.ruleOr(CompiledFeatureDeciders.FEATURE_ENABLED)
+
+      decider.test(withoutRule, FeatureCheckInput.forUser("z")) shouldBe true
+      decider.test(withRule, FeatureCheckInput.forUser("z")) shouldBe false
+    }
+  }
+}
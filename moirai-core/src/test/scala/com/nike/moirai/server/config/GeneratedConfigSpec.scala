@@ -0,0 +1,143 @@
+package com.nike.moirai.config
+
+import com.nike.moirai.{ConfigFeatureFlagChecker, FeatureCheckInput}
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class GeneratedConfigSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  val rules = Seq(
+    "users",
+    "proportion",
+    "proportion 0.5",
+    "enabled",
+    "NOT enabled",
+    "users OR (country IN [US, CA] AND proportion 0.2)",
+    "enabled AND country IN enabledCountries AND NOT users",
+    "users OR proportion OR country IN enabledCountries",
+    "NOT (users OR enabled) AND proportion",
+    "false OR country IN []"
+  )
+
+  val features: Seq[CompiledFeature] = Seq(
+    new CompiledFeature.Builder("feature1")
+      .enabledUserIds(Seq("a", "b").asJava)
+      .enabledProportion(0.3)
+      .enabledValues("enabledCountries", Seq("PE").asJava)
+      .featureEnabled(true)
+      .build(),
+    new CompiledFeature.Builder("feature2").enabledProportion(0.7).featureGroup("group1").build(),
+    new CompiledFeature.Builder("feature3").build()
+  )
+
+  val config: CompiledConfig = CompiledConfig.of(features.asJava)
+
+  val inputs: Seq[FeatureCheckInput] = Seq(
+    FeatureCheckInput.empty(),
+    FeatureCheckInput.forUser("a"),
+    FeatureCheckInput.forUser("b").withAdditionalDimension("country", "PE"),
+    FeatureCheckInput.forUser("z").withAdditionalDimension("country", "US"),
+    FeatureCheckInput.empty().withAdditionalDimension("country", "CA")
+  )
+
+  describe("generated decisions") {
+    it("should decide the same as the interpreted rule for every feature and input") {
+      for (rule <- rules; strategy <- BucketingStrategy.values()) {
+        val featureRule = FeatureRule.parse(rule, strategy)
+        val generated = GeneratedConfig.generator(featureRule).apply(config)
+
+        for (feature <- features; input <- inputs) {
+          withClue(s"$rule for ${feature.getFeatureIdentifier} with $input using $strategy: ") {
+            generated.isFeatureEnabled(feature.getFeatureIdentifier, input) shouldBe featureRule.test(feature, input)
+          }
+        }
+      }
+    }
+
+    it("should bucket any user the same as the interpreted rule") {
+      val featureRule = FeatureRule.parse("users OR proportion")
+      val generated = GeneratedConfig.generator(featureRule).apply(config)
+
+      forAll { userId: String =>
+        for (feature <- features) {
+          val input = FeatureCheckInput.forUser(userId)
+          generated.isFeatureEnabled(feature.getFeatureIdentifier, input) shouldBe featureRule.test(feature, input)
+        }
+      }
+    }
+
+    it("should prefer a feature's declared rule over the fallback") {
+      val withRule = CompiledConfig.of(Seq(
+        new CompiledFeature.Builder("ruled").enabledUserIds(Seq("a").asJava).rule(FeatureRule.parse("NOT users")).build()
+      ).asJava)
+      val generated = GeneratedConfig.generator(CompiledFeatureDeciders.ENABLED_USERS).apply(withRule)
+
+      generated.isFeatureEnabled("ruled", FeatureCheckInput.forUser("a")) shouldBe false
+      generated.isFeatureEnabled("ruled", FeatureCheckInput.forUser("z")) shouldBe true
+    }
+
+    it("should invoke a fallback that is not a rule") {
+      val generated = GeneratedConfig.generator(CompiledFeatureDeciders.ENABLED_USERS.or(CompiledFeatureDeciders.FEATURE_ENABLED)).apply(config)
+
+      generated.isFeatureEnabled("feature1", FeatureCheckInput.forUser("a")) shouldBe true
+      generated.isFeatureEnabled("feature2", FeatureCheckInput.forUser("a")) shouldBe false
+      generated.isFeatureEnabled("feature1", FeatureCheckInput.forUser("z")) shouldBe true
+    }
+
+    it("should use the fallback for the empty feature when a feature is not configured") {
+      GeneratedConfig.generator(FeatureRule.parse("NOT users")).apply(config).isFeatureEnabled("missing", FeatureCheckInput.forUser("a")) shouldBe true
+      GeneratedConfig.generator(FeatureRule.parse("users")).apply(config).isFeatureEnabled("missing", FeatureCheckInput.forUser("a")) shouldBe false
+    }
+  }
+
+  describe("DECIDER") {
+    val generated = GeneratedConfig.generator(FeatureRule.parse("users OR enabled")).apply(config)
+    val checker = ConfigFeatureFlagChecker.forConfigSupplier(() => generated, GeneratedConfig.DECIDER)
+
+    it("should check features through a ConfigFeatureFlagChecker") {
+      checker.isFeatureEnabled("feature1") shouldBe true
+      checker.isFeatureEnabled("feature2", FeatureCheckInput.forUser("a")) shouldBe false
+      checker.isFeatureEnabled("feature3") shouldBe false
+    }
+
+    it("should check features through a handle") {
+      val handle = checker.handle("feature2")
+
+      handle.isEnabled(FeatureCheckInput.forUser("a")) shouldBe false
+      checker.handle("feature1").isEnabled() shouldBe true
+    }
+
+    it("should bind every feature to the same shared decision class") {
+      val feature1 = GeneratedConfig.DECIDER.bind(generated, "feature1")
+      val feature2 = GeneratedConfig.DECIDER.bind(generated, "feature2")
+
+      feature1.getClass shouldBe feature2.getClass
+      GeneratedConfig.DECIDER.bind(GeneratedConfig.generator(FeatureRule.parse("users")).apply(config), "feature1").getClass shouldBe feature1.getClass
+      feature1.test(FeatureCheckInput.empty()) shouldBe true
+      feature2.test(FeatureCheckInput.forUser("a")) shouldBe false
+    }
+  }
+
+  describe("with decision classes") {
+    val generated = GeneratedConfig.generatorWithDecisionClasses(FeatureRule.parse("users OR enabled")).apply(config)
+
+    it("should decide the same as the shared decisions for every feature and input") {
+      val shared = GeneratedConfig.generator(FeatureRule.parse("users OR enabled")).apply(config)
+
+      for (feature <- features; input <- inputs) {
+        generated.isFeatureEnabled(feature.getFeatureIdentifier, input) shouldBe shared.isFeatureEnabled(feature.getFeatureIdentifier, input)
+      }
+    }
+
+    it("should bind each feature to a decision class of its own") {
+      val feature1 = GeneratedConfig.DECIDER.bind(generated, "feature1")
+      val feature2 = GeneratedConfig.DECIDER.bind(generated, "feature2")
+
+      feature1.getClass.getName shouldBe "com.nike.moirai.config.GeneratedDecision"
+      feature1.getClass should not be feature2.getClass
+      feature1.test(FeatureCheckInput.empty()) shouldBe true
+      feature2.test(FeatureCheckInput.forUser("a")) shouldBe false
+    }
+  }
+}
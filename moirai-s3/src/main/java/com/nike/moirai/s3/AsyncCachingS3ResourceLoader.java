@@ -0,0 +1,140 @@
+package com.nike.moirai.s3;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronously supplies the contents of an object in S3 as a string using UTF-8 encoding, using an {@link S3AsyncClient} so that no
+ * thread is blocked while waiting on S3. Caches object content and uses S3's ETag constraint in the same way as
+ * {@link CachingS3ResourceLoader}, and can be used anywhere a {@code Supplier<CompletableFuture<String>>} is expected, such as
+ * {@link com.nike.moirai.Suppliers#futureSupplierAndThen}, without wrapping a blocking loader with
+ * {@link com.nike.moirai.Suppliers#async}.
+ * <p>
+ * The returned futures are completed by the client's own threads. Chain any expensive work onto them with an executor of your choosing.
+ */
+public class AsyncCachingS3ResourceLoader implements Supplier<CompletableFuture<String>> {
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucket;
+    private final String key;
+    private final S3DiskCache diskCache;
+
+    private static class CachedObject {
+        final String content;
+        final String eTag;
+
+        CachedObject(String content, String eTag) {
+            this.content = content;
+            this.eTag = eTag;
+        }
+    }
+
+    /**
+     * the last successful read from S3. null when the object has never been read.
+     */
+    private volatile CachedObject cachedObject = null;
+
+    /**
+     * Creates an AsyncCachingS3ResourceLoader using the provided client for the given S3 location
+     *
+     * @param s3AsyncClient the S3 client to use
+     * @param bucket the bucket for the S3 resource
+     * @param key the key within the bucket for the S3 resource
+     * @return a supplier of futures for the S3 resource as a string
+     */
+    public static AsyncCachingS3ResourceLoader withS3AsyncClient(S3AsyncClient s3AsyncClient, String bucket, String key) {
+        return new AsyncCachingS3ResourceLoader(s3AsyncClient, bucket, key, null);
+    }
+
+    /**
+     * Creates an AsyncCachingS3ResourceLoader using the provided client for the given S3 location, which saves each object read to the
+     * disk cache and starts from the copy already in the disk cache, if any.
+     *
+     * @param s3AsyncClient the S3 client to use
+     * @param bucket the bucket for the S3 resource
+     * @param key the key within the bucket for the S3 resource
+     * @param diskCache where to save the last object read
+     * @return a supplier of futures for the S3 resource as a string
+     */
+    public static AsyncCachingS3ResourceLoader withDiskCache(S3AsyncClient s3AsyncClient, String bucket, String key, S3DiskCache diskCache) {
+        return new AsyncCachingS3ResourceLoader(s3AsyncClient, bucket, key, diskCache);
+    }
+
+    private AsyncCachingS3ResourceLoader(S3AsyncClient s3AsyncClient, String bucket, String key, S3DiskCache diskCache) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucket = bucket;
+        this.key = key;
+        this.diskCache = diskCache;
+
+        if (diskCache != null) {
+            S3DiskCache.Entry entry = diskCache.read(bucket, key);
+
+            if (entry != null) {
+                this.cachedObject = new CachedObject(entry.content, entry.eTag);
+            }
+        }
+    }
+
+    /**
+     * @return the content of the last object read, or loaded from the disk cache, without calling S3; empty if there is none yet
+     */
+    public Optional<String> getCachedContent() {
+        CachedObject cached = this.cachedObject;
+        return cached != null ? Optional.of(cached.content) : Optional.empty();
+    }
+
+    @Override
+    public CompletableFuture<String> get() {
+        CachedObject cached = this.cachedObject;
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (cached != null && cached.eTag != null) {
+            requestBuilder.ifNoneMatch(cached.eTag);
+        }
+
+        CompletableFuture<ResponseBytes<GetObjectResponse>> request = s3AsyncClient.getObject(requestBuilder.build(), AsyncResponseTransformer.toBytes());
+
+        CompletableFuture<String> content = request.handle((responseBytes, throwable) -> {
+            if (throwable == null) {
+                return cacheAndReturnObject(responseBytes);
+            }
+
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+            if (cached != null && cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 304) {
+                return cached.content;
+            }
+
+            throw new CompletionException(cause);
+        });
+
+        // Abort the request when the content is completed first, such as by a reload timeout
+        content.whenComplete((value, throwable) -> {
+            if (throwable != null && !request.isDone()) {
+                request.cancel(true);
+            }
+        });
+
+        return content;
+    }
+
+    private String cacheAndReturnObject(ResponseBytes<GetObjectResponse> responseBytes) {
+        String eTag = responseBytes.response().eTag();
+        String content = responseBytes.asUtf8String();
+
+        cachedObject = new CachedObject(content, eTag);
+
+        if (diskCache != null) {
+            diskCache.write(bucket, key, eTag, content);
+        }
+
+        return content;
+    }
+}
@@ -6,17 +6,24 @@ import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
 /**
  * Supplies the contents of an object in S3 as a string using UTF-8 encoding. Caches object content and uses S3's ETag
  * constraint to reduce object reads when the object contents have not changed. This is intended as a drop-in
  * replacement for {@link S3ResourceLoader}.
+ * <p>
+ * With an {@link S3DiskCache}, each object read from S3 is also saved to disk with its ETag. A new loader starts from the saved copy:
+ * {@link #getCachedContent()} returns it right away, for use as the initial value of a
+ * {@link com.nike.moirai.resource.reload.ResourceReloader}, and the first {@link #get()} sends its ETag, so the object is only downloaded
+ * again if it has changed.
  */
 public class CachingS3ResourceLoader implements Supplier<String> {
     private final S3Client s3Client;
     private final String bucket;
     private final String key;
+    private final S3DiskCache diskCache;
 
     private static class CachedObject {
         final String content;
@@ -41,7 +48,7 @@ public class CachingS3ResourceLoader implements Supplier<String> {
      * @return a supplier for the S3 resource as a string
      */
     public static CachingS3ResourceLoader withDefaultCredentials(String bucket, String key) {
-        return new CachingS3ResourceLoader(S3Client.create(), bucket, key);
+        return new CachingS3ResourceLoader(S3Client.create(), bucket, key, null);
     }
 
     /**
@@ -53,28 +60,60 @@ public class CachingS3ResourceLoader implements Supplier<String> {
      * @return a supplier for the S3 resource as a string
      */
     public static CachingS3ResourceLoader withS3Client(S3Client s3Client, String bucket, String key) {
-        return new CachingS3ResourceLoader(s3Client, bucket, key);
+        return new CachingS3ResourceLoader(s3Client, bucket, key, null);
     }
 
-    private CachingS3ResourceLoader(S3Client s3Client, String bucket, String key) {
+    /**
+     * Creates an S3ResourceLoader using the provided client for the given S3 location, which saves each object read to the disk cache
+     * and starts from the copy already in the disk cache, if any.
+     *
+     * @param s3Client the S3 client to use
+     * @param bucket the bucket for the S3 resource
+     * @param key the key within the bucket for the S3 resource
+     * @param diskCache where to save the last object read
+     * @return a supplier for the S3 resource as a string
+     */
+    public static CachingS3ResourceLoader withDiskCache(S3Client s3Client, String bucket, String key, S3DiskCache diskCache) {
+        return new CachingS3ResourceLoader(s3Client, bucket, key, diskCache);
+    }
+
+    private CachingS3ResourceLoader(S3Client s3Client, String bucket, String key, S3DiskCache diskCache) {
         this.s3Client = s3Client;
         this.bucket = bucket;
         this.key = key;
+        this.diskCache = diskCache;
+
+        if (diskCache != null) {
+            S3DiskCache.Entry entry = diskCache.read(bucket, key);
+
+            if (entry != null) {
+                this.cachedObject = new CachedObject(entry.content, entry.eTag);
+            }
+        }
+    }
+
+    /**
+     * @return the content of the last object read, or loaded from the disk cache, without calling S3; empty if there is none yet
+     */
+    public Optional<String> getCachedContent() {
+        CachedObject cached = this.cachedObject;
+        return cached != null ? Optional.of(cached.content) : Optional.empty();
     }
 
     @Override
     public String get() {
+        CachedObject cached = this.cachedObject;
         GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder().bucket(bucket).key(key);
-        if (cachedObject != null) {
-            requestBuilder.ifNoneMatch(cachedObject.eTag);
+        if (cached != null && cached.eTag != null) {
+            requestBuilder.ifNoneMatch(cached.eTag);
         }
 
         try {
             ResponseBytes<GetObjectResponse> responseBytes = s3Client.getObjectAsBytes(requestBuilder.build());
             return cacheAndReturnObject(responseBytes);
         } catch (S3Exception s3Exception) {
-            if (s3Exception.statusCode() == 304) {
-                return cachedObject.content;
+            if (s3Exception.statusCode() == 304 && cached != null) {
+                return cached.content;
             }
 
             throw s3Exception;
@@ -86,6 +125,11 @@ public class CachingS3ResourceLoader implements Supplier<String> {
         String content = responseBytes.asUtf8String();
 
         cachedObject = new CachedObject(content, eTag);
+
+        if (diskCache != null) {
+            diskCache.write(bucket, key, eTag, content);
+        }
+
         return content;
     }
 }
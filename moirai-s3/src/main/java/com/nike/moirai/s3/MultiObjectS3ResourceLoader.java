@@ -0,0 +1,319 @@
+package com.nike.moirai.s3;
+
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronously supplies the contents of several objects in S3, such as one config file per team, merged into a single string by
+ * joining them with newlines in key order. For HOCON, this means a setting in a later key overrides the same setting in an earlier key.
+ * <p>
+ * The objects are either a fixed list of keys, or every object under a prefix, listed again on each load. For a prefix, objects whose
+ * listed ETag matches their cached content are reused without a GET, so a load only fetches the objects that changed. For a list of keys,
+ * each load sends a conditional GET for every object, using the ETag of the object's last content, so objects that have not changed are
+ * answered with a 304 and their cached content is reused. At most {@code maxConcurrency} GETs are in flight at a time. If no object has
+ * changed, the previous merged string is returned
+ * as the same instance. If any object fails to load, the whole load fails, so a reloader keeps its previous value.
+ */
+public class MultiObjectS3ResourceLoader implements Supplier<CompletableFuture<String>> {
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucket;
+    private final List<String> keys;
+    private final String prefix;
+    private final int maxConcurrency;
+    private final Map<String, CachedObject> cachedObjects = new ConcurrentHashMap<>();
+
+    private static class CachedObject {
+        final String content;
+        final String eTag;
+
+        CachedObject(String content, String eTag) {
+            this.content = content;
+            this.eTag = eTag;
+        }
+    }
+
+    private static class Merged {
+        final List<CachedObject> objects;
+        final String content;
+
+        Merged(List<CachedObject> objects, String content) {
+            this.objects = objects;
+            this.content = content;
+        }
+    }
+
+    /**
+     * the last merged content. null when the objects have never been read.
+     */
+    private volatile Merged merged = null;
+
+    /**
+     * @param s3AsyncClient the S3 client to use
+     * @param bucket the bucket for the S3 resources
+     * @param keys the keys within the bucket, which are merged in sorted order
+     * @param maxConcurrency the most objects to request at a time
+     * @return a supplier of futures for the merged S3 resources as a string
+     */
+    public static MultiObjectS3ResourceLoader forKeys(S3AsyncClient s3AsyncClient, String bucket, List<String> keys, int maxConcurrency) {
+        List<String> sortedKeys = new ArrayList<>(new HashSet<>(keys));
+        Collections.sort(sortedKeys);
+
+        return new MultiObjectS3ResourceLoader(s3AsyncClient, bucket, Collections.unmodifiableList(sortedKeys), null, maxConcurrency);
+    }
+
+    /**
+     * @param s3AsyncClient the S3 client to use
+     * @param bucket the bucket for the S3 resources
+     * @param prefix the prefix of the keys to load, listed on every load; keys ending in "/" are skipped
+     * @param maxConcurrency the most objects to request at a time
+     * @return a supplier of futures for the merged S3 resources as a string
+     */
+    public static MultiObjectS3ResourceLoader forPrefix(S3AsyncClient s3AsyncClient, String bucket, String prefix, int maxConcurrency) {
+        return new MultiObjectS3ResourceLoader(s3AsyncClient, bucket, null, Objects.requireNonNull(prefix, "prefix"), maxConcurrency);
+    }
+
+    private MultiObjectS3ResourceLoader(S3AsyncClient s3AsyncClient, String bucket, List<String> keys, String prefix, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, got " + maxConcurrency);
+        }
+
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucket = bucket;
+        this.keys = keys;
+        this.prefix = prefix;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public CompletableFuture<String> get() {
+        if (keys != null) {
+            return loadAll(keys, Collections.emptyMap());
+        }
+
+        return listObjects(null, new ArrayList<>()).thenCompose(listed -> {
+            List<String> listedKeys = new ArrayList<>(listed.size());
+            Map<String, String> listedETags = new HashMap<>();
+
+            for (S3Object object : listed) {
+                listedKeys.add(object.key());
+                listedETags.put(object.key(), object.eTag());
+            }
+
+            return loadAll(listedKeys, listedETags);
+        });
+    }
+
+    private CompletableFuture<List<S3Object>> listObjects(String continuationToken, List<S3Object> listed) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).continuationToken(continuationToken).build();
+
+        return s3AsyncClient.listObjectsV2(request).thenCompose((ListObjectsV2Response response) -> {
+            for (S3Object object : response.contents()) {
+                if (!object.key().endsWith("/")) {
+                    listed.add(object);
+                }
+            }
+
+            if (Boolean.TRUE.equals(response.isTruncated())) {
+                return listObjects(response.nextContinuationToken(), listed);
+            }
+
+            listed.sort(Comparator.comparing(S3Object::key));
+            return CompletableFuture.completedFuture(listed);
+        });
+    }
+
+    /**
+     * @param listedETags the ETag of each key as listed, for objects that were listed
+     */
+    private CompletableFuture<String> loadAll(List<String> keysToLoad, Map<String, String> listedETags) {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrency);
+        List<CompletableFuture<CachedObject>> loads = new ArrayList<>(keysToLoad.size());
+
+        for (String key : keysToLoad) {
+            CachedObject cached = cachedObjects.get(key);
+            String listedETag = listedETags.get(key);
+
+            if (cached != null && listedETag != null && listedETag.equals(cached.eTag)) {
+                loads.add(CompletableFuture.completedFuture(cached));
+            } else {
+                loads.add(limiter.submit(() -> load(key)));
+            }
+        }
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<CachedObject> objects = new ArrayList<>(loads.size());
+            for (CompletableFuture<CachedObject> load : loads) {
+                objects.add(load.join());
+            }
+
+            cachedObjects.keySet().retainAll(keysToLoad);
+            return merge(objects);
+        });
+    }
+
+    private CompletableFuture<CachedObject> load(String key) {
+        CachedObject cached = cachedObjects.get(key);
+        GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (cached != null && cached.eTag != null) {
+            requestBuilder.ifNoneMatch(cached.eTag);
+        }
+
+        return s3AsyncClient.getObject(requestBuilder.build(), AsyncResponseTransformer.toBytes())
+            .handle((responseBytes, throwable) -> {
+                if (throwable == null) {
+                    CachedObject loaded = new CachedObject(responseBytes.asUtf8String(), responseBytes.response().eTag());
+                    cachedObjects.put(key, loaded);
+                    return loaded;
+                }
+
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+
+                if (cached != null && cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 304) {
+                    return cached;
+                }
+
+                throw new CompletionException(new IllegalStateException("Error loading s3://" + bucket + "/" + key, cause));
+            });
+    }
+
+    private String merge(List<CachedObject> objects) {
+        Merged previous = this.merged;
+
+        if (previous != null && sameObjects(previous.objects, objects)) {
+            return previous.content;
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (CachedObject object : objects) {
+            if (content.length() > 0) {
+                content.append('\n');
+            }
+            content.append(object.content);
+        }
+
+        Merged current = new Merged(objects, content.toString());
+        this.merged = current;
+        return current.content;
+    }
+
+    private static boolean sameObjects(List<CachedObject> previous, List<CachedObject> current) {
+        if (previous.size() != current.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < previous.size(); i++) {
+            if (previous.get(i) != current.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Starts at most a fixed number of asynchronous tasks at a time, starting each queued task as a running one completes.
+     * <p>
+     * Tasks often complete on the thread that started them, such as when S3 answers from a connection that is already open, so queued
+     * tasks are started in a loop by one thread at a time rather than from each completion, which would nest one call per task.
+     */
+    private static final class ConcurrencyLimiter {
+        private final int maxConcurrency;
+        private final Queue<Runnable> queued = new ArrayDeque<>();
+        private int running = 0;
+        private boolean starting = false;
+
+        ConcurrencyLimiter(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Runnable start = () -> {
+                CompletableFuture<T> started;
+
+                try {
+                    started = task.get();
+                } catch (RuntimeException e) {
+                    started = new CompletableFuture<>();
+                    started.completeExceptionally(e);
+                }
+
+                started.whenComplete((value, throwable) -> {
+                    release();
+
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+
+            boolean startNow;
+            synchronized (this) {
+                startNow = running < maxConcurrency;
+
+                if (startNow) {
+                    running++;
+                } else {
+                    queued.add(start);
+                }
+            }
+
+            if (startNow) {
+                start.run();
+            }
+
+            return result;
+        }
+
+        private void release() {
+            synchronized (this) {
+                running--;
+
+                if (starting) {
+                    // The thread already starting queued tasks will start the next one when this call returns to it
+                    return;
+                }
+
+                starting = true;
+            }
+
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    next = running < maxConcurrency ? queued.poll() : null;
+
+                    if (next == null) {
+                        starting = false;
+                        return;
+                    }
+
+                    running++;
+                }
+
+                next.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nike.moirai.s3;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A local directory holding the last content successfully loaded for each S3 object, along with its ETag, so that a restarted service
+ * can start from the last known good config instead of waiting on S3.
+ * <p>
+ * Each object is stored in a single file named by a hash of its bucket and key, holding a version line, the ETag line, and then the
+ * content. Files are written to a temporary file and moved into place atomically, so the content and ETag always match. Failures to
+ * read or write the cache are logged and otherwise ignored, so the cache never prevents loading from S3.
+ *
+ * @see CachingS3ResourceLoader#withDiskCache(software.amazon.awssdk.services.s3.S3Client, String, String, S3DiskCache)
+ * @see S3ResourceLoader#withDiskCache(software.amazon.awssdk.services.s3.S3Client, String, String, S3DiskCache)
+ */
+public class S3DiskCache {
+    private static final String VERSION_LINE = "moirai-s3-cache 1";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final Path directory;
+
+    static class Entry {
+        final String content;
+        final String eTag;
+
+        Entry(String content, String eTag) {
+            this.content = content;
+            this.eTag = eTag;
+        }
+    }
+
+    /**
+     * @param directory the directory to keep cached objects in; it is created on the first write if it does not exist
+     * @return a cache in the given directory
+     */
+    public static S3DiskCache inDirectory(Path directory) {
+        return new S3DiskCache(directory);
+    }
+
+    private S3DiskCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    /**
+     * @return the directory cached objects are kept in
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param bucket the bucket of the object
+     * @param key the key of the object
+     * @return the last content cached for the object, or empty if there is none or it cannot be read
+     */
+    public Optional<String> readContent(String bucket, String key) {
+        Entry entry = read(bucket, key);
+        return entry != null ? Optional.of(entry.content) : Optional.empty();
+    }
+
+    Entry read(String bucket, String key) {
+        Path file = file(bucket, key);
+
+        try {
+            String cached = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            int versionEnd = cached.indexOf('\n');
+            int eTagEnd = versionEnd < 0 ? -1 : cached.indexOf('\n', versionEnd + 1);
+
+            if (eTagEnd < 0 || !cached.substring(0, versionEnd).equals(VERSION_LINE)) {
+                logger.warn("Ignoring unreadable S3 cache file " + file);
+                return null;
+            }
+
+            String eTag = cached.substring(versionEnd + 1, eTagEnd);
+            return new Entry(cached.substring(eTagEnd + 1), eTag.isEmpty() ? null : eTag);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Error reading S3 cache file " + file, e);
+            return null;
+        }
+    }
+
+    void write(String bucket, String key, String eTag, String content) {
+        Path file = file(bucket, key);
+
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try {
+                String cached = VERSION_LINE + '\n' + (eTag != null ? eTag : "") + '\n' + content;
+                Files.write(temp, cached.getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Error writing S3 cache file " + file, e);
+        }
+    }
+
+    private Path file(String bucket, String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest((bucket + '/' + key).getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2 + 6);
+
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return directory.resolve(name.append(".cache").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "S3DiskCache{" +
+            "directory=" + directory +
+            '}';
+    }
+}
@@ -1,8 +1,11 @@
 package com.nike.moirai.s3;
 
+import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
 /**
@@ -12,6 +15,7 @@ public class S3ResourceLoader implements Supplier<String> {
     private final S3Client s3Client;
     private final String bucket;
     private final String key;
+    private final S3DiskCache diskCache;
 
     /**
      * Creates an S3ResourceLoader for the given S3 location
@@ -21,7 +25,7 @@ public class S3ResourceLoader implements Supplier<String> {
      * @return a supplier for the S3 resource as a string
      */
     public static S3ResourceLoader withDefaultCredentials(String bucket, String key) {
-        return new S3ResourceLoader(S3Client.create(), bucket, key);
+        return new S3ResourceLoader(S3Client.create(), bucket, key, null);
     }
 
     /**
@@ -33,17 +37,60 @@ public class S3ResourceLoader implements Supplier<String> {
      * @return a supplier for the S3 resource as a string
      */
     public static S3ResourceLoader withS3Client(S3Client s3Client, String bucket, String key) {
-        return new S3ResourceLoader(s3Client, bucket, key);
+        return new S3ResourceLoader(s3Client, bucket, key, null);
     }
 
-    private S3ResourceLoader(S3Client s3Client, String bucket, String key) {
+    /**
+     * Creates an S3ResourceLoader using the provided client for the given S3 location, which saves each object read to the disk cache.
+     * Use {@link #getCachedContent()} for the last object saved, such as for the initial value of a
+     * {@link com.nike.moirai.resource.reload.ResourceReloader}.
+     *
+     * @param s3Client the S3 client to use
+     * @param bucket the bucket for the S3 resource
+     * @param key the key within the bucket for the S3 resource
+     * @param diskCache where to save the last object read
+     * @return a supplier for the S3 resource as a string
+     */
+    public static S3ResourceLoader withDiskCache(S3Client s3Client, String bucket, String key, S3DiskCache diskCache) {
+        return new S3ResourceLoader(s3Client, bucket, key, diskCache);
+    }
+
+    /**
+     * Creates a supplier of the contents of an S3 object as bytes, for binary resources such as an
+     * {@link com.nike.moirai.segment.IdBitmap}.
+     *
+     * @param s3Client the S3 client to use
+     * @param bucket the bucket for the S3 resource
+     * @param key the key within the bucket for the S3 resource
+     * @return a supplier for the S3 resource as bytes
+     */
+    public static Supplier<byte[]> bytesWithS3Client(S3Client s3Client, String bucket, String key) {
+        return () -> s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build()).asByteArray();
+    }
+
+    private S3ResourceLoader(S3Client s3Client, String bucket, String key, S3DiskCache diskCache) {
         this.s3Client = s3Client;
         this.bucket = bucket;
         this.key = key;
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * @return the content last saved to the disk cache, without calling S3; empty if there is no disk cache or nothing has been saved
+     */
+    public Optional<String> getCachedContent() {
+        return diskCache != null ? diskCache.readContent(bucket, key) : Optional.empty();
     }
 
     @Override
     public String get() {
-        return s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build()).asUtf8String();
+        ResponseBytes<GetObjectResponse> responseBytes = s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        String content = responseBytes.asUtf8String();
+
+        if (diskCache != null) {
+            diskCache.write(bucket, key, responseBytes.response().eTag(), content);
+        }
+
+        return content;
     }
 }
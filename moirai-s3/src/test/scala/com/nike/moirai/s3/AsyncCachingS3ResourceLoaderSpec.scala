@@ -0,0 +1,92 @@
+package com.nike.moirai.s3
+
+import java.util.concurrent.{ExecutionException, TimeoutException}
+
+import com.nike.moirai.s3.TempDirectory.withTempDirectory
+import org.scalatest.{FunSpec, Matchers}
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException
+
+class AsyncCachingS3ResourceLoaderSpec extends FunSpec with Matchers {
+  val bucket = "foo.bar.com"
+  val objectKey = "folder/file.txt"
+
+  describe("AsyncCachingS3ResourceLoader") {
+    it("should read the object from the S3 client") {
+      val s3 = new FakeS3AsyncClient
+      s3.objects((bucket, objectKey)) = "content version 1"
+
+      AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey).get().get() shouldBe "content version 1"
+      s3.requests.head.ifNoneMatch() shouldBe null
+    }
+
+    it("should return cached content when S3 does not return new content") {
+      val s3 = new FakeS3AsyncClient
+      s3.objects((bucket, objectKey)) = "content version 1"
+      val loader = AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey)
+
+      val first = loader.get().get()
+      val second = loader.get().get()
+
+      second should be theSameInstanceAs first
+      s3.requests.last.ifNoneMatch() shouldBe s3.eTag("content version 1")
+    }
+
+    it("should return new content when S3 returns new content") {
+      val s3 = new FakeS3AsyncClient
+      s3.objects((bucket, objectKey)) = "content version 1"
+      val loader = AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey)
+      loader.get().get()
+
+      s3.objects((bucket, objectKey)) = "content version 2"
+
+      loader.get().get() shouldBe "content version 2"
+      loader.getCachedContent.get shouldBe "content version 2"
+    }
+
+    it("should fail the future when S3 fails, and resume returning cached content afterwards") {
+      val s3 = new FakeS3AsyncClient
+      s3.objects((bucket, objectKey)) = "content version 1"
+      val loader = AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey)
+      loader.get().get()
+
+      s3.failure = Some(new RuntimeException("Mock S3 Exception"))
+      val thrown = the[ExecutionException] thrownBy loader.get().get()
+      thrown.getCause.getMessage shouldBe "Mock S3 Exception"
+
+      s3.failure = None
+      loader.get().get() shouldBe "content version 1"
+    }
+
+    it("should cancel the S3 request when the returned future fails first") {
+      val s3 = new FakeS3AsyncClient
+      s3.objects((bucket, objectKey)) = "content version 1"
+      s3.deferred = true
+
+      val content = AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey).get()
+      content.completeExceptionally(new TimeoutException())
+
+      s3.responses.head.isCancelled shouldBe true
+    }
+
+    it("should fail the future for a missing object") {
+      val s3 = new FakeS3AsyncClient
+
+      val thrown = the[ExecutionException] thrownBy AsyncCachingS3ResourceLoader.withS3AsyncClient(s3, bucket, objectKey).get().get()
+      thrown.getCause shouldBe a[NoSuchKeyException]
+    }
+
+    it("should start from the disk cache and send its ETag") {
+      withTempDirectory { directory =>
+        val diskCache = S3DiskCache.inDirectory(directory)
+        val s3 = new FakeS3AsyncClient
+        s3.objects((bucket, objectKey)) = "content version 1"
+        AsyncCachingS3ResourceLoader.withDiskCache(s3, bucket, objectKey, diskCache).get().get()
+
+        val restarted = AsyncCachingS3ResourceLoader.withDiskCache(s3, bucket, objectKey, diskCache)
+        restarted.getCachedContent.get shouldBe "content version 1"
+        restarted.get().get() shouldBe "content version 1"
+        s3.requests.last.ifNoneMatch() shouldBe s3.eTag("content version 1")
+      }
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package com.nike.moirai.s3
 
+import java.nio.file.Files
+
+import com.nike.moirai.s3.TempDirectory.withTempDirectory
 import org.scalamock.handlers.CallHandler1
 import org.scalamock.scalatest.MockFactory
 import org.scalatest.{FunSpec, Matchers}
@@ -106,4 +109,60 @@ class CachingS3ResourceLoaderSpec extends FunSpec with Matchers with MockFactory
       }
     }
   }
+
+  describe("CachingS3ResourceLoader with a disk cache") {
+    val content1 = "content version 1"
+
+    it("should start from the disk cache and only download the object again if it has changed") {
+      withTempDirectory { directory =>
+        val diskCache = S3DiskCache.inDirectory(directory)
+
+        val firstClient = stub[S3Client]
+        val first = CachingS3ResourceLoader.withDiskCache(firstClient, bucket, objectKey, diskCache)
+        first.getCachedContent shouldBe java.util.Optional.empty()
+
+        expectSingleGetObjectRequest(firstClient) { request =>
+          request.ifNoneMatch() shouldBe null
+        }(Some(content1))
+        first.get() shouldEqual content1
+
+        val restartedClient = stub[S3Client]
+        val restarted = CachingS3ResourceLoader.withDiskCache(restartedClient, bucket, objectKey, diskCache)
+        restarted.getCachedContent.get shouldEqual content1
+
+        expectSingleGetObjectRequest(restartedClient) { request =>
+          request.ifNoneMatch() shouldBe eTag(content1)
+        }(None)
+        restarted.get() shouldEqual content1
+      }
+    }
+
+    it("should save new content to the disk cache") {
+      withTempDirectory { directory =>
+        val diskCache = S3DiskCache.inDirectory(directory.resolve("nested"))
+        val s3Client = stub[S3Client]
+        val cacher = CachingS3ResourceLoader.withDiskCache(s3Client, bucket, objectKey, diskCache)
+
+        expectSingleGetObjectRequest(s3Client)(_ => ())(Some("content version 2\nwith a second line"))
+        cacher.get()
+
+        diskCache.readContent(bucket, objectKey).get shouldEqual "content version 2\nwith a second line"
+        diskCache.readContent(bucket, "other/file.txt") shouldBe java.util.Optional.empty()
+      }
+    }
+
+    it("should ignore a disk cache file it cannot read") {
+      withTempDirectory { directory =>
+        val diskCache = S3DiskCache.inDirectory(directory)
+        val s3Client = stub[S3Client]
+
+        expectSingleGetObjectRequest(s3Client)(_ => ())(Some(content1))
+        CachingS3ResourceLoader.withDiskCache(s3Client, bucket, objectKey, diskCache).get()
+
+        Files.list(directory).forEach(file => Files.write(file, "garbage".getBytes("UTF-8")))
+
+        CachingS3ResourceLoader.withDiskCache(stub[S3Client], bucket, objectKey, diskCache).getCachedContent shouldBe java.util.Optional.empty()
+      }
+    }
+  }
 }
@@ -0,0 +1,95 @@
+package com.nike.moirai.s3
+
+import java.util.concurrent.CompletableFuture
+
+import software.amazon.awssdk.core.ResponseBytes
+import software.amazon.awssdk.core.async.AsyncResponseTransformer
+import software.amazon.awssdk.services.s3.S3AsyncClient
+import software.amazon.awssdk.services.s3.model._
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/**
+  * A stand-in for S3 that serves objects from memory, honoring If-None-Match, and records every request.
+  *
+  * When deferred, GETs are not answered until completePending is called, so tests can see how many requests are in flight.
+  */
+class FakeS3AsyncClient extends S3AsyncClient {
+  val objects: mutable.Map[(String, String), String] = mutable.Map.empty
+  val requests: mutable.Buffer[GetObjectRequest] = mutable.Buffer.empty
+  val responses: mutable.Buffer[CompletableFuture[_]] = mutable.Buffer.empty
+  var failure: Option[Throwable] = None
+  var deferred: Boolean = false
+  var listPageSize: Int = 1000
+  var maxInFlight: Int = 0
+  private val pending: mutable.Queue[() => Unit] = mutable.Queue.empty
+  private var inFlight: Int = 0
+
+  def eTag(content: String): String = "\"" + content.hashCode.toHexString + "\""
+
+  def completePending(): Unit = {
+    while (synchronized(pending.nonEmpty)) {
+      val next = synchronized {
+        inFlight -= 1
+        pending.dequeue()
+      }
+      next()
+    }
+  }
+
+  override def serviceName(): String = "s3"
+
+  override def close(): Unit = ()
+
+  override def getObject[ReturnT](request: GetObjectRequest, transformer: AsyncResponseTransformer[GetObjectResponse, ReturnT]): CompletableFuture[ReturnT] = {
+    val result = new CompletableFuture[ReturnT]()
+
+    val answer: () => Unit = () => failure match {
+      case Some(throwable) =>
+        result.completeExceptionally(throwable)
+      case None =>
+        synchronized(objects.get((request.bucket(), request.key()))) match {
+          case None =>
+            result.completeExceptionally(NoSuchKeyException.builder().statusCode(404).build())
+          case Some(content) if request.ifNoneMatch() == eTag(content) =>
+            result.completeExceptionally(S3Exception.builder().statusCode(304).build())
+          case Some(content) =>
+            val response = GetObjectResponse.builder().eTag(eTag(content)).build()
+            result.complete(ResponseBytes.fromByteArray(response, content.getBytes("UTF-8")).asInstanceOf[ReturnT])
+        }
+    }
+
+    val answerNow = synchronized {
+      requests += request
+      responses += result
+
+      if (deferred) {
+        inFlight += 1
+        maxInFlight = Math.max(maxInFlight, inFlight)
+        pending.enqueue(answer)
+      }
+
+      !deferred
+    }
+
+    if (answerNow) {
+      answer()
+    }
+
+    result
+  }
+
+  override def listObjectsV2(request: ListObjectsV2Request): CompletableFuture[ListObjectsV2Response] = {
+    val keys = synchronized(objects.keys.filter(_._1 == request.bucket()).map(_._2).filter(_.startsWith(request.prefix())).toList.sorted)
+    val start = Option(request.continuationToken()).map(_.toInt).getOrElse(0)
+    val page = keys.slice(start, start + listPageSize)
+    val truncated = start + listPageSize < keys.size
+
+    CompletableFuture.completedFuture(ListObjectsV2Response.builder()
+      .contents(page.map(key => S3Object.builder().key(key).eTag(synchronized(objects.get((request.bucket(), key))).map(eTag).orNull).build()).asJava)
+      .isTruncated(truncated)
+      .nextContinuationToken(if (truncated) (start + listPageSize).toString else null)
+      .build())
+  }
+}
@@ -0,0 +1,123 @@
+package com.nike.moirai.s3
+
+import java.util.concurrent.{ExecutionException, TimeUnit}
+
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+class MultiObjectS3ResourceLoaderSpec extends FunSpec with Matchers {
+  val bucket = "foo.bar.com"
+
+  def shardedS3(): FakeS3AsyncClient = {
+    val s3 = new FakeS3AsyncClient
+    s3.objects((bucket, "flags/team-b.conf")) = "moirai.b.featureEnabled = true"
+    s3.objects((bucket, "flags/team-a.conf")) = "moirai.a.featureEnabled = true"
+    s3.objects((bucket, "flags/team-c.conf")) = "moirai.c.featureEnabled = false"
+    s3.objects((bucket, "flags/")) = ""
+    s3.objects((bucket, "other/team-d.conf")) = "moirai.d.featureEnabled = true"
+    s3
+  }
+
+  val merged: String = Seq("moirai.a.featureEnabled = true", "moirai.b.featureEnabled = true", "moirai.c.featureEnabled = false").mkString("\n")
+
+  describe("MultiObjectS3ResourceLoader") {
+    it("should merge the listed keys in key order") {
+      val s3 = shardedS3()
+      val loader = MultiObjectS3ResourceLoader.forKeys(s3, bucket, Seq("flags/team-c.conf", "flags/team-a.conf", "flags/team-b.conf").asJava, 4)
+
+      loader.get().get() shouldBe merged
+    }
+
+    it("should merge every object under a prefix, across list pages") {
+      val s3 = shardedS3()
+      s3.listPageSize = 2
+
+      MultiObjectS3ResourceLoader.forPrefix(s3, bucket, "flags/", 4).get().get() shouldBe merged
+    }
+
+    it("should reuse unchanged objects by ETag and return the same merged content when nothing changed") {
+      val s3 = shardedS3()
+      val loader = MultiObjectS3ResourceLoader.forKeys(s3, bucket, Seq("flags/team-c.conf", "flags/team-a.conf", "flags/team-b.conf").asJava, 4)
+      val first = loader.get().get()
+      s3.requests.clear()
+
+      loader.get().get() should be theSameInstanceAs first
+      s3.requests.map(_.ifNoneMatch()).toSet shouldBe Set(s3.eTag("moirai.a.featureEnabled = true"), s3.eTag("moirai.b.featureEnabled = true"), s3.eTag("moirai.c.featureEnabled = false"))
+    }
+
+    it("should only get the objects under a prefix whose listed ETag changed") {
+      val s3 = shardedS3()
+      val loader = MultiObjectS3ResourceLoader.forPrefix(s3, bucket, "flags/", 4)
+      val first = loader.get().get()
+      s3.requests.clear()
+
+      loader.get().get() should be theSameInstanceAs first
+      s3.requests shouldBe empty
+
+      s3.objects((bucket, "flags/team-b.conf")) = "moirai.b.featureEnabled = false"
+      loader.get().get() shouldBe merged.replace("b.featureEnabled = true", "b.featureEnabled = false")
+      s3.requests.map(_.key()) shouldBe Seq("flags/team-b.conf")
+    }
+
+    it("should merge again when one object changes, is added or is removed") {
+      val s3 = shardedS3()
+      val loader = MultiObjectS3ResourceLoader.forPrefix(s3, bucket, "flags/", 4)
+      loader.get().get()
+
+      s3.objects((bucket, "flags/team-b.conf")) = "moirai.b.featureEnabled = false"
+      loader.get().get() shouldBe merged.replace("b.featureEnabled = true", "b.featureEnabled = false")
+
+      s3.objects((bucket, "flags/team-e.conf")) = "moirai.e.featureEnabled = true"
+      loader.get().get() should endWith("\nmoirai.e.featureEnabled = true")
+
+      s3.objects.remove((bucket, "flags/team-a.conf"))
+      loader.get().get() should not include "moirai.a"
+    }
+
+    it("should not have more than maxConcurrency requests in flight") {
+      val s3 = shardedS3()
+      s3.deferred = true
+      val loader = MultiObjectS3ResourceLoader.forKeys(s3, bucket, Seq("flags/team-a.conf", "flags/team-b.conf", "flags/team-c.conf").asJava, 2)
+
+      val result = loader.get()
+      s3.requests.size shouldBe 2
+      result.isDone shouldBe false
+
+      s3.completePending()
+
+      result.get() shouldBe merged
+      s3.maxInFlight shouldBe 2
+    }
+
+    it("should start queued requests without nesting a call for each one when requests complete right away") {
+      val s3 = new FakeS3AsyncClient
+      val keys = (1 to 20000).map(i => f"flags/team-$i%05d.conf")
+      keys.foreach(key => s3.objects((bucket, key)) = "a")
+
+      // Hold the first request so the rest are queued, then answer every request right away on a thread with a small stack, so that
+      // nesting a call for each queued request would overflow it
+      s3.deferred = true
+      val result = MultiObjectS3ResourceLoader.forKeys(s3, bucket, keys.asJava, 1).get()
+      s3.deferred = false
+
+      val thread = new Thread(null, () => s3.completePending(), "small-stack", 256 * 1024)
+      thread.start()
+      thread.join()
+
+      result.get(10, TimeUnit.SECONDS) shouldBe keys.map(_ => "a").mkString("\n")
+    }
+
+    it("should fail the load when any object fails") {
+      val s3 = shardedS3()
+      val loader = MultiObjectS3ResourceLoader.forKeys(s3, bucket, Seq("flags/team-a.conf", "flags/missing.conf").asJava, 2)
+
+      val thrown = the[ExecutionException] thrownBy loader.get().get()
+      thrown.getCause.getMessage should include("s3://foo.bar.com/flags/missing.conf")
+    }
+
+    it("should require a positive maxConcurrency") {
+      an[IllegalArgumentException] should be thrownBy MultiObjectS3ResourceLoader.forPrefix(new FakeS3AsyncClient, bucket, "flags/", 0)
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.nike.moirai.s3
 
+import com.nike.moirai.s3.TempDirectory.withTempDirectory
 import org.scalamock.scalatest.MockFactory
 import org.scalatest.{FunSpec, Matchers}
 import software.amazon.awssdk.core.ResponseBytes
@@ -32,5 +33,31 @@ class S3ResourceLoaderSpec  extends FunSpec with Matchers with MockFactory {
 
       s3ResourceLoader.get() shouldBe content
     }
+
+    it("should read the file as bytes from the S3 client") {
+      val bytes = Array[Byte](0, 1, 2, -1)
+
+      (s3Client.getObjectAsBytes(_: GetObjectRequest))
+        .expects(GetObjectRequest.builder().bucket("foo.bar.com").key("folder/file.bin").build())
+        .returning(ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), bytes))
+
+      S3ResourceLoader.bytesWithS3Client(s3Client, "foo.bar.com", "folder/file.bin").get() shouldBe bytes
+    }
+
+    it("should save the object to a disk cache") {
+      withTempDirectory { directory =>
+        val diskCache = S3DiskCache.inDirectory(directory)
+        val cachingLoader = S3ResourceLoader.withDiskCache(s3Client, "foo.bar.com", "folder/file.txt", diskCache)
+
+        cachingLoader.getCachedContent shouldBe java.util.Optional.empty()
+
+        (s3Client.getObjectAsBytes(_: GetObjectRequest))
+          .expects(GetObjectRequest.builder().bucket("foo.bar.com").key("folder/file.txt").build())
+          .returning(ResponseBytes.fromByteArray(GetObjectResponse.builder().eTag("\"abc\"").build(), content.getBytes("UTF-8")))
+
+        cachingLoader.get() shouldBe content
+        cachingLoader.getCachedContent.get shouldBe content
+      }
+    }
   }
 }
@@ -0,0 +1,19 @@
+package com.nike.moirai.s3
+
+import java.nio.file.{Files, Path}
+import java.util.Comparator
+
+object TempDirectory {
+  /**
+    * Runs the test with a new temporary directory, and deletes the directory and everything in it afterwards.
+    */
+  def withTempDirectory[T](test: Path => T): T = {
+    val directory = Files.createTempDirectory("moirai-s3-cache")
+
+    try {
+      test(directory)
+    } finally {
+      Files.walk(directory).sorted(Comparator.reverseOrder[Path]()).forEach(path => Files.deleteIfExists(path))
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.nike.moirai.typesafeconfig;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resources loaded for a config instance, such as the segments mapped or the bitmaps read when it was loaded, by the location named in the
+ * config. Configs are compared by identity and held weakly, so the resources for a config are released once the config is no longer used,
+ * while a config that is still in use, such as by a {@link com.nike.moirai.FeatureFlagSnapshot}, keeps reading the resources loaded with
+ * it.
+ *
+ * @param <T> the type of the resources
+ */
+final class ConfigBindings<T> {
+    private final ReferenceQueue<Config> collected = new ReferenceQueue<>();
+    private final Map<Object, Map<String, T>> bound = new ConcurrentHashMap<>();
+
+    /**
+     * @param config a config instance
+     * @return the resources loaded for the config instance by location, or null if none were loaded for it
+     */
+    Map<String, T> get(Config config) {
+        return this.bound.get(new Lookup(config));
+    }
+
+    /**
+     * Adds the resources to the ones loaded for the config instance.
+     *
+     * @param config a config instance
+     * @param resources the resources loaded for the config instance by location
+     */
+    void bind(Config config, Map<String, T> resources) {
+        releaseCollected();
+
+        this.bound.merge(new Key(config, this.collected), Collections.unmodifiableMap(resources), (current, added) -> {
+            Map<String, T> merged = new HashMap<>(current);
+            merged.putAll(added);
+            return Collections.unmodifiableMap(merged);
+        });
+    }
+
+    /**
+     * @return the number of config instances with resources that have not been released yet
+     */
+    int size() {
+        releaseCollected();
+        return this.bound.size();
+    }
+
+    private void releaseCollected() {
+        Reference<? extends Config> reference;
+
+        while ((reference = this.collected.poll()) != null) {
+            this.bound.remove(reference);
+        }
+    }
+
+    /**
+     * Tracks the config instances a load step has bound resources to. A load step given one of them again, such as when the reader before
+     * it returns an unchanged config as is, binds the new resources to a copy instead, so that the resources already bound to the instance
+     * do not change under checks that are using it.
+     */
+    static final class BoundConfigs {
+        private final ConfigBindings<Object> bound = new ConfigBindings<>();
+
+        /**
+         * @param config the config to bind resources to
+         * @return the config, or a new instance with the same contents if resources were bound to this instance before
+         */
+        Config unbound(Config config) {
+            Config unbound = this.bound.get(config) != null ? ConfigFactory.empty().withFallback(config) : config;
+            this.bound.bind(unbound, Collections.emptyMap());
+            return unbound;
+        }
+    }
+
+    private static final class Key extends WeakReference<Config> {
+        private final int hashCode;
+
+        private Key(Config config, ReferenceQueue<Config> queue) {
+            super(config, queue);
+            this.hashCode = System.identityHashCode(config);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            Config config = get();
+            return config != null && o instanceof Key && ((Key) o).get() == config;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A strongly held key for looking up a config, which is equal to the {@link Key} for the same instance.
+     */
+    private static final class Lookup {
+        private final Config config;
+
+        private Lookup(Config config) {
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).get() == this.config;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.config);
+        }
+    }
+}
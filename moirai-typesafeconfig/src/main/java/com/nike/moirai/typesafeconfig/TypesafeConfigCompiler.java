@@ -0,0 +1,167 @@
+package com.nike.moirai.typesafeconfig;
+
+import com.nike.moirai.config.BucketingStrategy;
+import com.nike.moirai.config.CompiledConfig;
+import com.nike.moirai.config.CompiledFeature;
+import com.nike.moirai.config.FeatureRule;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles a Typesafe {@link Config} into a {@link CompiledConfig}, following the same conventions as {@link TypesafeConfigDecider}.
+ * <p>
+ * Every object under "moirai" that has at least one non-object value is compiled as a feature, using the path below "moirai" as the
+ * feature identifier. Within a feature, "featureEnabled", "enabledProportion", "featureGroup" and "enabledUserIds" are read into the
+ * corresponding fields, "rule" is parsed as a {@link FeatureRule}, and any other list is read as enabled values for a custom dimension
+ * under its own key. An invalid rule fails the whole compile, so a reloader keeps the previous config.
+ * <p>
+ * Compile once per loaded config by chaining onto the reader, for example:
+ * <pre>
+ * supplierAndThen(resourceLoader, TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigCompiler.COMPILE))
+ * </pre>
+ */
+public class TypesafeConfigCompiler implements Function<Config, CompiledConfig> {
+    /**
+     * Compiles custom dimension values as strings, and buckets proportions in rules with {@link BucketingStrategy#HASH_CODE_PERCENT}.
+     */
+    public static final TypesafeConfigCompiler COMPILE = new TypesafeConfigCompiler(Collections.emptyMap(), BucketingStrategy.HASH_CODE_PERCENT);
+
+    private static final String ROOT_PATH = "moirai";
+    private static final String FEATURE_ENABLED = "featureEnabled";
+    private static final String ENABLED_PROPORTION = "enabledProportion";
+    private static final String FEATURE_GROUP = "featureGroup";
+    private static final String ENABLED_USER_IDS = "enabledUserIds";
+    private static final String RULE = "rule";
+
+    private final Map<String, Function<String, ?>> conversions;
+    private final BucketingStrategy bucketingStrategy;
+
+    private TypesafeConfigCompiler(Map<String, Function<String, ?>> conversions, BucketingStrategy bucketingStrategy) {
+        this.conversions = conversions;
+        this.bucketingStrategy = bucketingStrategy;
+    }
+
+    /**
+     * Your custom dimension values must match the converted type to be enabled by
+     * {@link com.nike.moirai.config.CompiledFeatureDeciders#enabledCustomDimension(String, String)}.
+     *
+     * @param configKey the key used for the enabled values for the dimension
+     * @param conversion a function to convert the values in the config from strings to the data-type used in your custom dimension
+     * @return a compiler that also converts the values for the given config key
+     */
+    public TypesafeConfigCompiler withConversion(String configKey, Function<String, ?> conversion) {
+        Map<String, Function<String, ?>> newConversions = new HashMap<>(this.conversions);
+        newConversions.put(configKey, conversion);
+
+        return new TypesafeConfigCompiler(Collections.unmodifiableMap(newConversions), this.bucketingStrategy);
+    }
+
+    /**
+     * Use the same strategy as the proportion decider, such as {@link TypesafeConfigDecider#proportionOfUsers(BucketingStrategy)}, so
+     * that a rule's proportion terms enable the same users.
+     *
+     * @param bucketingStrategy how to bucket users for proportion terms in rules
+     * @return a compiler that parses rules with the given strategy
+     */
+    public TypesafeConfigCompiler withBucketingStrategy(BucketingStrategy bucketingStrategy) {
+        return new TypesafeConfigCompiler(this.conversions, bucketingStrategy);
+    }
+
+    @Override
+    public CompiledConfig apply(Config config) {
+        if (!config.hasPath(ROOT_PATH)) {
+            return CompiledConfig.empty();
+        }
+
+        List<CompiledFeature> features = new ArrayList<>();
+        collectFeatures(config.getObject(ROOT_PATH), null, features);
+
+        return CompiledConfig.of(features);
+    }
+
+    private void collectFeatures(ConfigObject configObject, String prefix, List<CompiledFeature> features) {
+        boolean hasSettings = false;
+
+        for (Map.Entry<String, ConfigValue> entry : configObject.entrySet()) {
+            if (entry.getValue().valueType() == ConfigValueType.OBJECT) {
+                String path = prefix == null ? entry.getKey() : prefix + "." + entry.getKey();
+                collectFeatures((ConfigObject) entry.getValue(), path, features);
+            } else {
+                hasSettings = true;
+            }
+        }
+
+        if (hasSettings && prefix != null) {
+            features.add(compileFeature(prefix, configObject));
+        }
+    }
+
+    private CompiledFeature compileFeature(String featureIdentifier, ConfigObject configObject) {
+        Config featureConfig = configObject.toConfig();
+        CompiledFeature.Builder builder = new CompiledFeature.Builder(featureIdentifier);
+
+        for (Map.Entry<String, ConfigValue> entry : configObject.entrySet()) {
+            String key = entry.getKey();
+            String path = ConfigUtil.joinPath(key);
+
+            switch (key) {
+                case FEATURE_ENABLED:
+                    builder.featureEnabled(featureConfig.getBoolean(path));
+                    break;
+                case ENABLED_PROPORTION:
+                    builder.enabledProportion(featureConfig.getDouble(path));
+                    break;
+                case FEATURE_GROUP:
+                    builder.featureGroup(featureConfig.getString(path));
+                    break;
+                case ENABLED_USER_IDS:
+                    builder.enabledUserIds(featureConfig.getStringList(path));
+                    break;
+                case RULE:
+                    builder.rule(parseRule(featureIdentifier, featureConfig.getString(path)));
+                    break;
+                default:
+                    if (isStringList(entry.getValue())) {
+                        Function<String, ?> conversion = conversions.getOrDefault(key, Function.identity());
+                        builder.enabledValues(key, featureConfig.getStringList(path).stream().map(conversion).collect(Collectors.toList()));
+                    }
+            }
+        }
+
+        return builder.build();
+    }
+
+    private FeatureRule parseRule(String featureIdentifier, String rule) {
+        try {
+            return FeatureRule.parse(rule, this.bucketingStrategy);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid rule for feature '%s': %s", featureIdentifier, e.getMessage()), e);
+        }
+    }
+
+    private static boolean isStringList(ConfigValue value) {
+        if (value.valueType() != ConfigValueType.LIST) {
+            return false;
+        }
+
+        for (ConfigValue element : (ConfigList) value) {
+            if (element.valueType() == ConfigValueType.OBJECT || element.valueType() == ConfigValueType.LIST) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -1,22 +1,50 @@
 package com.nike.moirai.typesafeconfig;
 
+import com.nike.moirai.config.BucketingStrategy;
 import com.nike.moirai.config.ConfigDecisionInput;
 import com.nike.moirai.config.EnabledUsersConfigDecider;
 import com.nike.moirai.config.ProportionOfUsersConfigDecider;
 import com.nike.moirai.config.EnabledCustomDimensionConfigDecider;
+import com.nike.moirai.config.EnabledNumericDimensionConfigDecider;
+import com.nike.moirai.config.EnabledNumericUsersConfigDecider;
 import com.nike.moirai.config.FeatureEnabledConfigDecider;
+import com.nike.moirai.resource.FileResourceLoaders;
+import com.nike.moirai.segment.IdBitmap;
+import com.nike.moirai.segment.UserIdSegment;
+import com.nike.moirai.segment.UserIdSegmentLoader;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Predicate implementations that read from a Typesafe {@link Config}.
  */
 public class TypesafeConfigDecider {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypesafeConfigDecider.class);
+
+    private static final String ROOT_PATH = "moirai";
+    private static final String ENABLED_USER_IDS_SEGMENT = "enabledUserIdsSegment";
+    private static final String BITMAP_SUFFIX = "Bitmap";
+    private static final ConfigBindings<UserIdSegment> USER_SEGMENTS = new ConfigBindings<>();
+    private static final ConfigBindings<IdBitmap> ID_BITMAPS = new ConfigBindings<>();
 
     /**
      * Reads the enabled list from the config at a path of "moirai.[featureIdentifier].enabledUserIds". For instance, for a
@@ -33,6 +61,139 @@ public class TypesafeConfigDecider {
         }
     };
 
+    /**
+     * Reads the path of a {@link UserIdSegment} file from the config at a path of "moirai.[featureIdentifier].enabledUserIdsSegment", and
+     * checks users against the memory-mapped segment instead of a list on the heap. For instance, for a feature identifier of
+     * "foo.service.myfeature", the config value "moirai.foo.service.myfeature.enabledUserIdsSegment" will be read. If that config path
+     * does not exist, an empty set of users will be provided.
+     * <p>
+     * The segment files are mapped by {@link #LOAD_USER_SEGMENTS} when the config is loaded, so checks never touch the file system, and
+     * each config is checked against the segments mapped when it was loaded. A segment that was not mapped when the config was loaded
+     * enables no users, and logs a warning.
+     *
+     * @see EnabledUsersConfigDecider
+     * @see UserIdSegmentLoader
+     */
+    public static final Predicate<ConfigDecisionInput<Config>> ENABLED_USER_SEGMENTS = new EnabledUsersConfigDecider<Config>() {
+        @Override
+        protected Collection<String> enabledUsers(Config config, String featureIdentifier) {
+            String path = String.format("moirai.%s.%s", featureIdentifier, ENABLED_USER_IDS_SEGMENT);
+
+            return TypesafeConfigExtractor.extractOptional(config, path, Config::getString)
+                .map(segmentPath -> mappedSegment(config, segmentPath))
+                .orElse(Collections.emptySet());
+        }
+    };
+
+    /**
+     * Maps the {@link UserIdSegment} file named by "enabledUserIdsSegment" for every feature in the config, for
+     * {@link #ENABLED_USER_SEGMENTS}. Chain this onto the reader, so that the files are mapped each time the config is loaded rather than
+     * when a feature is checked, for example:
+     * <pre>
+     * supplierAndThen(resourceLoader, TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigDecider.LOAD_USER_SEGMENTS))
+     * </pre>
+     * A file is only mapped again if it has been replaced or modified since it was last mapped. The segments are bound to the loaded
+     * config instance, and released once that config is no longer used. If a file cannot be read or is not a valid segment, the load
+     * fails, so a reloader keeps the previous config and the segments mapped with it.
+     *
+     * @see #loadUserSegments()
+     * @see UserIdSegmentLoader
+     */
+    public static final Function<Config, Config> LOAD_USER_SEGMENTS = loadUserSegments();
+
+    /**
+     * Maps segments the same way as {@link #LOAD_USER_SEGMENTS}, keeping its own loader for each segment file. Use a separate function for
+     * each resource that is reloaded, so that each one only keeps loaders for the files its latest config names.
+     *
+     * @return a function that maps the segments named in the config, and returns the config they are bound to
+     */
+    public static Function<Config, Config> loadUserSegments() {
+        Map<String, UserIdSegmentLoader> loaders = new ConcurrentHashMap<>();
+        ConfigBindings.BoundConfigs boundConfigs = new ConfigBindings.BoundConfigs();
+
+        return config -> {
+            Map<String, UserIdSegment> mapped = new HashMap<>();
+
+            for (String segmentPath : featureSettings(config, ENABLED_USER_IDS_SEGMENT::equals)) {
+                mapped.computeIfAbsent(segmentPath, p -> loaders.computeIfAbsent(p, l -> new UserIdSegmentLoader(Paths.get(l))).get());
+            }
+
+            // Files the latest config no longer names are mapped again from scratch if they are named later
+            loaders.keySet().retainAll(mapped.keySet());
+
+            Config bound = boundConfigs.unbound(config);
+            USER_SEGMENTS.bind(bound, mapped);
+            return bound;
+        };
+    }
+
+    /**
+     * Reads numeric enabled users into an {@link IdBitmap}, from the bitmap named at a path of
+     * "moirai.[featureIdentifier].enabledUserIdsBitmap" if it exists, and otherwise from the list at a path of
+     * "moirai.[featureIdentifier].enabledUserIds", ignoring any userIds that are not numeric. If neither config path exists, no users will
+     * be enabled.
+     * <p>
+     * Named bitmaps are loaded by {@link #LOAD_ID_BITMAPS} or {@link #loadIdBitmaps(Function)} when the config is loaded; a bitmap that
+     * was not loaded enables no users, and logs a warning. The bitmap for a list is built once each time the config is reloaded, and
+     * userIds are checked as primitive longs.
+     *
+     * @see EnabledNumericUsersConfigDecider
+     */
+    public static final Predicate<ConfigDecisionInput<Config>> ENABLED_NUMERIC_USERS = new EnabledNumericUsersConfigDecider<Config>() {
+        @Override
+        protected IdBitmap enabledIds(Config config, String featureIdentifier) {
+            String bitmapPath = String.format("moirai.%s.enabledUserIdsBitmap", featureIdentifier);
+
+            if (config.hasPath(bitmapPath)) {
+                return loadedIdBitmap(config, config.getString(bitmapPath));
+            }
+
+            return parseIds(TypesafeConfigExtractor.extractCollection(config, String.format("moirai.%s.enabledUserIds", featureIdentifier), Config::getStringList));
+        }
+    };
+
+    /**
+     * Loads the {@link IdBitmap} file named by "enabledUserIdsBitmap", or by any other feature setting whose key ends with "Bitmap", for
+     * every feature in the config, for {@link #ENABLED_NUMERIC_USERS} and {@link #enabledNumericDimension(String, String)}. Each file must
+     * hold a bitmap written with {@link IdBitmap#toBytes()}. Chain this onto the reader, so that bitmaps are read each time the config is
+     * loaded rather than when a feature is checked, for example:
+     * <pre>
+     * supplierAndThen(resourceLoader, TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigDecider.LOAD_ID_BITMAPS))
+     * </pre>
+     * The bitmaps are bound to the loaded config instance, so each config is checked against the bitmaps loaded with it, and they are
+     * released once that config is no longer used. If a bitmap cannot be read or is not valid, the load fails, so a reloader keeps the
+     * previous config and the bitmaps loaded with it.
+     */
+    public static final Function<Config, Config> LOAD_ID_BITMAPS = loadIdBitmaps(location -> FileResourceLoaders.forFileBytes(new File(location)));
+
+    /**
+     * Loads bitmaps the same way as {@link #LOAD_ID_BITMAPS}, but from a loader for each location named in the config, such as
+     * {@code location -> S3ResourceLoader.bytesWithS3Client(s3Client, bucket, location)}. The loader for a location is created the first
+     * time the location is named, and reused for every later load until a loaded config no longer names the location.
+     *
+     * @param bitmapLoader creates a loader for the bytes of the bitmap at a location named in the config
+     * @return a function that loads the bitmaps named in the config, and returns the config they are bound to
+     */
+    public static Function<Config, Config> loadIdBitmaps(Function<String, Supplier<byte[]>> bitmapLoader) {
+        Map<String, Supplier<byte[]>> loaders = new ConcurrentHashMap<>();
+        ConfigBindings.BoundConfigs boundConfigs = new ConfigBindings.BoundConfigs();
+
+        return config -> {
+            Map<String, IdBitmap> loaded = new HashMap<>();
+
+            for (String location : featureSettings(config, key -> key.endsWith(BITMAP_SUFFIX))) {
+                loaded.computeIfAbsent(location, l -> IdBitmap.fromBytes(loaders.computeIfAbsent(l, bitmapLoader).get()));
+            }
+
+            loaders.keySet().retainAll(loaded.keySet());
+
+            // Only bind the bitmaps once all of them have loaded
+            Config bound = boundConfigs.unbound(config);
+            ID_BITMAPS.bind(bound, loaded);
+            return bound;
+        };
+    }
+
     /**
      * Reads the enabled proportion of users from the config at a path of "moirai.[featureIdentifier].enabledProportion". For instance, for a
      * feature identifier of "foo.service.myfeature", the config value "moirai.foo.service.myfeature.enabledProportion" will be read. If that config
@@ -41,22 +202,41 @@ public class TypesafeConfigDecider {
      * Reads the feature group from the config at a path of "moirai.[featureIdentifier].featureGroup". For instance, for a feature identifier
      * of "foo.service.myfeature", the config value "moirai.foo.service.myfeature.featureGroup" will be read. If that config path does not exist,
      * {@link Optional#empty()} will be provided.
+     * <p>
+     * Uses {@link BucketingStrategy#HASH_CODE_PERCENT}.
      *
      * @see ProportionOfUsersConfigDecider
      */
-    public static final Predicate<ConfigDecisionInput<Config>> PROPORTION_OF_USERS = new ProportionOfUsersConfigDecider<Config>() {
-        @Override
-        protected Optional<Double> enabledProportion(Config config, String featureIdentifier) {
-            String path = String.format("moirai.%s.enabledProportion", featureIdentifier);
-            return TypesafeConfigExtractor.extractOptional(config, path, Config::getDouble);
-        }
+    public static final Predicate<ConfigDecisionInput<Config>> PROPORTION_OF_USERS = proportionOfUsers(BucketingStrategy.HASH_CODE_PERCENT);
 
-        @Override
-        protected Optional<String> featureGroup(Config config, String featureIdentifier) {
-            String path = String.format("moirai.%s.featureGroup", featureIdentifier);
-            return TypesafeConfigExtractor.extractOptional(config, path, Config::getString);
-        }
-    };
+    /**
+     * Reads the enabled proportion of users and the feature group from the same paths as {@link #PROPORTION_OF_USERS}, and assigns
+     * users to buckets using the given strategy.
+     *
+     * @param bucketingStrategy how to assign users to buckets
+     * @return a Predicate that will return true for the configured proportion of users
+     * @see ProportionOfUsersConfigDecider
+     */
+    public static Predicate<ConfigDecisionInput<Config>> proportionOfUsers(BucketingStrategy bucketingStrategy) {
+        return new ProportionOfUsersConfigDecider<Config>() {
+            @Override
+            protected BucketingStrategy bucketingStrategy() {
+                return bucketingStrategy;
+            }
+
+            @Override
+            protected Optional<Double> enabledProportion(Config config, String featureIdentifier) {
+                String path = String.format("moirai.%s.enabledProportion", featureIdentifier);
+                return TypesafeConfigExtractor.extractOptional(config, path, Config::getDouble);
+            }
+
+            @Override
+            protected Optional<String> featureGroup(Config config, String featureIdentifier) {
+                String path = String.format("moirai.%s.featureGroup", featureIdentifier);
+                return TypesafeConfigExtractor.extractOptional(config, path, Config::getString);
+            }
+        };
+    }
 
     /**
      * Reads the boolean value from the config at a path of "moirai.[featureIdentifier].featureEnabled". For instance, for a
@@ -118,6 +298,99 @@ public class TypesafeConfigDecider {
         return enabledCustomDimension(dimensionKey, configKey, Function.identity());
     }
 
+    /**
+     * Reads numeric enabled values into an {@link IdBitmap}, from the bitmap named at a path of
+     * "moirai.[featureIdentifier].[configKey]Bitmap" if it exists, and otherwise from the list at a path of
+     * "moirai.[featureIdentifier].[configKey]", ignoring any values that are not valid longs. If neither config path exists, no values
+     * will be enabled.
+     * <p>
+     * Named bitmaps are loaded by {@link #LOAD_ID_BITMAPS} or {@link #loadIdBitmaps(Function)} when the config is loaded; a bitmap that
+     * was not loaded enables no values, and logs a warning. The bitmap for a list is built once each time the config is reloaded, and
+     * dimension values are checked as primitive longs.
+     *
+     * @param dimensionKey the key used for the dimension; this should match how you construct your FeatureCheckInput
+     * @param configKey the key used for the enabled values for the dimension
+     * @return a Predicate that will return true if the FeatureCheckInput has a numeric value for your custom dimension that is enabled
+     * @see EnabledNumericDimensionConfigDecider
+     */
+    public static Predicate<ConfigDecisionInput<Config>> enabledNumericDimension(String dimensionKey, String configKey) {
+        return new EnabledNumericDimensionConfigDecider<Config>() {
+            @Override
+            protected String dimensionKey() {
+                return dimensionKey;
+            }
+
+            @Override
+            protected IdBitmap enabledIds(Config config, String featureIdentifier) {
+                String bitmapPath = String.format("moirai.%s.%s%s", featureIdentifier, configKey, BITMAP_SUFFIX);
+
+                if (config.hasPath(bitmapPath)) {
+                    return loadedIdBitmap(config, config.getString(bitmapPath));
+                }
+
+                String path = String.format("moirai.%s.%s", featureIdentifier, configKey);
+                return parseIds(TypesafeConfigExtractor.extractCollection(config, path, Config::getStringList));
+            }
+        };
+    }
+
+    private static IdBitmap loadedIdBitmap(Config config, String location) {
+        Map<String, IdBitmap> loaded = ID_BITMAPS.get(config);
+        IdBitmap idBitmap = loaded != null ? loaded.get(location) : null;
+
+        if (idBitmap == null) {
+            LOGGER.warn("IdBitmap {} was not loaded when the config was loaded; chain LOAD_ID_BITMAPS onto the config reader", location);
+            return IdBitmap.empty();
+        }
+
+        return idBitmap;
+    }
+
+    private static Collection<String> mappedSegment(Config config, String segmentPath) {
+        Map<String, UserIdSegment> mapped = USER_SEGMENTS.get(config);
+        UserIdSegment segment = mapped != null ? mapped.get(segmentPath) : null;
+
+        if (segment == null) {
+            LOGGER.warn("UserId segment {} was not mapped when the config was loaded; chain LOAD_USER_SEGMENTS onto the config reader", segmentPath);
+            return Collections.emptySet();
+        }
+
+        return segment;
+    }
+
+    /**
+     * @return the string values of every feature setting with a matching key
+     */
+    private static List<String> featureSettings(Config config, Predicate<String> key) {
+        List<String> values = new ArrayList<>();
+
+        if (config.hasPath(ROOT_PATH)) {
+            for (Map.Entry<String, ConfigValue> entry : config.getConfig(ROOT_PATH).entrySet()) {
+                List<String> path = ConfigUtil.splitPath(entry.getKey());
+
+                if (path.size() > 1 && key.test(path.get(path.size() - 1)) && entry.getValue().valueType() == ConfigValueType.STRING) {
+                    values.add((String) entry.getValue().unwrapped());
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private static IdBitmap parseIds(Collection<String> ids) {
+        IdBitmap.Builder builder = new IdBitmap.Builder();
+
+        for (String id : ids) {
+            try {
+                builder.add(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                // Not a numeric id, so it can never be checked by a numeric decider
+            }
+        }
+
+        return builder.build();
+    }
+
     private TypesafeConfigDecider() {
         // prevent instantiation
     }
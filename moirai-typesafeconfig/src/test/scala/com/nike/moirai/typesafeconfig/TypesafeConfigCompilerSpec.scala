@@ -0,0 +1,126 @@
+package com.nike.moirai.typesafeconfig
+
+import com.nike.moirai.config.{BucketingStrategy, CompiledConfig, CompiledFeatureDeciders, ConfigDecisionInput}
+import com.nike.moirai.resource.FileResourceLoaders
+import com.nike.moirai.{ConfigFeatureFlagChecker, FeatureCheckInput, Suppliers}
+import com.typesafe.config.Config
+import org.scalatest.prop.GeneratorDrivenPropertyChecks
+import org.scalatest.{FunSpec, Matchers}
+
+import scala.collection.JavaConverters._
+
+//noinspection TypeAnnotation
+class TypesafeConfigCompilerSpec extends FunSpec with Matchers with GeneratorDrivenPropertyChecks {
+  val config = TypesafeConfigReader.FROM_STRING.apply(FileResourceLoaders.forClasspathResource("moirai.conf").get())
+
+  describe("compiling moirai.conf") {
+    val compiled = TypesafeConfigCompiler.COMPILE.apply(config)
+
+    it("should compile every feature with settings") {
+      compiled.getFeatures.keySet().asScala shouldBe Set("foo", "bar", "baz", "qux", "coffee", "tea")
+    }
+
+    it("should read the enabled users, including references") {
+      compiled.getFeature("foo").getEnabledUserIds.asScala shouldBe Set("42", "0", "7", "8", "9")
+    }
+
+    it("should read the enabled proportion and feature enabled values") {
+      compiled.getFeature("bar").getEnabledProportion shouldBe 1.0
+      compiled.getFeature("coffee").isFeatureEnabled shouldBe true
+      compiled.getFeature("tea").isFeatureEnabled shouldBe false
+    }
+
+    it("should read other lists as custom dimension values") {
+      compiled.getFeature("qux").getEnabledValues("enabledCountries").asScala shouldBe Set("Peru", "Luxembourg")
+    }
+  }
+
+  describe("compiling with a conversion") {
+    val compiled = TypesafeConfigCompiler.COMPILE.withConversion("enabledCountries", (s: String) => s.length).apply(config)
+
+    it("should convert the custom dimension values") {
+      compiled.getFeature("qux").getEnabledValues("enabledCountries").asScala shouldBe Set(4, 10)
+    }
+  }
+
+  describe("compiling rules") {
+    it("should parse the rule of each feature") {
+      val compiled = TypesafeConfigCompiler.COMPILE.apply(TypesafeConfigReader.FROM_STRING.apply(
+        """moirai.foo {
+          |  enabledUserIds = [a]
+          |  rule = "users OR (country IN [US] AND proportion 0.2)"
+          |}
+          |moirai.bar.featureEnabled = true
+          |""".stripMargin))
+
+      compiled.getFeature("foo").getRule.get.getSimplified shouldBe "(users OR (country IN [\"US\"] AND proportion 0.2))"
+      compiled.getFeature("bar").getRule.isPresent shouldBe false
+
+      val decider = CompiledFeatureDeciders.ruleOr(CompiledFeatureDeciders.FEATURE_ENABLED)
+      decider.test(new ConfigDecisionInput(compiled, "foo", FeatureCheckInput.forUser("a"))) shouldBe true
+      decider.test(new ConfigDecisionInput(compiled, "bar", FeatureCheckInput.forUser("a"))) shouldBe true
+    }
+
+    it("should fail to compile an invalid rule") {
+      val thrown = the[IllegalArgumentException] thrownBy TypesafeConfigCompiler.COMPILE.apply(
+        TypesafeConfigReader.FROM_STRING.apply("moirai.foo.rule = \"users OR\""))
+
+      thrown.getMessage should startWith("Invalid rule for feature 'foo'")
+    }
+
+    it("should parse rules with the configured bucketing strategy") {
+      val config = TypesafeConfigReader.FROM_STRING.apply("moirai.foo.rule = \"proportion 0.2\"")
+
+      TypesafeConfigCompiler.COMPILE.apply(config).getFeature("foo").getRule.get.getBucketingStrategy shouldBe BucketingStrategy.HASH_CODE_PERCENT
+      TypesafeConfigCompiler.COMPILE.withBucketingStrategy(BucketingStrategy.MURMUR3_BASIS_POINTS).apply(config)
+        .getFeature("foo").getRule.get.getBucketingStrategy shouldBe BucketingStrategy.MURMUR3_BASIS_POINTS
+    }
+  }
+
+  describe("compiling a config without moirai settings") {
+    it("should compile to an empty config") {
+      TypesafeConfigCompiler.COMPILE.apply(TypesafeConfigReader.FROM_STRING.apply("foo = 1")) shouldBe CompiledConfig.empty()
+    }
+  }
+
+  describe("A compiled config checker") {
+    val rawChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](
+      () => config,
+      TypesafeConfigDecider.ENABLED_USERS.or(TypesafeConfigDecider.PROPORTION_OF_USERS)
+    )
+
+    val compiledChecker = ConfigFeatureFlagChecker.forConfigSupplier[CompiledConfig](
+      Suppliers.supplierAndThen(FileResourceLoaders.forClasspathResource("moirai-feature-group.conf"),
+        TypesafeConfigReader.FROM_STRING.andThen(TypesafeConfigCompiler.COMPILE)),
+      CompiledFeatureDeciders.ENABLED_USERS.or(CompiledFeatureDeciders.PROPORTION_OF_USERS)
+    )
+
+    val groupRawChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](
+      Suppliers.supplierAndThen(FileResourceLoaders.forClasspathResource("moirai-feature-group.conf"), TypesafeConfigReader.FROM_STRING),
+      TypesafeConfigDecider.PROPORTION_OF_USERS
+    )
+
+    val fooChecker = ConfigFeatureFlagChecker.forConfigSupplier[CompiledConfig](
+      () => TypesafeConfigCompiler.COMPILE.apply(config),
+      CompiledFeatureDeciders.ENABLED_USERS.or(CompiledFeatureDeciders.PROPORTION_OF_USERS)
+    )
+
+    it("should make the same decisions as the raw config deciders") {
+      forAll { (userId: String) =>
+        Seq("foo", "bar", "baz", "qux", "quux").foreach { feature =>
+          fooChecker.isFeatureEnabled(feature, FeatureCheckInput.forUser(userId)) shouldBe
+            rawChecker.isFeatureEnabled(feature, FeatureCheckInput.forUser(userId))
+        }
+      }
+    }
+
+    it("should make the same decisions as the raw config deciders for feature groups") {
+      forAll { (userId: String) =>
+        Seq("feature1", "feature2", "feature3", "feature4", "feature5").foreach { feature =>
+          compiledChecker.isFeatureEnabled(feature, FeatureCheckInput.forUser(userId)) shouldBe
+            groupRawChecker.isFeatureEnabled(feature, FeatureCheckInput.forUser(userId))
+        }
+      }
+    }
+  }
+}
@@ -1,11 +1,15 @@
 package com.nike.moirai.typesafeconfig
 
+import java.nio.file.Files
+
 import com.nike.moirai.resource.FileResourceLoaders
+import com.nike.moirai.segment.{IdBitmap, UserIdSegment}
 import com.nike.moirai.{ConfigFeatureFlagChecker, FeatureCheckInput, Suppliers}
 import com.typesafe.config.Config
 import org.scalatest.prop.GeneratorDrivenPropertyChecks
 import org.scalatest.{FunSpec, Matchers}
 
+import scala.collection.JavaConverters._
 import scala.collection.mutable
 
 //noinspection TypeAnnotation
@@ -163,4 +167,246 @@ class TypesafeConfigUserDecidersSpec extends FunSpec with Matchers with Generato
       featureFlagChecker.isFeatureEnabled("qux", input) shouldBe false
     }
   }
+
+  describe("An enabled-user segment config decider") {
+    val segment = Files.createTempFile("users", ".seg")
+    segment.toFile.deleteOnExit()
+    UserIdSegment.write(Seq("susan", "bill").asJava, segment)
+
+    val config = TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.LOAD_USER_SEGMENTS).apply(
+      s"""moirai.baz.enabledUserIdsSegment = "${segment.toString.replace("\\", "\\\\")}"""")
+
+    val featureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config, TypesafeConfigDecider.ENABLED_USER_SEGMENTS)
+
+    it("should be enabled for users in the segment") {
+      featureFlagChecker.isFeatureEnabled("baz", FeatureCheckInput.forUser("susan")) shouldBe true
+      featureFlagChecker.isFeatureEnabled("baz", FeatureCheckInput.forUser("bill")) shouldBe true
+    }
+
+    it("should be disabled for other users, users without a userId, and features without a segment") {
+      featureFlagChecker.isFeatureEnabled("baz", FeatureCheckInput.forUser("bob")) shouldBe false
+      featureFlagChecker.isFeatureEnabled("baz") shouldBe false
+      featureFlagChecker.isFeatureEnabled("water", FeatureCheckInput.forUser("susan")) shouldBe false
+    }
+
+    it("should fail to load a config naming a segment file that cannot be read") {
+      val missing = Files.createTempFile("users", ".seg")
+      Files.delete(missing)
+
+      an[java.io.UncheckedIOException] should be thrownBy TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.LOAD_USER_SEGMENTS).apply(
+        s"""moirai.baz.enabledUserIdsSegment = "${missing.toString.replace("\\", "\\\\")}"""")
+    }
+
+    it("should not enable any users for a segment that was not mapped when the config was loaded") {
+      val unmapped = Files.createTempFile("users", ".seg")
+      unmapped.toFile.deleteOnExit()
+      UserIdSegment.write(Seq("susan").asJava, unmapped)
+
+      val unloadedConfig = TypesafeConfigReader.FROM_STRING.apply(
+        s"""moirai.baz.enabledUserIdsSegment = "${unmapped.toString.replace("\\", "\\\\")}"""")
+
+      ConfigFeatureFlagChecker.forConfigSupplier[Config](() => unloadedConfig, TypesafeConfigDecider.ENABLED_USER_SEGMENTS)
+        .isFeatureEnabled("baz", FeatureCheckInput.forUser("susan")) shouldBe false
+    }
+  }
+
+  describe("Loading segments for each config") {
+    def segmentConfig(path: java.nio.file.Path): String =
+      s"""moirai.baz.enabledUserIdsSegment = "${path.toString.replace("\\", "\\\\")}""""
+
+    def replace(path: java.nio.file.Path, userIds: String*): Unit = {
+      val replacement = Files.createTempFile("users", ".seg")
+      UserIdSegment.write(userIds.asJava, replacement)
+      Files.move(replacement, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING)
+    }
+
+    it("should keep checking a config against the segment mapped when it was loaded after the file is replaced") {
+      val segment = Files.createTempFile("users", ".seg")
+      segment.toFile.deleteOnExit()
+      UserIdSegment.write(Seq("susan").asJava, segment)
+      val loadUserSegments = TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.loadUserSegments())
+
+      val oldConfig = loadUserSegments.apply(segmentConfig(segment))
+      replace(segment, "bill")
+      val newConfig = loadUserSegments.apply(segmentConfig(segment))
+
+      def check(config: Config, userId: String): Boolean =
+        ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config, TypesafeConfigDecider.ENABLED_USER_SEGMENTS)
+          .isFeatureEnabled("baz", FeatureCheckInput.forUser(userId))
+
+      check(newConfig, "bill") shouldBe true
+      check(newConfig, "susan") shouldBe false
+      check(oldConfig, "susan") shouldBe true
+      check(oldConfig, "bill") shouldBe false
+    }
+
+    it("should bind the segments to a new config instance when given a config instance it already loaded") {
+      val segment = Files.createTempFile("users", ".seg")
+      segment.toFile.deleteOnExit()
+      UserIdSegment.write(Seq("susan").asJava, segment)
+      val loadUserSegments = TypesafeConfigDecider.loadUserSegments()
+      val config = TypesafeConfigReader.FROM_STRING.apply(segmentConfig(segment))
+
+      val first = loadUserSegments.apply(config)
+      replace(segment, "bill")
+      val second = loadUserSegments.apply(config)
+      replace(segment, "bob")
+      val third = loadUserSegments.apply(config)
+
+      second should not be theSameInstanceAs(first)
+      third should not be theSameInstanceAs(first)
+
+      def check(config: Config, userId: String): Boolean =
+        ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config, TypesafeConfigDecider.ENABLED_USER_SEGMENTS)
+          .isFeatureEnabled("baz", FeatureCheckInput.forUser(userId))
+
+      check(first, "susan") shouldBe true
+      check(second, "bill") shouldBe true
+      check(third, "bob") shouldBe true
+    }
+
+    it("should release the resources bound to a config that is no longer used") {
+      val bindings = new ConfigBindings[UserIdSegment]
+      var config = TypesafeConfigReader.FROM_STRING.apply("moirai.baz.featureEnabled = true")
+      bindings.bind(config, java.util.Collections.emptyMap())
+      bindings.size shouldBe 1
+
+      config = null
+      var attempts = 0
+      while (bindings.size > 0 && attempts < 100) {
+        System.gc()
+        Thread.sleep(10)
+        attempts += 1
+      }
+
+      bindings.size shouldBe 0
+    }
+  }
+
+  describe("Numeric enabled-id config deciders") {
+    val bitmap = Files.createTempFile("accounts", ".bitmap")
+    bitmap.toFile.deleteOnExit()
+    Files.write(bitmap, IdBitmap.of(1001, 1002).toBytes)
+    val bitmapPath = bitmap.toString.replace("\\", "\\\\")
+
+    val config = TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.LOAD_ID_BITMAPS).apply(
+      s"""moirai {
+         |  foo.enabledUserIds = ["7", "42", "susan"]
+         |  bar.enabledUserIdsBitmap = "$bitmapPath"
+         |  baz.enabledAccounts = [1001, "1002"]
+         |  qux.enabledAccountsBitmap = "$bitmapPath"
+         |}""".stripMargin)
+
+    describe("ENABLED_NUMERIC_USERS") {
+      val featureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config, TypesafeConfigDecider.ENABLED_NUMERIC_USERS)
+
+      it("should be enabled for numeric users in the enabledUserIds list") {
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("42")) shouldBe true
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("43")) shouldBe false
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("susan")) shouldBe false
+      }
+
+      it("should be enabled for users in the bitmap file") {
+        featureFlagChecker.isFeatureEnabled("bar", FeatureCheckInput.forUser("1001")) shouldBe true
+        featureFlagChecker.isFeatureEnabled("bar", FeatureCheckInput.forUser("1003")) shouldBe false
+        featureFlagChecker.isFeatureEnabled("bar") shouldBe false
+        featureFlagChecker.isFeatureEnabled("water", FeatureCheckInput.forUser("1001")) shouldBe false
+      }
+    }
+
+    describe("enabledNumericDimension") {
+      val featureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config,
+        TypesafeConfigDecider.enabledNumericDimension("account", "enabledAccounts"))
+
+      it("should be enabled for numeric values from a list or a bitmap file") {
+        Seq("baz", "qux").foreach { feature =>
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty().withAdditionalDimension("account", 1001L)) shouldBe true
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty().withAdditionalDimension("account", 1002)) shouldBe true
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty().withAdditionalDimension("account", "1001")) shouldBe true
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty().withAdditionalDimension("account", 1003)) shouldBe false
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty().withAdditionalDimension("account", 1001.0)) shouldBe false
+          featureFlagChecker.isFeatureEnabled(feature, FeatureCheckInput.empty()) shouldBe false
+        }
+      }
+    }
+
+    describe("loading bitmaps") {
+      it("should load each bitmap once per config load from the given loader") {
+        val loads = new java.util.concurrent.atomic.AtomicInteger()
+        val loadIdBitmaps = TypesafeConfigDecider.loadIdBitmaps(new java.util.function.Function[String, java.util.function.Supplier[Array[Byte]]] {
+          override def apply(location: String): java.util.function.Supplier[Array[Byte]] = () => {
+            loads.incrementAndGet()
+            IdBitmap.of(location.stripPrefix("s3://bitmaps/").toLong).toBytes
+          }
+        })
+        val bucketConfig = TypesafeConfigReader.FROM_STRING.andThen[Config](loadIdBitmaps).apply(
+          """moirai {
+            |  foo.enabledUserIdsBitmap = "s3://bitmaps/2001"
+            |  bar.enabledUserIdsBitmap = "s3://bitmaps/2001"
+            |}""".stripMargin)
+
+        val featureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](() => bucketConfig, TypesafeConfigDecider.ENABLED_NUMERIC_USERS)
+
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("2001")) shouldBe true
+        featureFlagChecker.isFeatureEnabled("bar", FeatureCheckInput.forUser("2001")) shouldBe true
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("2002")) shouldBe false
+        loads.get shouldBe 1
+      }
+
+      it("should keep checking a config against the bitmaps loaded with it") {
+        @volatile var ids = Seq(3001L)
+        val loadIdBitmaps = TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.loadIdBitmaps(
+          new java.util.function.Function[String, java.util.function.Supplier[Array[Byte]]] {
+            override def apply(location: String): java.util.function.Supplier[Array[Byte]] = () => IdBitmap.of(ids: _*).toBytes
+          }))
+        val bitmapConfig = "moirai.foo.enabledUserIdsBitmap = \"s3://bitmaps/current\""
+
+        val oldConfig = loadIdBitmaps.apply(bitmapConfig)
+        ids = Seq(3002L)
+        val newConfig = loadIdBitmaps.apply(bitmapConfig)
+
+        def check(config: Config, userId: String): Boolean =
+          ConfigFeatureFlagChecker.forConfigSupplier[Config](() => config, TypesafeConfigDecider.ENABLED_NUMERIC_USERS)
+            .isFeatureEnabled("foo", FeatureCheckInput.forUser(userId))
+
+        check(newConfig, "3002") shouldBe true
+        check(newConfig, "3001") shouldBe false
+        check(oldConfig, "3001") shouldBe true
+        check(oldConfig, "3002") shouldBe false
+      }
+
+      it("should not change the bitmaps of the previous config when a later load step fails") {
+        val loads = new java.util.concurrent.atomic.AtomicInteger()
+        val loadIdBitmaps = TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.loadIdBitmaps(
+          new java.util.function.Function[String, java.util.function.Supplier[Array[Byte]]] {
+            override def apply(location: String): java.util.function.Supplier[Array[Byte]] = () => IdBitmap.of(4000L + loads.incrementAndGet()).toBytes
+          }))
+        val failingLater = loadIdBitmaps.andThen[Config](_ => throw new IllegalStateException("later step failed"))
+        val bitmapConfig = "moirai.foo.enabledUserIdsBitmap = \"s3://bitmaps/current\""
+
+        val kept = loadIdBitmaps.apply(bitmapConfig)
+        an[IllegalStateException] should be thrownBy failingLater.apply(bitmapConfig)
+
+        val featureFlagChecker = ConfigFeatureFlagChecker.forConfigSupplier[Config](() => kept, TypesafeConfigDecider.ENABLED_NUMERIC_USERS)
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("4001")) shouldBe true
+        featureFlagChecker.isFeatureEnabled("foo", FeatureCheckInput.forUser("4002")) shouldBe false
+      }
+
+      it("should fail to load a config naming a bitmap that is not valid") {
+        val invalid = Files.createTempFile("accounts", ".bitmap")
+        invalid.toFile.deleteOnExit()
+        Files.write(invalid, "not a bitmap".getBytes)
+
+        an[IllegalArgumentException] should be thrownBy TypesafeConfigReader.FROM_STRING.andThen[Config](TypesafeConfigDecider.LOAD_ID_BITMAPS).apply(
+          s"""moirai.bar.enabledUserIdsBitmap = "${invalid.toString.replace("\\", "\\\\")}"""")
+      }
+
+      it("should not enable any users for a bitmap that was not loaded when the config was loaded") {
+        val unloadedConfig = TypesafeConfigReader.FROM_STRING.apply("moirai.bar.enabledUserIdsBitmap = \"never-loaded.bitmap\"")
+
+        ConfigFeatureFlagChecker.forConfigSupplier[Config](() => unloadedConfig, TypesafeConfigDecider.ENABLED_NUMERIC_USERS)
+          .isFeatureEnabled("bar", FeatureCheckInput.forUser("1001")) shouldBe false
+      }
+    }
+  }
 }